@@ -0,0 +1,28 @@
+package io.github.fallwizard.benchmarks;
+
+/**
+ * The bean the synthetic contexts are made of: a placeholder-resolved value and a reference
+ * to the previous bean of the same file.
+ */
+public class BenchmarkBean {
+
+    private String value;
+
+    private BenchmarkBean previous;
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public BenchmarkBean getPrevious() {
+        return previous;
+    }
+
+    public void setPrevious(BenchmarkBean previous) {
+        this.previous = previous;
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.fallwizard.benchmarks;
+
+import io.github.fallwizard.Fallwizard;
+
+/**
+ * Fallwizard application that can close its contexts between benchmark invocations.
+ */
+public class BootstrapApplication extends Fallwizard {
+
+    public void close() {
+        for (int i = childContexts.size() - 1; i >= 0; i--) {
+            childContexts.get(i).close();
+        }
+        applicationContext.close();
+    }
+}
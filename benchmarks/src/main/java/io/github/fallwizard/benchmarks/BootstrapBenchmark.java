@@ -0,0 +1,77 @@
+package io.github.fallwizard.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import io.github.fallwizard.configuration.FallwizardConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of FallwizardApplication.run (load, refresh and registration) for synthetic contexts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BootstrapBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int beans;
+
+    @Param({"1", "8"})
+    public int files;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private File directory;
+
+    private FallwizardConfiguration configuration;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        directory = Files.createTempDir();
+        List<String> locations = SyntheticContexts.writeContexts(directory, beans, files);
+
+        Map<String, Object> spring = ImmutableMap.<String, Object>of(
+                "applicationContext", locations,
+                "parallelLoading", ImmutableMap.of("enabled", parallel),
+                "propertyPlaceholderConfigurer", ImmutableMap.of("properties", SyntheticContexts.properties(100)));
+
+        configuration = SyntheticContexts.configuration(
+                ImmutableMap.<String, Object>of("spring", spring), FallwizardConfiguration.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticContexts.delete(directory);
+    }
+
+    @Benchmark
+    public BootstrapApplication run() throws Exception {
+
+        BootstrapApplication application = new BootstrapApplication();
+        application.run(configuration, SyntheticContexts.environment());
+        application.close();
+        return application;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.fallwizard.benchmarks;
+
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.FallwizardApplication;
+import io.github.fallwizard.configuration.FallwizardConfiguration;
+
+/**
+ * Serves {@link SpringResource} from the Spring context and {@link PlainResource} directly.
+ */
+public class DispatchApplication extends FallwizardApplication<FallwizardConfiguration> {
+
+    @Override
+    public void run(FallwizardConfiguration configuration, Environment environment) throws Exception {
+
+        super.run(configuration, environment);
+        environment.jersey().register(new PlainResource());
+    }
+}
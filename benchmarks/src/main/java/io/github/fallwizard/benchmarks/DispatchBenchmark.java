@@ -0,0 +1,132 @@
+package io.github.fallwizard.benchmarks;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import io.dropwizard.testing.DropwizardTestSupport;
+import io.github.fallwizard.configuration.FallwizardConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of HTTP requests to a resource defined in Spring versus one
+ * registered with Jersey directly, with and without the Spring Security filter chain
+ * (HTTP Basic against an in-memory user).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DispatchBenchmark {
+
+    private static final String SECURITY =
+            "  <security:http use-expressions=\"false\" create-session=\"stateless\">\n"
+            + "    <security:intercept-url pattern=\"/**\" access=\"ROLE_USER\"/>\n"
+            + "    <security:http-basic/>\n"
+            + "  </security:http>\n"
+            + "  <security:authentication-manager>\n"
+            + "    <security:authentication-provider>\n"
+            + "      <security:user-service>\n"
+            + "        <security:user name=\"benchmark\" password=\"benchmark\" authorities=\"ROLE_USER\"/>\n"
+            + "      </security:user-service>\n"
+            + "    </security:authentication-provider>\n"
+            + "  </security:authentication-manager>\n";
+
+    @Param({"plain", "spring"})
+    public String resource;
+
+    @Param({"false", "true"})
+    public boolean security;
+
+    private File directory;
+
+    private DropwizardTestSupport<FallwizardConfiguration> application;
+
+    private URL url;
+
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        directory = Files.createTempDir();
+
+        File context = SyntheticContexts.write(directory, "dispatch-context.xml",
+                SyntheticContexts.BEANS_HEADER
+                + "  <bean class=\"" + SpringResource.class.getName() + "\"/>\n"
+                + (security ? SECURITY : "")
+                + SyntheticContexts.BEANS_FOOTER);
+
+        File configuration = SyntheticContexts.write(directory, "dispatch.yml",
+                "spring:\n"
+                + "  applicationContext: ['" + context.toURI() + "']\n"
+                + "  useSpringSecurity: " + security + "\n"
+                + "  securityFilterChain:\n"
+                + "    enabled: " + security + "\n"
+                + "server:\n"
+                + "  applicationConnectors:\n"
+                + "    - type: http\n"
+                + "      port: 0\n"
+                + "  adminConnectors:\n"
+                + "    - type: http\n"
+                + "      port: 0\n"
+                + "  requestLog:\n"
+                + "    appenders: []\n"
+                + "logging:\n"
+                + "  level: WARN\n");
+
+        application = new DropwizardTestSupport<>(DispatchApplication.class, configuration.getAbsolutePath());
+        application.before();
+
+        url = new URL("http://localhost:" + application.getLocalPort() + "/" + resource);
+        authorization = "Basic " + BaseEncoding.base64().encode("benchmark:benchmark".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.after();
+        SyntheticContexts.delete(directory);
+    }
+
+    @Benchmark
+    public long request() throws IOException {
+
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        if (security) {
+            connection.setRequestProperty("Authorization", authorization);
+        }
+
+        int status = connection.getResponseCode();
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IllegalStateException("GET " + url + " returned " + status);
+        }
+
+        // Read the whole body so the connection is kept alive
+        try (InputStream body = connection.getInputStream()) {
+            return ByteStreams.copy(body, ByteStreams.nullOutputStream());
+        }
+    }
+}
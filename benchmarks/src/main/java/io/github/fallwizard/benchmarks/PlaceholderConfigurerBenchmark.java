@@ -0,0 +1,90 @@
+package io.github.fallwizard.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import io.github.fallwizard.configuration.SpringPropertyPlaceholderConfigurerConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.PropertyPlaceholderConfigurer;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating the placeholder configurer from its YAML configuration with large
+ * property sets (inline and in a file), and of resolving bean definitions with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class PlaceholderConfigurerBenchmark {
+
+    private static final int RESOLVED_BEANS = 100;
+
+    @Param({"100", "10000", "100000"})
+    public int properties;
+
+    private File directory;
+
+    private SpringPropertyPlaceholderConfigurerConfiguration configuration;
+
+    private GenericApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        directory = Files.createTempDir();
+        Map<String, String> values = SyntheticContexts.properties(properties);
+        File file = SyntheticContexts.writeProperties(directory, values);
+
+        configuration = SyntheticContexts.configuration(ImmutableMap.<String, Object>of(
+                "properties", values,
+                "locations", Collections.singletonList(file.toURI().toString())),
+                SpringPropertyPlaceholderConfigurerConfiguration.class);
+        context = new GenericApplicationContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticContexts.delete(directory);
+    }
+
+    @Benchmark
+    public PropertyPlaceholderConfigurer create() {
+        return configuration.createPlaceholderConfigurer(context);
+    }
+
+    @Benchmark
+    public DefaultListableBeanFactory createAndResolve() {
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < RESOLVED_BEANS; i++) {
+            GenericBeanDefinition definition = new GenericBeanDefinition();
+            definition.setBeanClass(BenchmarkBean.class);
+            definition.getPropertyValues().add("value", "${benchmark.property." + (i % properties) + "}");
+            beanFactory.registerBeanDefinition("bean" + i, definition);
+        }
+
+        configuration.createPlaceholderConfigurer(context).postProcessBeanFactory(beanFactory);
+        return beanFactory;
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.fallwizard.benchmarks;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Resource registered with Jersey directly, the baseline for {@link SpringResource}.
+ */
+@Path("/plain")
+@Produces(MediaType.TEXT_PLAIN)
+public class PlainResource {
+
+    @GET
+    public String get() {
+        return "plain";
+    }
+}
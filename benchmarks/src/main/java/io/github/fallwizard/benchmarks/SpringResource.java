@@ -0,0 +1,19 @@
+package io.github.fallwizard.benchmarks;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Resource defined as a Spring bean and registered by Fallwizard.
+ */
+@Path("/spring")
+@Produces(MediaType.TEXT_PLAIN)
+public class SpringResource {
+
+    @GET
+    public String get() {
+        return "spring";
+    }
+}
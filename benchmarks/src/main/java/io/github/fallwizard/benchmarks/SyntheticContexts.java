@@ -0,0 +1,129 @@
+package io.github.fallwizard.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.setup.Environment;
+
+import javax.validation.Validation;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the context files, property files and configurations the benchmarks run against.
+ */
+public final class SyntheticContexts {
+
+    static final String BEANS_HEADER =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<beans xmlns=\"http://www.springframework.org/schema/beans\"\n"
+            + "       xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+            + "       xmlns:security=\"http://www.springframework.org/schema/security\"\n"
+            + "       xsi:schemaLocation=\"http://www.springframework.org/schema/beans "
+            + "http://www.springframework.org/schema/beans/spring-beans.xsd "
+            + "http://www.springframework.org/schema/security "
+            + "http://www.springframework.org/schema/security/spring-security.xsd\">\n";
+
+    static final String BEANS_FOOTER = "</beans>\n";
+
+    private SyntheticContexts() {}
+
+    /**
+     * Write context files declaring the given number of beans in total.  Each bean refers to
+     * the previous bean of its file and takes a placeholder property.
+     * @param directory Directory receiving the files
+     * @param beans Number of beans
+     * @param files Number of files to spread them over
+     * @return Locations of the files
+     */
+    public static List<String> writeContexts(File directory, int beans, int files) throws IOException {
+
+        List<String> locations = new ArrayList<>();
+        int perFile = (beans + files - 1) / files;
+
+        for (int file = 0; file < files; file++) {
+
+            StringBuilder xml = new StringBuilder(BEANS_HEADER);
+            int first = file * perFile;
+            int last = Math.min(beans, first + perFile);
+            for (int bean = first; bean < last; bean++) {
+                xml.append("  <bean id=\"bean").append(bean).append("\" class=\"")
+                        .append(BenchmarkBean.class.getName()).append("\">\n")
+                        .append("    <property name=\"value\" value=\"${benchmark.property.")
+                        .append(bean % 100).append("}\"/>\n");
+                if (bean > first) {
+                    xml.append("    <property name=\"previous\" ref=\"bean").append(bean - 1).append("\"/>\n");
+                }
+                xml.append("  </bean>\n");
+            }
+            xml.append(BEANS_FOOTER);
+
+            locations.add(write(directory, "context-" + file + ".xml", xml.toString()).toURI().toString());
+        }
+        return locations;
+    }
+
+    /**
+     * @param count Number of properties
+     * @return Properties benchmark.property.0 to benchmark.property.(count - 1)
+     */
+    public static Map<String, String> properties(int count) {
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            properties.put("benchmark.property." + i, "value " + i);
+        }
+        return properties;
+    }
+
+    /**
+     * @param directory Directory receiving the file
+     * @param properties Properties to write
+     * @return The properties file
+     */
+    public static File writeProperties(File directory, Map<String, String> properties) throws IOException {
+
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            content.append(property.getKey()).append('=').append(property.getValue()).append('\n');
+        }
+        return write(directory, "benchmark.properties", content.toString());
+    }
+
+    public static File write(File directory, String name, String content) throws IOException {
+
+        File file = new File(directory, name);
+        Files.write(content, file, Charsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * Convert a tree of maps and lists (as YAML would produce) to a configuration object.
+     */
+    public static <T> T configuration(Map<String, Object> tree, Class<T> type) {
+        return Jackson.newObjectMapper().convertValue(tree, type);
+    }
+
+    public static Environment environment() {
+        return new Environment("benchmark", Jackson.newObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                new MetricRegistry(), SyntheticContexts.class.getClassLoader());
+    }
+
+    public static void delete(File file) {
+
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
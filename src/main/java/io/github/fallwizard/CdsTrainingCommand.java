@@ -0,0 +1,292 @@
+package io.github.fallwizard;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import io.dropwizard.Application;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.configuration.FallwizardConfiguration;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.eclipse.jetty.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates an AppCDS archive of the classes the application loads when it boots, so the JVM
+ * maps them from the archive instead of loading, verifying and linking them on every start.
+ *
+ * The command boots the application once in a child JVM recording the classes it loads
+ * (the same YAML, contexts, register* steps; Jetty is started then stopped), dumps the archive
+ * from that class list in a second JVM, then boots a few times with and without the archive
+ * and reports the difference.  Start the server with the same classpath and
+ * -XX:SharedArchiveFile=&lt;archive&gt; to use it.
+ */
+public class CdsTrainingCommand<T extends FallwizardConfiguration> extends ConfiguredCommand<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(CdsTrainingCommand.class);
+
+	// Printed by a boot run, with the JVM uptime once the server has started
+	private static final String BOOT_MARKER = "fallwizard-cds-boot-millis=";
+
+	private final Application<T> application;
+
+	public CdsTrainingCommand(Application<T> application) {
+		super("train-cds", "Creates an AppCDS archive of the classes loaded by booting the application");
+		this.application = application;
+	}
+
+	/**
+	 * The configuration class of the application, so its own properties parse.
+	 */
+	@Override
+	protected Class<T> getConfigurationClass() {
+		return application.getConfigurationClass();
+	}
+
+	@Override
+	public void configure(Subparser subparser) {
+
+		super.configure(subparser);
+
+		subparser.addArgument("-o", "--output")
+				.dest("output")
+				.setDefault("cds")
+				.help("Directory receiving the class list, the archive and the logs of the runs");
+
+		subparser.addArgument("--runs")
+				.dest("runs")
+				.type(Integer.class)
+				.setDefault(3)
+				.help("Boots timed with and without the archive (0 to skip)");
+
+		subparser.addArgument("--timeout")
+				.dest("timeout")
+				.type(Integer.class)
+				.setDefault(300)
+				.help("Seconds each child JVM may take before it is killed");
+
+		subparser.addArgument("--jvm-option")
+				.dest("jvmOptions")
+				.action(Arguments.append())
+				.help("Option of the child JVMs (repeat for several), e.g. the heap size of the server");
+
+		// Boot once in this JVM and exit (the mode of the child JVMs)
+		subparser.addArgument("--boot")
+				.dest("boot")
+				.action(Arguments.storeTrue())
+				.help(Arguments.SUPPRESS);
+	}
+
+	@Override
+	protected void run(Bootstrap<T> bootstrap, Namespace namespace, T configuration) throws Exception {
+
+		if (namespace.getBoolean("boot")) {
+			boot(bootstrap, configuration);
+		} else {
+			train(namespace);
+		}
+	}
+
+	/**
+	 * Boot the application the way the server command does, start and stop Jetty, then print the
+	 * uptime of the JVM once the server had started.
+	 */
+	private void boot(Bootstrap<T> bootstrap, T configuration) throws Exception {
+
+		Environment environment = new Environment(application.getName(), bootstrap.getObjectMapper(),
+				bootstrap.getValidatorFactory().getValidator(), bootstrap.getMetricRegistry(),
+				bootstrap.getClassLoader());
+		configuration.getMetricsFactory().configure(environment.lifecycle(), bootstrap.getMetricRegistry());
+
+		bootstrap.run(configuration, environment);
+		application.run(configuration, environment);
+
+		Server server = configuration.getServerFactory().build(environment);
+		try {
+			server.start();
+			long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+			System.out.println(BOOT_MARKER + uptime);
+		} finally {
+			server.stop();
+		}
+	}
+
+	private void train(Namespace namespace) throws Exception {
+
+		File output = new File(namespace.getString("output"));
+		if (!output.isDirectory() && !output.mkdirs()) {
+			throw new IOException("Cannot create " + output);
+		}
+		File classList = new File(output, "fallwizard.classlist");
+		File archive = new File(output, "fallwizard.jsa");
+
+		List<String> jvmOptions = namespace.getList("jvmOptions");
+		ChildJvms children = new ChildJvms(namespace.getString("file"),
+				jvmOptions == null ? Collections.<String>emptyList() : jvmOptions,
+				namespace.getInt("timeout"), output);
+		try {
+			long start = System.nanoTime();
+			children.boot("training", "-XX:DumpLoadedClassList=" + classList.getAbsolutePath());
+			logger.info("Recorded {} loaded classes in {} in {} ms", Files.readLines(classList, StandardCharsets.UTF_8).size(),
+					classList, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+			start = System.nanoTime();
+			children.dump("-Xshare:dump", "-XX:SharedClassListFile=" + classList.getAbsolutePath(),
+					"-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+			logger.info("Created the archive {} ({} KB) in {} ms", archive, archive.length() / 1024,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+			measure(children, archive, namespace.getInt("runs"));
+
+			logger.info("Start the server with the same classpath and -XX:SharedArchiveFile={} to use the archive",
+					archive.getAbsolutePath());
+		} finally {
+			children.close();
+		}
+	}
+
+	/**
+	 * Alternate boots without and with the archive, and compare their medians.
+	 */
+	private void measure(ChildJvms children, File archive, int runs) throws Exception {
+
+		if (runs <= 0) {
+			return;
+		}
+
+		List<Long> cold = new ArrayList<>();
+		List<Long> archived = new ArrayList<>();
+		for (int i = 1; i <= runs; i++) {
+			cold.add(children.boot("cold-" + i));
+			archived.add(children.boot("archived-" + i, "-XX:SharedArchiveFile=" + archive.getAbsolutePath()));
+		}
+
+		long coldMedian = median(cold);
+		long archivedMedian = median(archived);
+		logger.info("Boot time (JVM start to server started), median of {} runs: {} ms without the archive, "
+						+ "{} ms with it: {} ms saved ({}%)", runs, coldMedian, archivedMedian,
+				coldMedian - archivedMedian, coldMedian == 0 ? 0 : (coldMedian - archivedMedian) * 100 / coldMedian);
+	}
+
+	private static long median(List<Long> values) {
+
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
+
+	/**
+	 * Starts the child JVMs with the classpath and the main class of this application, each
+	 * logging to a file of its own in the output directory.
+	 */
+	private class ChildJvms {
+
+		private final List<String> command = new ArrayList<>();
+
+		private final List<String> bootArguments;
+
+		private final int timeout;
+
+		private final File output;
+
+		private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+
+		ChildJvms(String configurationFile, List<String> jvmOptions, int timeout, File output) {
+
+			Class<?> mainClass = application.getClass();
+			try {
+				Method main = mainClass.getMethod("main", String[].class);
+				if (!Modifier.isStatic(main.getModifiers())) {
+					throw new NoSuchMethodException(mainClass.getName() + ".main");
+				}
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException(mainClass.getName() + " has no main method to boot the application with", e);
+			}
+
+			command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+			command.addAll(jvmOptions);
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+
+			this.bootArguments = Arrays.asList(mainClass.getName(), getName(), "--boot", configurationFile);
+			this.timeout = timeout;
+			this.output = output;
+		}
+
+		/**
+		 * Boot the application once.
+		 * @return Uptime of the JVM once the server had started, in milliseconds
+		 */
+		long boot(String run, String... options) throws Exception {
+
+			File log = start(run, options, bootArguments);
+			for (String line : Lists.reverse(Files.readLines(log, StandardCharsets.UTF_8))) {
+				if (line.startsWith(BOOT_MARKER)) {
+					long millis = Long.parseLong(line.substring(BOOT_MARKER.length()).trim());
+					logger.info("Run '{}' booted in {} ms", run, millis);
+					return millis;
+				}
+			}
+			throw new IllegalStateException("Run '" + run + "' did not boot, see " + log);
+		}
+
+		void dump(String... options) throws Exception {
+			start("dump", options, Collections.<String>emptyList());
+		}
+
+		private File start(String run, String[] options, List<String> arguments) throws Exception {
+
+			List<String> runCommand = new ArrayList<>(command);
+			runCommand.addAll(Arrays.asList(options));
+			runCommand.addAll(arguments);
+
+			File log = new File(output, run + ".log");
+			logger.debug("Starting {}", runCommand);
+
+			final Process process = new ProcessBuilder(runCommand)
+					.redirectErrorStream(true)
+					.redirectOutput(log)
+					.start();
+
+			ScheduledFuture<?> kill = watchdog.schedule(new Runnable() {
+				@Override
+				public void run() {
+					process.destroy();
+				}
+			}, timeout, TimeUnit.SECONDS);
+			try {
+				int exitCode = process.waitFor();
+				if (exitCode != 0) {
+					throw new IllegalStateException("Run '" + run + "' exited with " + exitCode
+							+ (kill.isDone() ? " (killed after " + timeout + "s)" : "") + ", see " + log);
+				}
+			} finally {
+				kill.cancel(false);
+				process.destroy();
+			}
+			return log;
+		}
+
+		void close() {
+			watchdog.shutdownNow();
+		}
+	}
+}
@@ -1,28 +1,111 @@
 package io.github.fallwizard;
 
+import io.github.fallwizard.cache.BoundedCacheManager;
+import io.github.fallwizard.cache.InvalidateCacheTask;
+import io.github.fallwizard.cache.RefreshAheadPostProcessor;
+import io.github.fallwizard.configuration.AnnotationConfigConfiguration;
+import io.github.fallwizard.configuration.AsyncHealthChecksConfiguration;
+import io.github.fallwizard.configuration.AsyncResourcesConfiguration;
+import io.github.fallwizard.configuration.ConfigurationPropertiesConfiguration;
 import io.github.fallwizard.configuration.FallwizardConfiguration;
+import io.github.fallwizard.configuration.JacksonConfiguration;
+import io.github.fallwizard.configuration.ManagedLifecycleConfiguration;
+import io.github.fallwizard.configuration.ParallelContextLoadingConfiguration;
+import io.github.fallwizard.configuration.PropertyReloadConfiguration;
+import io.github.fallwizard.configuration.RemoteResourcesConfiguration;
+import io.github.fallwizard.configuration.SecurityFilterChainConfiguration;
+import io.github.fallwizard.configuration.ShutdownConfiguration;
 import io.github.fallwizard.configuration.SpringConfiguration;
 import io.github.fallwizard.configuration.SpringPropertyPlaceholderConfigurerConfiguration;
+import io.github.fallwizard.configuration.SpringSecurityAuthenticatorConfiguration;
+import io.github.fallwizard.configuration.StartupProfilerConfiguration;
+import io.github.fallwizard.configuration.WarmUpConfiguration;
+import io.github.fallwizard.async.AsyncExecutors;
+import io.github.fallwizard.async.AsyncInvocationHandlerProvider;
+import io.github.fallwizard.async.AsyncResourceModelProcessor;
+import io.github.fallwizard.context.AnnotationConfigLoader;
+import io.github.fallwizard.context.BeanDefinitionSnapshotCache;
+import io.github.fallwizard.context.ContextReaders;
+import io.github.fallwizard.context.LazyInitPostProcessor;
+import io.github.fallwizard.context.ParallelContextLoader;
+import io.github.fallwizard.events.DispatchingEventMulticaster;
+import io.github.fallwizard.events.EventDispatcher;
+import io.github.fallwizard.executor.ExecutorBeanPostProcessor;
+import io.github.fallwizard.executor.ManagedExecutors;
+import io.github.fallwizard.health.HealthCheckScheduler;
+import io.github.fallwizard.health.ReadinessHealthCheck;
+import io.github.fallwizard.index.ComponentIndex;
+import io.github.fallwizard.jackson.JsonCodecs;
+import io.github.fallwizard.lifecycle.LifecycleCoordinator;
+import io.github.fallwizard.metrics.MetricsAnnotationBeanPostProcessor;
+import io.github.fallwizard.profiling.ProfiledBeanFactoryPostProcessor;
+import io.github.fallwizard.profiling.StartupProfileTask;
+import io.github.fallwizard.profiling.StartupProfiler;
+import io.github.fallwizard.properties.ConfigurationPropertySource;
+import io.github.fallwizard.properties.ReportingPlaceholderConfigurer;
+import io.github.fallwizard.registration.BeanClassification;
+import io.github.fallwizard.registration.BeanClassificationTask;
+import io.github.fallwizard.registration.BeanClassifier;
+import io.github.fallwizard.registration.BeanRegistrar;
+import io.github.fallwizard.registration.ClassifiedBean;
+import io.github.fallwizard.registration.HealthCheckRegistrar;
+import io.github.fallwizard.registration.LifeCycleRegistrar;
+import io.github.fallwizard.registration.ManagedRegistrar;
+import io.github.fallwizard.registration.ProviderRegistrar;
+import io.github.fallwizard.registration.ResourceRegistrar;
+import io.github.fallwizard.registration.TaskRegistrar;
+import io.github.fallwizard.reload.PropertyFileWatcher;
+import io.github.fallwizard.reload.PropertyReloader;
+import io.github.fallwizard.reload.RefreshScope;
+import io.github.fallwizard.reload.ReloadPropertiesTask;
+import io.github.fallwizard.remote.CachingResourceLoader;
+import io.github.fallwizard.remote.RemoteResourceCache;
+import io.github.fallwizard.resources.LazyResourcePostProcessor;
+import io.github.fallwizard.scheduling.ManagedTaskScheduler;
+import io.github.fallwizard.scheduling.SchedulerPostProcessor;
+import io.github.fallwizard.security.BypassingSecurityFilter;
+import io.github.fallwizard.security.CachingUserDetailsAuthenticator;
+import io.github.fallwizard.security.FlushAuthenticationCacheTask;
+import io.github.fallwizard.security.SecurityFilterTimer;
+import io.github.fallwizard.security.SpringSecurityAuthenticator;
+import io.github.fallwizard.shutdown.ShutdownCoordinator;
+import io.github.fallwizard.warmup.WarmUpRunner;
 import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.health.HealthCheck;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.CacheBuilderSpec;
 import io.dropwizard.Application;
+import io.dropwizard.auth.AuthFactory;
+import io.dropwizard.auth.basic.BasicAuthFactory;
 import io.dropwizard.lifecycle.Managed;
-import io.dropwizard.servlets.tasks.Task;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
-import org.eclipse.jetty.util.component.LifeCycle;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.PropertyPlaceholderConfigurer;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.FilterChainProxy;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.XmlWebApplicationContext;
 
+import javax.inject.Singleton;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
-import javax.ws.rs.Path;
-import javax.ws.rs.ext.Provider;
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 
 /**
  * Rename the service to be FallwizardService.
@@ -44,8 +127,53 @@ public class FallwizardApplication<T extends FallwizardConfiguration> extends Ap
     // Instantiate the Spring Application Context
     protected GenericXmlApplicationContext applicationContext = new GenericXmlApplicationContext();
 
+    // Sibling child contexts of the applicationContext (only used with parallel loading)
+    protected final List<GenericXmlApplicationContext> childContexts = new ArrayList<>();
+
+    // Records startup phase (and, if enabled, per-bean) timings
+    protected final StartupProfiler startupProfiler = new StartupProfiler();
+
+    // Result of classifying the Spring beans for registration with Dropwizard
+    protected BeanClassification beanClassification;
+
+    // Publishes and shuts down the executor beans (null unless enabled)
+    protected ExecutorBeanPostProcessor executorPostProcessor;
+
+    // Turns unhealthy while the service should not receive traffic (e.g. shutting down)
+    protected final ReadinessHealthCheck readiness = new ReadinessHealthCheck();
+
+    // Local copies of the http(s) context files and property locations (null unless enabled)
+    protected RemoteResourceCache remoteResources;
+
+    // The configuration flattened into a PropertySource of every context (null unless enabled)
+    protected ConfigurationPropertySource configurationProperties;
+
+    // The "cacheManager" of the contexts (null unless enabled)
+    private BoundedCacheManager cacheManager;
+
+    // Delivers the ApplicationEvents of every context (null unless enabled)
+    private EventDispatcher eventDispatcher;
+
+    // Scheduler of the @Scheduled jobs (null unless enabled, never in command mode)
+    private ManagedTaskScheduler taskScheduler;
+
+    // Cached readers/writers of the shared ObjectMapper (null unless the Jackson profile is enabled)
+    private JsonCodecs jsonCodecs;
+
+    // Index the annotationConfig base packages are scanned from (null to scan the classpath)
+    private ComponentIndex componentIndex;
+
+    // Contexts are being loaded for a command, not to serve (see initializeForCommand)
+    private boolean commandMode = false;
+
+    // Mark every singleton lazy-init (only in command mode)
+    private boolean lazySingletons = false;
+
     @Override
-    public void initialize(Bootstrap<T> bootstrap) {}
+    public void initialize(Bootstrap<T> bootstrap) {
+
+        bootstrap.addCommand(new CdsTrainingCommand<>(this));
+    }
 
     @Override
     public void run(T configuration, Environment environment) throws Exception {
@@ -53,17 +181,412 @@ public class FallwizardApplication<T extends FallwizardConfiguration> extends Ap
         applicationContext.getBeanFactory().registerResolvableDependency(MetricRegistry.class, environment.metrics());
         logger.info("Starting up FallWizardService");
 
+        StartupProfilerConfiguration profilerConfig =
+                configuration.getSpringConfiguration().getStartupProfilerConfiguration();
+
+        createJsonCodecs(configuration.getSpringConfiguration().getJacksonConfiguration(), environment);
+
+        createConfigurationProperties(configuration, environment);
+
         // Populate the applicationContext based on the Spring Configuration
         initSpringConfig(configuration.getSpringConfiguration(),environment);
 
+        registerSpringSecurityAuthenticator(configuration.getSpringConfiguration(), environment);
+
+        registerPropertyReloader(configuration.getSpringConfiguration(), environment);
+
+        // Registered before the beans, so Jetty stops it after them
+        ShutdownCoordinator shutdownCoordinator =
+                createShutdownCoordinator(configuration.getSpringConfiguration().getShutdownConfiguration(), environment);
+
+        // Registered before the beans, so Jetty stops the executors after them
+        if (executorPostProcessor != null) {
+            environment.lifecycle().manage(new ManagedExecutors(executorPostProcessor,
+                    configuration.getSpringConfiguration().getExecutorsConfiguration().getShutdownTimeout()));
+        }
+
+        // Registered before the beans, so events published while they stop are still delivered
+        if (eventDispatcher != null) {
+            environment.lifecycle().manage(eventDispatcher);
+        }
+
         // Stand up all the DropWizard Objects (from the Spring context files).
-        registerManaged(environment);
-        registerLifecycle(environment);
-        registerTasks(environment);
-        registerHealthChecks(environment);
-        registerProviders(environment);
-        registerResources(environment);
-        registerContextAsManaged(environment);
+        registerBeans(createBeanRegistrars(configuration), environment);
+
+        registerAsyncResources(configuration.getSpringConfiguration().getAsyncResourcesConfiguration(), environment);
+
+        if (cacheManager != null) {
+            cacheManager.createConfiguredCaches();
+            environment.admin().addTask(new InvalidateCacheTask(cacheManager));
+            environment.lifecycle().manage(cacheManager);
+        }
+
+        registerWarmUp(configuration.getSpringConfiguration().getWarmUpConfiguration(), environment);
+
+        if (shutdownCoordinator == null) {
+            registerContextAsManaged(environment);
+        } else {
+            environment.lifecycle().manage(shutdownCoordinator.getManagedPhaseMarker());
+        }
+
+        // Registered last, so Jetty stops the jobs before the beans and the contexts
+        if (taskScheduler != null) {
+            environment.lifecycle().manage(taskScheduler);
+        }
+
+        publishStartupProfile(profilerConfig, environment);
+    }
+
+    /**
+     * Load and refresh the Spring contexts for a command, with the same files, profiles,
+     * placeholders and post processors as {@link #run}.  Nothing is registered with Dropwizard
+     * and no Spring Security web context is created.
+     * @param configuration Application configuration
+     * @param environment Environment created for the command (its lifecycle is never started)
+     * @param lazySingletons Only create singletons when they are looked up, with their dependencies
+     * @return The refreshed applicationContext
+     */
+    public GenericXmlApplicationContext initializeForCommand(T configuration, Environment environment, boolean lazySingletons) {
+
+        this.commandMode = true;
+        this.lazySingletons = lazySingletons;
+
+        applicationContext.getBeanFactory().registerResolvableDependency(MetricRegistry.class, environment.metrics());
+
+        createJsonCodecs(configuration.getSpringConfiguration().getJacksonConfiguration(), environment);
+        createConfigurationProperties(configuration, environment);
+        initSpringConfig(configuration.getSpringConfiguration(), environment);
+
+        return applicationContext;
+    }
+
+    /**
+     * Cache the readers/writers of the ObjectMapper shared with the contexts, if enabled.
+     * @param jacksonConfig Jackson Configuration
+     * @param environment Dropwizard Environment
+     */
+    private void createJsonCodecs(JacksonConfiguration jacksonConfig, Environment environment) {
+
+        if (jacksonConfig.isEnabled()) {
+            jsonCodecs = new JsonCodecs(environment.getObjectMapper());
+        }
+    }
+
+    /**
+     * Flatten the configuration into the property source shared by the contexts, if enabled.
+     * @param configuration Application configuration (including subclass properties)
+     * @param environment Dropwizard Environment
+     */
+    private void createConfigurationProperties(T configuration, Environment environment) {
+
+        ConfigurationPropertiesConfiguration propertiesConfig =
+                configuration.getSpringConfiguration().getConfigurationPropertiesConfiguration();
+        if (!propertiesConfig.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        configurationProperties = ConfigurationPropertySource.from(
+                configuration, environment.getObjectMapper(), propertiesConfig.getPrefix());
+        startupProfiler.recordPhase("configurationProperties", start);
+
+        logger.info("Exposing {} configuration properties to Spring", configurationProperties.size());
+    }
+
+    /**
+     * @param propertiesConfig Configuration Properties Configuration
+     * @param legacyConfigurer Whether a propertyPlaceholderConfigurer resolves placeholders too
+     * @param context Context whose Environment (holding the configuration properties) is resolved against
+     * @return Placeholder configurer for the context
+     */
+    private ReportingPlaceholderConfigurer createConfigurationPlaceholderConfigurer(
+            ConfigurationPropertiesConfiguration propertiesConfig, boolean legacyConfigurer, GenericApplicationContext context) {
+
+        ReportingPlaceholderConfigurer placeholderConfigurer = new ReportingPlaceholderConfigurer(startupProfiler);
+        placeholderConfigurer.setEnvironment(context.getEnvironment());
+        placeholderConfigurer.setOrder(propertiesConfig.getOrder());
+        placeholderConfigurer.setIgnoreUnresolvablePlaceholders(propertiesConfig.isIgnoreUnresolvablePlaceholders() != null
+                ? propertiesConfig.isIgnoreUnresolvablePlaceholders()
+                : legacyConfigurer);
+        return placeholderConfigurer;
+    }
+
+    /**
+     * Allow the placeholder properties to be reloaded (admin task and, optionally, a file
+     * watcher), rebuilding the refresh scoped beans of every context.
+     * @param springConfiguration Spring Configuration
+     * @param environment Dropwizard Environment
+     */
+    private void registerPropertyReloader(SpringConfiguration springConfiguration, Environment environment) {
+
+        PropertyReloadConfiguration reloadConfig = springConfiguration.getPropertyReloadConfiguration();
+        if (!reloadConfig.isEnabled()) {
+            return;
+        }
+
+        SpringPropertyPlaceholderConfigurerConfiguration propConfig = springConfiguration.getPlaceholderConfiguration();
+        if (propConfig == null) {
+            logger.warn("Property reloading needs a propertyPlaceholderConfigurer, not enabling it");
+            return;
+        }
+
+        PropertyReloader reloader = new PropertyReloader(environment.metrics());
+        reloader.addContext(applicationContext, normalizeForResourceLocations(springConfiguration.getApplicationContext()));
+
+        ParallelContextLoadingConfiguration parallelConfig = springConfiguration.getParallelLoadingConfiguration();
+        if (!childContexts.isEmpty() && parallelConfig != null) {
+            List<List<String>> groups = parallelConfig.getChildContexts();
+            for (int i = 0; i < childContexts.size(); i++) {
+                List<String> group = groups.get(i);
+                reloader.addContext(childContexts.get(i), normalizeForResourceLocations(group.toArray(new String[group.size()])));
+            }
+        }
+
+        environment.admin().addTask(new ReloadPropertiesTask(reloader));
+
+        if (reloadConfig.isWatch() && propConfig.getLocations() != null) {
+            List<File> files = new ArrayList<>();
+            for (String location : propConfig.getLocations()) {
+                try {
+                    files.add(applicationContext.getResource(location).getFile());
+                } catch (IOException e) {
+                    logger.info("Property location {} is not a file, it will not be watched", location);
+                }
+            }
+            if (!files.isEmpty()) {
+                environment.lifecycle().manage(new PropertyFileWatcher(reloader, files, reloadConfig.getQuietPeriod()));
+            }
+        }
+    }
+
+    /**
+     * Add the Spring Security filter chain to the Dropwizard servlet environment, in front of
+     * Jersey, optionally bypassed for unsecured path prefixes and timed per filter.
+     * @param context Web Application Context the filter chain bean is looked up from
+     * @param filterConfig Security Filter Chain Configuration
+     * @param environment Dropwizard Environment
+     */
+    private void registerSecurityFilterChain(WebApplicationContext context,
+                                             SecurityFilterChainConfiguration filterConfig,
+                                             Environment environment) {
+
+        if (!filterConfig.isEnabled()) {
+            return;
+        }
+
+        Filter filterChain = context.getBean(filterConfig.getBeanName(), Filter.class);
+        if (filterConfig.shouldTimeFilters() && filterChain instanceof FilterChainProxy) {
+            new SecurityFilterTimer(environment.metrics()).instrument((FilterChainProxy) filterChain);
+        }
+
+        List<String> urlPatterns = filterConfig.getUrlPatterns();
+        environment.servlets()
+                .addFilter(filterConfig.getBeanName(),
+                        new BypassingSecurityFilter(filterChain, filterConfig.getBypassPrefixes(), environment.metrics()))
+                .addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true,
+                        urlPatterns.toArray(new String[urlPatterns.size()]));
+
+        logger.info("Registered Spring Security filter chain '{}' for {} (bypassing {})",
+                filterConfig.getBeanName(), urlPatterns, filterConfig.getBypassPrefixes());
+    }
+
+    /**
+     * Enable @Auth UserDetails parameters, authenticating Basic credentials against the Spring
+     * Security AuthenticationManager through a bounded cache.
+     * @param springConfiguration Spring Configuration
+     * @param environment Dropwizard Environment
+     */
+    private void registerSpringSecurityAuthenticator(SpringConfiguration springConfiguration, Environment environment) {
+
+        SpringSecurityAuthenticatorConfiguration authConfig = springConfiguration.getAuthenticatorConfiguration();
+        if (!springConfiguration.shouldUseSpringSecurity() || !authConfig.isEnabled()) {
+            return;
+        }
+
+        AuthenticationManager authenticationManager = (authConfig.getAuthenticationManager() == null)
+                ? applicationContext.getBean(AuthenticationManager.class)
+                : applicationContext.getBean(authConfig.getAuthenticationManager(), AuthenticationManager.class);
+
+        CachingUserDetailsAuthenticator authenticator = new CachingUserDetailsAuthenticator(
+                environment.metrics(),
+                new SpringSecurityAuthenticator(authenticationManager),
+                CacheBuilderSpec.parse(authConfig.getCachePolicy()));
+
+        environment.jersey().register(AuthFactory.binder(
+                new BasicAuthFactory<>(authenticator, authConfig.getRealm(), UserDetails.class)));
+        environment.admin().addTask(new FlushAuthenticationCacheTask(authenticator));
+
+        logger.info("Authenticating @Auth parameters with the Spring Security AuthenticationManager");
+    }
+
+    /**
+     * The registrars that bootstrap Spring beans in Dropwizard, in the order they are called.
+     * Override (calling super) to add registrars; registrars can also be defined as Spring beans.
+     * @param configuration Fallwizard Configuration
+     * @return Bean registrars
+     */
+    protected List<BeanRegistrar> createBeanRegistrars(T configuration) {
+
+        ManagedLifecycleConfiguration lifecycleConfig =
+                configuration.getSpringConfiguration().getManagedLifecycleConfiguration();
+        LifecycleCoordinator coordinator = lifecycleConfig.isEnabled() ? new LifecycleCoordinator(lifecycleConfig) : null;
+
+        AsyncHealthChecksConfiguration healthCheckConfig =
+                configuration.getSpringConfiguration().getAsyncHealthChecksConfiguration();
+        HealthCheckScheduler healthCheckScheduler = healthCheckConfig.isEnabled() ? new HealthCheckScheduler(healthCheckConfig) : null;
+
+        List<BeanRegistrar> registrars = new ArrayList<>();
+        registrars.add(new ManagedRegistrar(coordinator));
+        registrars.add(new LifeCycleRegistrar(coordinator));
+        registrars.add(new TaskRegistrar());
+        registrars.add(new HealthCheckRegistrar(healthCheckScheduler));
+        registrars.add(new ProviderRegistrar());
+        registrars.add(new ResourceRegistrar(configuration.getSpringConfiguration().getLazyResourcesConfiguration()));
+        return registrars;
+    }
+
+    /**
+     * Classify the beans of every context in a single pass and hand them to the registrars.
+     * @param registrars Bean registrars
+     * @param environment Dropwizard Environment
+     */
+    private void registerBeans(List<BeanRegistrar> registrars, Environment environment) {
+
+        List<GenericXmlApplicationContext> contexts = new ArrayList<>();
+        contexts.add(applicationContext);
+        contexts.addAll(childContexts);
+
+        long start = System.nanoTime();
+        beanClassification = new BeanClassifier(registrars).classify(contexts);
+        startupProfiler.recordPhase("classify", start);
+
+        for (BeanRegistrar registrar : beanClassification.getRegistrars()) {
+
+            start = System.nanoTime();
+
+            for (ClassifiedBean bean : beanClassification.getBeans(registrar)) {
+                registrar.register(bean, environment);
+            }
+            registrar.finish(environment);
+
+            startupProfiler.recordPhase("register." + registrar.getName(), start);
+        }
+
+        environment.admin().addTask(new BeanClassificationTask(beanClassification));
+    }
+
+    /**
+     * Run the @ExecuteOn resource methods on Spring executor beans, if enabled.
+     * @param asyncConfig Async Resources Configuration
+     * @param environment Dropwizard Environment
+     */
+    private void registerAsyncResources(AsyncResourcesConfiguration asyncConfig, Environment environment) {
+
+        if (!asyncConfig.isEnabled()) {
+            return;
+        }
+
+        final AsyncExecutors executors =
+                new AsyncExecutors(contextsChildFirst(), asyncConfig.getDefaultExecutor(), environment.metrics());
+
+        environment.jersey().register(new AbstractBinder() {
+            @Override
+            protected void configure() {
+                bind(executors).to(AsyncExecutors.class);
+                bind(AsyncInvocationHandlerProvider.class)
+                        .to(ResourceMethodInvocationHandlerProvider.class)
+                        .in(Singleton.class);
+            }
+        });
+        environment.jersey().register(AsyncResourceModelProcessor.class);
+    }
+
+    /**
+     * Warm the service up once Jetty has started, keeping the readiness health check
+     * unhealthy until it is over, if enabled.
+     * @param warmUpConfig Warm-up Configuration
+     * @param environment Dropwizard Environment
+     */
+    private void registerWarmUp(WarmUpConfiguration warmUpConfig, Environment environment) {
+
+        if (!warmUpConfig.isEnabled()) {
+            return;
+        }
+
+        // Registered already if graceful shutdown is enabled
+        if (!environment.healthChecks().getNames().contains(ReadinessHealthCheck.NAME)) {
+            environment.healthChecks().register(ReadinessHealthCheck.NAME, readiness);
+        }
+
+        environment.lifecycle().addServerLifecycleListener(new WarmUpRunner(warmUpConfig, contextsChildFirst(),
+                environment.getJerseyServletContainer(), readiness));
+    }
+
+    /**
+     * @return The child contexts, last loaded first, then the applicationContext
+     * (the child contexts see the beans of the applicationContext anyway).
+     */
+    private List<GenericXmlApplicationContext> contextsChildFirst() {
+
+        List<GenericXmlApplicationContext> contexts = new ArrayList<>(childContexts);
+        Collections.reverse(contexts);
+        contexts.add(applicationContext);
+        return contexts;
+    }
+
+    /**
+     * @return Which beans each registrar registered with Dropwizard (null until run).
+     */
+    public BeanClassification getBeanClassification() {
+        return beanClassification;
+    }
+
+    /**
+     * Stop recording bean timings and log the startup phases; when the profiler is enabled,
+     * publish the startup profile to the metric registry.
+     * @param profilerConfig Startup Profiler Configuration
+     * @param environment Dropwizard Environment
+     */
+    private void publishStartupProfile(StartupProfilerConfiguration profilerConfig, Environment environment) {
+
+        startupProfiler.stop();
+        startupProfiler.logPhases();
+
+        if (profilerConfig.isEnabled()) {
+            startupProfiler.publish(environment.metrics(), profilerConfig.getSlowestBeans());
+            environment.admin().addTask(new StartupProfileTask(startupProfiler, profilerConfig.getSlowestBeans()));
+        }
+    }
+
+    /**
+     * Set up the phased shutdown (readiness, request and executor draining, then the beans and
+     * the contexts), replacing the plain closing of the contexts.
+     * @param shutdownConfig Shutdown Configuration
+     * @param environment Dropwizard Environment
+     * @return The coordinator, or null if graceful shutdown is disabled
+     */
+    private ShutdownCoordinator createShutdownCoordinator(ShutdownConfiguration shutdownConfig, Environment environment) {
+
+        if (!shutdownConfig.isEnabled()) {
+            return null;
+        }
+
+        List<GenericXmlApplicationContext> closeOrder = new ArrayList<>(childContexts);
+        Collections.reverse(closeOrder);
+        closeOrder.add(applicationContext);
+
+        environment.healthChecks().register(ReadinessHealthCheck.NAME, readiness);
+
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(shutdownConfig, closeOrder, readiness);
+        coordinator.register(environment);
+        return coordinator;
+    }
+
+    /**
+     * @return Health check reporting whether the service should receive traffic
+     */
+    public ReadinessHealthCheck getReadiness() {
+        return readiness;
     }
 
     private void registerContextAsManaged(Environment environment) {
@@ -73,28 +596,61 @@ public class FallwizardApplication<T extends FallwizardConfiguration> extends Ap
 
             @Override
             public void stop() throws Exception {
+                for (int i = childContexts.size() - 1; i >= 0; i--) {
+                    childContexts.get(i).close();
+                }
                 applicationContext.close(); // close the door when you leave
             }
         });
     }
 
 
-    private void initSpringConfig(SpringConfiguration springConfiguration, Environment environment) {
+    private void initSpringConfig(SpringConfiguration springConfiguration, final Environment environment) {
 
 
         logger.info("Using configurations: {}", join(springConfiguration.getApplicationContext(), ", "));
 
+        // ------------------------------
+        // Prefetch Remote Resources
+        // ------------------------------
+        // Fetch every http(s) context file and property location concurrently, so the
+        // (sequential) loading below reads local copies.
+        RemoteResourcesConfiguration remoteConfig = springConfiguration.getRemoteResourcesConfiguration();
+        if (remoteConfig.isEnabled()) {
+            remoteResources = new RemoteResourceCache(remoteConfig, environment.metrics());
+            applicationContext.setResourceLoader(
+                    new CachingResourceLoader(remoteResources, applicationContext.getClassLoader()));
+
+            long start = System.nanoTime();
+            remoteResources.prefetch(collectResourceLocations(springConfiguration));
+            startupProfiler.recordPhase("prefetch", start);
+        }
+
 
         SpringPropertyPlaceholderConfigurerConfiguration propConfig =
                 springConfiguration.getPlaceholderConfiguration();
 
+        final boolean profileBeans = springConfiguration.getStartupProfilerConfiguration().isEnabled();
+
         //If the YAML File defines property locations, or properties directly for us to inject
         // into the spring context files we are loading, we create the PropertyPlaceholderConfigurer
+        BeanFactoryPostProcessor configurer = null;
         if (propConfig!=null) {
-            PropertyPlaceholderConfigurer configurer = propConfig.createPlaceholderConfigurer(applicationContext);
-            applicationContext.getBeanFactory().registerSingleton("fallWizardProperties", configurer);
+            long start = System.nanoTime();
+            PropertyPlaceholderConfigurer placeholderConfigurer = propConfig.createPlaceholderConfigurer(applicationContext);
+            startupProfiler.recordPhase("placeholders", start);
+
+            // When profiling, time the placeholder resolution itself (done during refresh)
+            configurer = profileBeans
+                    ? new ProfiledBeanFactoryPostProcessor(placeholderConfigurer, startupProfiler, "placeholders")
+                    : placeholderConfigurer;
         }
 
+        // Applied to the applicationContext and every child context
+        ApplicationContextInitializer<GenericApplicationContext> contextInitializer =
+                createContextInitializer(springConfiguration, configurer, environment);
+        contextInitializer.initialize(applicationContext);
+
         // ------------------------------
         // Load Profiles
         // ------------------------------
@@ -108,19 +664,49 @@ public class FallwizardApplication<T extends FallwizardConfiguration> extends Ap
         // ------------------------------
         // Load Application Context Files
         // ------------------------------
-        for (String applicationContextFile : springConfiguration.getApplicationContext()){
+        ParallelContextLoadingConfiguration parallelConfig = springConfiguration.getParallelLoadingConfiguration();
 
-            applicationContext.load(
-                    normalizeForResourceLocation(applicationContextFile));
+        BeanDefinitionSnapshotCache definitionCache = null;
+        if (springConfiguration.getBeanDefinitionCacheConfiguration().isEnabled()) {
+            definitionCache = new BeanDefinitionSnapshotCache(
+                    springConfiguration.getBeanDefinitionCacheConfiguration().getDirectory(), applicationContext);
         }
 
-        applicationContext.refresh();
+        if (parallelConfig != null && parallelConfig.isEnabled()) {
+
+            loadContextsInParallel(springConfiguration, parallelConfig, definitionCache, contextInitializer);
+
+        } else {
+
+            long start = System.nanoTime();
+            List<String> locations = normalizeForResourceLocations(springConfiguration.getApplicationContext());
+
+            if (definitionCache == null) {
+
+                for (String location : locations){
+
+                    applicationContext.load(location);
+                }
+
+            } else if (!definitionCache.restore(applicationContext, locations, applicationContext.getEnvironment())) {
+
+                ContextReaders.create(applicationContext, applicationContext, definitionCache.getImportListener())
+                        .loadBeanDefinitions(locations.toArray(new String[locations.size()]));
+                definitionCache.store(applicationContext.getBeanFactory(), locations, applicationContext.getEnvironment());
+            }
+            AnnotationConfigLoader.load(applicationContext, springConfiguration.getAnnotationConfigConfiguration(), componentIndex);
+            startupProfiler.recordPhase("load", start);
+
+            start = System.nanoTime();
+            applicationContext.refresh();
+            startupProfiler.recordPhase("refresh", start);
+        }
 
         // ------------------------------
         // SpringSecurity Considerations
         // ------------------------------
         // If we should use Spring Security
-        if (springConfiguration.shouldUseSpringSecurity()){
+        if (springConfiguration.shouldUseSpringSecurity() && !commandMode){
             final XmlWebApplicationContext wctx = new XmlWebApplicationContext();
             wctx.setParent(applicationContext);
             wctx.setConfigLocation("");
@@ -143,139 +729,268 @@ public class FallwizardApplication<T extends FallwizardConfiguration> extends Ap
 
                 }
             });
+
+            registerSecurityFilterChain(wctx, springConfiguration.getSecurityFilterChainConfiguration(), environment);
         }
 
+        // Later reads (e.g. property reloads) revalidate with the server
+        if (remoteResources != null) {
+            remoteResources.clearPrefetched();
+        }
     }
 
-
     /**
-     * Little utility to concatenate strings with a separator.
-     * @param strings Strings to join
-     * @param separator Separator between strings
-     * @return Joined String
+     * @param springConfiguration Spring Configuration
+     * @return Locations of the context files (parent and children) and of the placeholder properties
      */
-    String join(String[] strings, String separator){
+    private List<String> collectResourceLocations(SpringConfiguration springConfiguration) {
 
-        StringBuilder sb = new StringBuilder();
+        List<String> locations = new ArrayList<>(normalizeForResourceLocations(springConfiguration.getApplicationContext()));
 
-        for(String string : strings){
-
-            sb.append(string).append(separator);
+        ParallelContextLoadingConfiguration parallelConfig = springConfiguration.getParallelLoadingConfiguration();
+        if (parallelConfig != null && parallelConfig.isEnabled()) {
+            for (List<String> group : parallelConfig.getChildContexts()) {
+                locations.addAll(normalizeForResourceLocations(group.toArray(new String[group.size()])));
+            }
         }
 
-        return sb.delete(sb.length() - separator.length(), sb.length()).toString();
+        SpringPropertyPlaceholderConfigurerConfiguration propConfig = springConfiguration.getPlaceholderConfiguration();
+        if (propConfig != null && propConfig.getLocations() != null) {
+            locations.addAll(propConfig.getLocations());
+        }
+        return locations;
     }
 
-    String normalizeForResourceLocation(String contextLocation){
-
-        boolean hasResource = contextLocation.startsWith("file")
-                || contextLocation.startsWith("classpath")
-                || contextLocation.startsWith("url");
 
-        if (!hasResource){
+    /**
+     * Creates the initializer that prepares a context before its files are loaded: the
+     * MetricRegistry dependency, the placeholder configurer and the post processors.
+     * @param springConfiguration Spring Configuration
+     * @param configurer Placeholder configurer (may be null)
+     * @param environment Dropwizard Environment
+     * @return Context initializer
+     */
+    private ApplicationContextInitializer<GenericApplicationContext> createContextInitializer(
+            SpringConfiguration springConfiguration,
+            final BeanFactoryPostProcessor configurer,
+            final Environment environment) {
+
+        final boolean profileBeans = springConfiguration.getStartupProfilerConfiguration().isEnabled();
+        final boolean lazyResources = springConfiguration.getLazyResourcesConfiguration().isEnabled();
+        final boolean instrumentBeans = springConfiguration.shouldInstrumentAnnotatedBeans();
+        final boolean reloadProperties = springConfiguration.getPropertyReloadConfiguration().isEnabled();
+        final ConfigurationPropertiesConfiguration configurationPropertiesConfig =
+                springConfiguration.getConfigurationPropertiesConfiguration();
+        if (springConfiguration.getExecutorsConfiguration().isEnabled()) {
+            executorPostProcessor = new ExecutorBeanPostProcessor(
+                    environment.metrics(), springConfiguration.getExecutorsConfiguration());
+        }
 
-            return String.format("%s:%s", DEFAULT_RESOURCE_TYPE, contextLocation);
+        if (springConfiguration.getSchedulerConfiguration().isEnabled() && !commandMode) {
+            taskScheduler = new ManagedTaskScheduler(springConfiguration.getSchedulerConfiguration(), environment.metrics());
+        }
+        if (springConfiguration.getCachesConfiguration().isEnabled()) {
+            cacheManager = new BoundedCacheManager(springConfiguration.getCachesConfiguration(),
+                    applicationContext, environment.metrics(), environment.healthChecks());
+        }
+        if (springConfiguration.getEventsConfiguration().isEnabled()) {
+            eventDispatcher = new EventDispatcher(springConfiguration.getEventsConfiguration(), environment.metrics());
         }
+        final SchedulerPostProcessor schedulerPostProcessor =
+                taskScheduler == null ? null : new SchedulerPostProcessor(taskScheduler);
 
-        return contextLocation;
+        componentIndex = loadComponentIndex(springConfiguration.getAnnotationConfigConfiguration());
+
+        return new ApplicationContextInitializer<GenericApplicationContext>() {
+            @Override
+            public void initialize(GenericApplicationContext context) {
+                context.getBeanFactory().registerResolvableDependency(MetricRegistry.class, environment.metrics());
+                context.getBeanFactory().registerResolvableDependency(ObjectMapper.class, environment.getObjectMapper());
+                if (jsonCodecs != null) {
+                    context.getBeanFactory().registerResolvableDependency(JsonCodecs.class, jsonCodecs);
+                }
+                if (remoteResources != null) {
+                    context.setResourceLoader(new CachingResourceLoader(remoteResources, context.getClassLoader()));
+                }
+                if (configurer != null) {
+                    context.getBeanFactory().registerSingleton("fallWizardProperties", configurer);
+                }
+                if (configurationProperties != null) {
+                    context.getEnvironment().getPropertySources().addFirst(configurationProperties);
+                    context.getBeanFactory().registerSingleton("fallWizardConfigurationProperties",
+                            createConfigurationPlaceholderConfigurer(configurationPropertiesConfig, configurer != null, context));
+                }
+                if (profileBeans) {
+                    context.getBeanFactory().addBeanPostProcessor(startupProfiler);
+                }
+                if (instrumentBeans) {
+                    context.getBeanFactory().addBeanPostProcessor(
+                            new MetricsAnnotationBeanPostProcessor(environment.metrics()));
+                }
+                if (lazyResources) {
+                    context.addBeanFactoryPostProcessor(new LazyResourcePostProcessor());
+                }
+                if (executorPostProcessor != null) {
+                    context.getBeanFactory().addBeanPostProcessor(executorPostProcessor);
+                }
+                if (reloadProperties) {
+                    context.getBeanFactory().registerScope(RefreshScope.NAME, new RefreshScope());
+                }
+                if (lazySingletons) {
+                    context.addBeanFactoryPostProcessor(new LazyInitPostProcessor());
+                }
+                // Child contexts find it in their parent
+                if (cacheManager != null && context == applicationContext) {
+                    context.getBeanFactory().registerSingleton("cacheManager", cacheManager);
+                }
+                // A bean, so it runs after the proxy creator
+                if (cacheManager != null) {
+                    context.getBeanFactory().registerSingleton("fallWizardRefreshAhead", new RefreshAheadPostProcessor());
+                }
+                if (eventDispatcher != null) {
+                    context.getBeanFactory().registerSingleton(
+                            AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+                            new DispatchingEventMulticaster(context.getBeanFactory(), eventDispatcher));
+                }
+                if (schedulerPostProcessor != null) {
+                    context.getBeanFactory().addBeanPostProcessor(schedulerPostProcessor);
+                    context.getBeanFactory().registerSingleton("fallWizardSchedulingConfigurer", schedulerPostProcessor);
+                }
+            }
+        };
     }
 
     /**
-     * Registered JAX-RS Endpoints
-     * @param environment Dropwizard Environment
+     * Read the component index, if component scanning should use it.
+     * @param annotationConfig Annotation Configuration
+     * @return Component index, or null to scan the classpath
      */
-    private void registerResources(Environment environment){
-
-        final Map<String, Object> beansWithAnnotation = applicationContext.getBeansWithAnnotation(Path.class);
+    private ComponentIndex loadComponentIndex(AnnotationConfigConfiguration annotationConfig) {
 
-        for (String beanName : beansWithAnnotation.keySet()) {
+        if (!annotationConfig.isComponentIndex()) {
+            return null;
+        }
 
-            Object resource = beansWithAnnotation.get(beanName);
-            environment.jersey().register(resource);
-            logger.info("Registering resource : " + resource.getClass().getName());
+        try {
+            ComponentIndex index = ComponentIndex.load(applicationContext.getClassLoader());
+            if (index == null) {
+                logger.warn("No {} on the classpath, component scanning will scan the classpath", ComponentIndex.LOCATION);
+            } else {
+                logger.info("Component scanning uses the component index: {} components from {} files",
+                        index.size(), index.getFiles());
+            }
+            return index;
+        } catch (IOException e) {
+            logger.warn("Could not read the component index, component scanning will scan the classpath", e);
+            return null;
         }
     }
 
     /**
-     * Register Dropwizard Managed-Lifecycle Components
-     * @param environment Dropwizard Environment
+     * Parse the Application Context files concurrently into the parent context, refresh it, and
+     * then load and refresh the configured child contexts in parallel.
+     * @param springConfiguration Spring Configuration
+     * @param parallelConfig Parallel Loading Configuration
+     * @param definitionCache Snapshot cache for the parent's bean definitions (may be null)
+     * @param contextInitializer Applied to each child context
      */
-    private void registerManaged(Environment environment) {
+    private void loadContextsInParallel(
+            SpringConfiguration springConfiguration,
+            ParallelContextLoadingConfiguration parallelConfig,
+            BeanDefinitionSnapshotCache definitionCache,
+            ApplicationContextInitializer<GenericApplicationContext> contextInitializer) {
 
-        final Map<String, Managed> beansOfType = applicationContext.getBeansOfType(Managed.class);
+        ParallelContextLoader loader = new ParallelContextLoader(parallelConfig.getThreads());
 
-        for (String beanName : beansOfType.keySet()) {
+        try {
+            long start = System.nanoTime();
+            List<String> locations = normalizeForResourceLocations(springConfiguration.getApplicationContext());
 
-            Managed managed = beansOfType.get(beanName);
-            environment.lifecycle().manage(managed);
+            if (definitionCache == null) {
 
-            logger.info("Registering managed: " + managed.getClass().getName());
-        }
-    }
+                loader.loadBeanDefinitions(applicationContext, locations);
 
-    /**
-     * Register Jetty Lifecycle Components.
-     * @param environment Dropwizard Environment
-     */
-    private void registerLifecycle(Environment environment) {
+            } else if (!definitionCache.restore(applicationContext, locations, applicationContext.getEnvironment())) {
 
-        Map<String, LifeCycle> beansOfType = applicationContext.getBeansOfType(LifeCycle.class);
+                loader.setReaderEventListener(definitionCache.getImportListener());
+                loader.loadBeanDefinitions(applicationContext, locations);
+                definitionCache.store(applicationContext.getBeanFactory(), locations, applicationContext.getEnvironment());
+            }
+            AnnotationConfigLoader.load(applicationContext, springConfiguration.getAnnotationConfigConfiguration(), componentIndex);
+            startupProfiler.recordPhase("load", start);
 
-        for (String beanName : beansOfType.keySet()) {
+            start = System.nanoTime();
+            applicationContext.refresh();
+            startupProfiler.recordPhase("refresh", start);
 
-            LifeCycle lifeCycle = beansOfType.get(beanName);
+            List<List<String>> groups = new ArrayList<>();
+            for (List<String> group : parallelConfig.getChildContexts()) {
+                groups.add(normalizeForResourceLocations(group.toArray(new String[group.size()])));
+            }
 
-            environment.lifecycle().manage(lifeCycle);
+            start = System.nanoTime();
+            childContexts.addAll(loader.loadChildContexts(applicationContext, groups, contextInitializer));
+            startupProfiler.recordPhase("childContexts", start);
 
-            logger.info("Registering lifeCycle: " + lifeCycle.getClass().getName());
+            logger.info("Context file load times (ms): {}", loader.getLoadTimes());
+
+        } finally {
+            loader.shutdown();
         }
     }
 
     /**
-     * Register Dropwizard Tasks.
-     * @param environment Dropwizard Environment
+     * Little utility to concatenate strings with a separator.
+     * @param strings Strings to join
+     * @param separator Separator between strings
+     * @return Joined String
      */
-    private void registerTasks(Environment environment) {
+    String join(String[] strings, String separator){
 
-        final Map<String, Task> beansOfType = applicationContext.getBeansOfType(Task.class);
+        if (strings.length == 0) {
+            return "";
+        }
 
-        for (String beanName : beansOfType.keySet()) {
+        StringBuilder sb = new StringBuilder();
 
-            Task task = beansOfType.get(beanName);
-            environment.admin().addTask(task);
+        for(String string : strings){
 
-            logger.info("Registering task: " + task.getClass().getName());
+            sb.append(string).append(separator);
         }
+
+        return sb.delete(sb.length() - separator.length(), sb.length()).toString();
     }
 
-    /**
-     * Register Dropwizard Healthchecks.
-     * @param environment Dropwizard Environment
-     */
-    private void registerHealthChecks(Environment environment) {
+    String normalizeForResourceLocation(String contextLocation){
 
-        final Map<String, HealthCheck> beansOfType = applicationContext.getBeansOfType(HealthCheck.class);
+        // "url:" is not a Spring prefix, the URL itself is the location
+        if (contextLocation.startsWith("url:")) {
 
-        for (Map.Entry<String, HealthCheck> entry : beansOfType.entrySet()) {
-            environment.healthChecks().register(entry.getKey(),entry.getValue());
-            logger.info("Registering healthCheck: " + entry.getValue().getClass().getName());
+            return contextLocation.substring("url:".length());
         }
-    }
 
-    /**
-     * Register JAX-RS Injectable Providers
-     * @param environment Dropwizard Environment
-     */
-    private void registerProviders(Environment environment) {
+        boolean hasResource = contextLocation.startsWith("file")
+                || contextLocation.startsWith("classpath")
+                || contextLocation.startsWith("http:")
+                || contextLocation.startsWith("https:");
 
-        final Map<String, Object> beansWithAnnotation = applicationContext.getBeansWithAnnotation(Provider.class);
+        if (!hasResource){
 
-        for (String beanName : beansWithAnnotation.keySet()) {
+            return String.format("%s:%s", DEFAULT_RESOURCE_TYPE, contextLocation);
+        }
+
+        return contextLocation;
+    }
+
+    List<String> normalizeForResourceLocations(String[] contextLocations){
 
-            Object provider = beansWithAnnotation.get(beanName);
+        List<String> locations = new ArrayList<>();
 
-            //environment.addProvider(provider);
-            //logger.info("Registering provider : " + provider.getClass().getName());
+        for (String contextLocation : contextLocations){
+
+            locations.add(normalizeForResourceLocation(contextLocation));
         }
+
+        return locations;
     }
 }
@@ -1,31 +1,105 @@
 package io.github.fallwizard;
 
 import io.github.fallwizard.configuration.FallwizardConfiguration;
-import io.github.fallwizard.configuration.SpringConfiguration;
+import io.dropwizard.Application;
 import io.dropwizard.cli.ConfiguredCommand;
 import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
 import net.sourceforge.argparse4j.inf.Namespace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
-import org.springframework.context.support.FileSystemXmlApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
 
+/**
+ * Command with the Spring contexts of the application, loaded the way the application loads
+ * them (profiles, placeholders, post processors), but without serving anything.
+ *
+ * Commands created with entry beans boot in fast mode: every singleton is lazy-init, and only
+ * the entry beans (and what they depend on) are created.  Override
+ * {@link #run(ApplicationContext, FallwizardConfiguration, Namespace)} to do the work.
+ */
 public abstract class FallwizardConfiguredCommand extends ConfiguredCommand<FallwizardConfiguration> {
 
+	private static final Logger logger = LoggerFactory.getLogger(FallwizardConfiguredCommand.class);
+
+	private final String[] entryBeans;
+
+	/**
+	 * Command creating every singleton, as the application does.
+	 */
 	protected FallwizardConfiguredCommand(String name, String description) {
-		
+
 		super(name, description);
+		this.entryBeans = null;
+	}
+
+	/**
+	 * Fast-boot command: only the entry beans and their dependencies are created.
+	 * @param entryBeans Names of the beans the command uses
+	 */
+	protected FallwizardConfiguredCommand(String name, String description, String... entryBeans) {
+
+		super(name, description);
+		this.entryBeans = entryBeans;
 	}
 
 	ApplicationContext context;
-	
+
 	@Override
+	@SuppressWarnings("unchecked")
 	protected void run(
 		Bootstrap<FallwizardConfiguration> bootstrap, Namespace namespace,
         FallwizardConfiguration configuration) throws Exception {
 
-        SpringConfiguration springConfig = configuration.getSpringConfiguration();
-		// Initialize the Spring Context from the files in the configuration.
-		context = new FileSystemXmlApplicationContext(
-                springConfig.getApplicationContext());
-		
+		long start = System.nanoTime();
+
+		// Share the application's bootstrap when it is a Fallwizard application
+		Application<?> application = bootstrap.getApplication();
+		FallwizardApplication<FallwizardConfiguration> fallwizard = application instanceof FallwizardApplication
+				? (FallwizardApplication<FallwizardConfiguration>) application
+				: new Fallwizard();
+
+		Environment environment = new Environment(application.getName(), bootstrap.getObjectMapper(),
+				bootstrap.getValidatorFactory().getValidator(), bootstrap.getMetricRegistry(),
+				bootstrap.getClassLoader());
+
+		GenericXmlApplicationContext applicationContext =
+				fallwizard.initializeForCommand(configuration, environment, entryBeans != null);
+		applicationContext.registerShutdownHook();
+
+		if (entryBeans != null) {
+			for (String entryBean : entryBeans) {
+				applicationContext.getBean(entryBean);
+			}
+		}
+		context = applicationContext;
+
+		int created = 0;
+		for (String beanName : applicationContext.getBeanDefinitionNames()) {
+			if (applicationContext.getBeanFactory().containsSingleton(beanName)) {
+				created++;
+			}
+		}
+		logger.info("Booted the contexts for command '{}' in {} ms ({} of {} beans created)",
+				getName(), (System.nanoTime() - start) / 1000000, created, applicationContext.getBeanDefinitionCount());
+
+		run(context, configuration, namespace);
+	}
+
+	/**
+	 * Run the command once the contexts are up.  Does nothing unless overridden.
+	 * @param context The application context
+	 * @param configuration Configuration
+	 * @param namespace Parsed command line arguments
+	 */
+	protected void run(ApplicationContext context, FallwizardConfiguration configuration, Namespace namespace)
+			throws Exception {}
+
+	/**
+	 * @return The application context (null until the command runs)
+	 */
+	protected ApplicationContext getContext() {
+		return context;
 	}
 }
@@ -0,0 +1,54 @@
+package io.github.fallwizard.async;
+
+import com.codahale.metrics.MetricRegistry;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves the executor beans named by {@link ExecuteOn} from the Spring contexts.
+ */
+public class AsyncExecutors {
+
+    private final List<? extends ApplicationContext> contexts;
+
+    private final String defaultExecutor;
+
+    private final MetricRegistry metrics;
+
+    /**
+     * @param contexts Contexts searched in order
+     * @param defaultExecutor Executor bean used when @ExecuteOn names none (may be null)
+     * @param metrics Registry of the per method metrics
+     */
+    public AsyncExecutors(List<? extends ApplicationContext> contexts, String defaultExecutor, MetricRegistry metrics) {
+        this.contexts = contexts;
+        this.defaultExecutor = defaultExecutor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param name Executor bean name, empty for the default executor
+     * @return The executor bean
+     * @throws IllegalStateException if there is no such Executor bean
+     */
+    public Executor getExecutor(String name) {
+
+        String beanName = name.isEmpty() ? defaultExecutor : name;
+        if (beanName == null) {
+            throw new IllegalStateException("@ExecuteOn names no executor and asyncResources.defaultExecutor is not set");
+        }
+
+        for (ApplicationContext context : contexts) {
+            if (context.containsBean(beanName)) {
+                return context.getBean(beanName, Executor.class);
+            }
+        }
+        throw new IllegalStateException("No Executor bean named '" + beanName + "'");
+    }
+
+    public MetricRegistry getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.fallwizard.async;
+
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.ws.rs.container.AsyncResponse;
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * Invokes the {@link ExecuteOn} resource methods through an {@link AsyncResourceMethod};
+ * other methods are left to Jersey.
+ */
+public class AsyncInvocationHandlerProvider implements ResourceMethodInvocationHandlerProvider {
+
+    private final AsyncExecutors executors;
+
+    private final Provider<AsyncResponse> responses;
+
+    @Inject
+    public AsyncInvocationHandlerProvider(AsyncExecutors executors, Provider<AsyncResponse> responses) {
+        this.executors = executors;
+        this.responses = responses;
+    }
+
+    @Override
+    public InvocationHandler create(Invocable invocable) {
+
+        ExecuteOn executeOn = AsyncResourceModelProcessor.findExecuteOn(invocable);
+        return executeOn == null ? null : new AsyncResourceMethod(invocable, executeOn, executors, responses);
+    }
+}
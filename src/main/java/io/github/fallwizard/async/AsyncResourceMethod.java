@@ -0,0 +1,241 @@
+package io.github.fallwizard.async;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.glassfish.jersey.server.model.Invocable;
+
+import javax.inject.Provider;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.CompletionCallback;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Response;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs one {@link ExecuteOn} resource method on its executor and resumes the suspended
+ * response with the result.
+ *
+ * Publishes, under fallwizard.async.&lt;Resource&gt;.&lt;method&gt;:
+ * queued and active counters, a latency timer (until the response is sent), and
+ * rejected (executor or concurrency limit) and timeouts meters.
+ *
+ * A {@link ExecuteOn#maxConcurrent()} permit is held until the response is sent and the
+ * method has finished, so a timed out call still counts while it keeps running.
+ */
+public class AsyncResourceMethod implements InvocationHandler {
+
+    private final ExecuteOn executeOn;
+
+    private final AsyncExecutors executors;
+
+    private final Provider<AsyncResponse> responses;
+
+    private final int asyncResponseIndex;
+
+    private final Semaphore permits;
+
+    private final Counter queued;
+
+    private final Counter active;
+
+    private final Timer latency;
+
+    private final Meter rejected;
+
+    private final Meter timeouts;
+
+    private volatile Executor executor;
+
+    public AsyncResourceMethod(Invocable invocable, ExecuteOn executeOn, AsyncExecutors executors,
+                               Provider<AsyncResponse> responses) {
+        this.executeOn = executeOn;
+        this.executors = executors;
+        this.responses = responses;
+        this.asyncResponseIndex = findAsyncResponse(invocable.getHandlingMethod());
+        this.permits = executeOn.maxConcurrent() > 0 ? new Semaphore(executeOn.maxConcurrent()) : null;
+
+        String prefix = MetricRegistry.name("fallwizard.async",
+                invocable.getHandlingMethod().getDeclaringClass().getSimpleName(),
+                invocable.getHandlingMethod().getName());
+        MetricRegistry metrics = executors.getMetrics();
+        this.queued = metrics.counter(MetricRegistry.name(prefix, "queued"));
+        this.active = metrics.counter(MetricRegistry.name(prefix, "active"));
+        this.latency = metrics.timer(MetricRegistry.name(prefix, "latency"));
+        this.rejected = metrics.meter(MetricRegistry.name(prefix, "rejected"));
+        this.timeouts = metrics.meter(MetricRegistry.name(prefix, "timeouts"));
+    }
+
+    @Override
+    public Object invoke(final Object resource, final Method method, final Object[] args) throws Throwable {
+
+        final AsyncResponse response = asyncResponseIndex >= 0
+                ? (AsyncResponse) args[asyncResponseIndex]
+                : responses.get();
+
+        if (permits != null && !permits.tryAcquire()) {
+            rejected.mark();
+            response.resume(unavailable());
+            return null;
+        }
+
+        final Timer.Context timer = latency.time();
+        final Permit permit = new Permit();
+        final AtomicBoolean completed = new AtomicBoolean();
+        response.register(new CompletionCallback() {
+            @Override
+            public void onComplete(Throwable throwable) {
+                if (completed.compareAndSet(false, true)) {
+                    timer.stop();
+                    permit.release();
+                }
+            }
+        });
+
+        if (executeOn.timeout() > 0) {
+            response.setTimeoutHandler(new TimeoutHandler() {
+                @Override
+                public void handleTimeout(AsyncResponse asyncResponse) {
+                    timeouts.mark();
+                    asyncResponse.resume(unavailable());
+                }
+            });
+            response.setTimeout(executeOn.timeout(), executeOn.timeoutUnit());
+        }
+
+        queued.inc();
+        try {
+            getExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    queued.dec();
+                    active.inc();
+                    boolean finishesLater = false;
+                    try {
+                        finishesLater = complete(response, method.invoke(resource, args), permit);
+                    } catch (InvocationTargetException e) {
+                        response.resume(e.getCause());
+                    } catch (Exception e) {
+                        response.resume(e);
+                    } finally {
+                        active.dec();
+                        if (!finishesLater) {
+                            permit.release();
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Spring's TaskRejectedException is a RejectedExecutionException too
+            queued.dec();
+            rejected.mark();
+            permit.release();
+            response.resume(unavailable());
+        }
+
+        // Ignored by Jersey, the request is suspended
+        return null;
+    }
+
+    /**
+     * @return true if the result is a {@link ListenableFuture}, which releases the permit
+     *         itself when it completes
+     */
+    private boolean complete(final AsyncResponse response, Object result, final Permit permit)
+            throws InterruptedException {
+
+        if (asyncResponseIndex >= 0) {
+            // The method resumes the response itself
+            return false;
+        }
+
+        if (result instanceof ListenableFuture) {
+            Futures.addCallback((ListenableFuture<?>) result, new FutureCallback<Object>() {
+                @Override
+                public void onSuccess(Object value) {
+                    try {
+                        response.resume(value);
+                    } finally {
+                        permit.release();
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    try {
+                        response.resume(throwable);
+                    } finally {
+                        permit.release();
+                    }
+                }
+            }, MoreExecutors.directExecutor());
+            return true;
+        } else if (result instanceof Future) {
+            try {
+                response.resume(((Future<?>) result).get());
+            } catch (ExecutionException e) {
+                response.resume(e.getCause());
+            }
+        } else {
+            response.resume(result);
+        }
+        return false;
+    }
+
+    private Executor getExecutor() {
+
+        // Looked up on first use, so executor beans may be lazy
+        if (executor == null) {
+            executor = executors.getExecutor(executeOn.value());
+        }
+        return executor;
+    }
+
+    private static Response unavailable() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+    }
+
+    private static int findAsyncResponse(Method method) {
+
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Suspended && AsyncResponse.class.equals(method.getParameterTypes()[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The concurrency permit of one call, given back on the second release: once by the
+     * completed response and once by the finished method.
+     */
+    private class Permit {
+
+        private final AtomicInteger holders = new AtomicInteger(2);
+
+        void release() {
+            if (holders.decrementAndGet() == 0 && permits != null) {
+                permits.release();
+            }
+        }
+    }
+}
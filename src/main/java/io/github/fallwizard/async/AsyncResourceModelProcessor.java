@@ -0,0 +1,71 @@
+package io.github.fallwizard.async;
+
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.ModelProcessor;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Configuration;
+
+/**
+ * Declares the {@link ExecuteOn} resource methods without a @Suspended parameter as
+ * suspended, so Jersey releases the request thread and waits for the response to be resumed.
+ */
+public class AsyncResourceModelProcessor implements ModelProcessor {
+
+    @Override
+    public ResourceModel processResourceModel(ResourceModel resourceModel, Configuration configuration) {
+
+        ResourceModel.Builder model = new ResourceModel.Builder(false);
+        for (Resource resource : resourceModel.getResources()) {
+            model.addResource(process(resource));
+        }
+        return model.build();
+    }
+
+    @Override
+    public ResourceModel processSubResource(ResourceModel subResourceModel, Configuration configuration) {
+        return subResourceModel;
+    }
+
+    private Resource process(Resource resource) {
+
+        Resource.Builder builder = Resource.builder(resource);
+
+        for (ResourceMethod method : resource.getResourceMethods()) {
+            if (!method.isSuspendDeclared() && findExecuteOn(method.getInvocable()) != null) {
+                // The timeout is set per request, see AsyncResourceMethod
+                builder.updateMethod(method).suspended(AsyncResponse.NO_TIMEOUT, java.util.concurrent.TimeUnit.SECONDS);
+            }
+        }
+
+        for (Resource child : resource.getChildResources()) {
+            builder.replaceChildResource(child, process(child));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @param invocable Resource method
+     * @return @ExecuteOn of the method, or of its class, or null
+     */
+    static ExecuteOn findExecuteOn(Invocable invocable) {
+
+        if (invocable.getDefinitionMethod() == null) {
+            return null;
+        }
+
+        ExecuteOn executeOn = AnnotationUtils.findAnnotation(invocable.getDefinitionMethod(), ExecuteOn.class);
+        if (executeOn == null) {
+            executeOn = AnnotationUtils.findAnnotation(invocable.getDefinitionMethod().getDeclaringClass(), ExecuteOn.class);
+        }
+        if (executeOn == null && invocable.getHandler().getHandlerClass() != null) {
+            executeOn = AnnotationUtils.findAnnotation(invocable.getHandler().getHandlerClass(), ExecuteOn.class);
+        }
+        return executeOn;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.fallwizard.async;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a resource method (or every resource method of a class) on a Spring executor bean,
+ * freeing the request thread until the response is ready.
+ *
+ * The method may take a @Suspended AsyncResponse and resume it itself, return a
+ * ListenableFuture (or any Future) of the entity, or just return the entity.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ExecuteOn {
+
+    /**
+     * Name of the Executor (e.g. ThreadPoolTaskExecutor) bean.
+     * Defaults to the asyncResources.defaultExecutor of the configuration.
+     */
+    String value() default "";
+
+    /**
+     * Answer 503 Service Unavailable if the response is not ready in time (0: no timeout).
+     */
+    long timeout() default 0;
+
+    TimeUnit timeoutUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Answer 503 Service Unavailable when this many requests of the method are already
+     * queued or running (0: no limit).
+     */
+    int maxConcurrent() default 0;
+}
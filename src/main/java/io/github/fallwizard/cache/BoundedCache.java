@@ -0,0 +1,354 @@
+package io.github.fallwizard.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import io.github.fallwizard.configuration.CacheConfiguration;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spring cache over a bounded Guava cache.
+ *
+ * Publishes, under fallwizard.cache.&lt;name&gt;: size, weight (estimated bytes), hits, misses,
+ * hitRate and evictions gauges, a load timer (from a miss to the value being put), and
+ * rejected (not admitted) and refreshes meters.
+ *
+ * An entry past its refresh time is recomputed on the refresh executor, by proceeding with a
+ * clone of the cached method invocation that looked it up (see {@link RefreshAheadInterceptor}),
+ * while the callers keep getting the cached value.  Entries looked up through the Cache API
+ * only expire.
+ */
+public class BoundedCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedCache.class);
+
+    // Admission only applies once the cache is this full
+    private static final double ADMISSION_THRESHOLD = 0.9;
+
+    private final String name;
+
+    private final CacheConfiguration configuration;
+
+    private final Weigher<Object, Object> weigher;
+
+    private final com.google.common.cache.Cache<Object, CachedValue> cache;
+
+    // When each pending miss happened, to time the computation of the value
+    private final com.google.common.cache.Cache<Object, Long> misses;
+
+    private final FrequencySketch sketch;
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final long refreshNanos;
+
+    private final Executor refreshExecutor;
+
+    private final Timer loads;
+
+    private final Meter rejected;
+
+    private final Meter refreshes;
+
+    public BoundedCache(String name, CacheConfiguration configuration, Weigher<Object, Object> weigher,
+                        Executor refreshExecutor, MetricRegistry metrics) {
+        this.name = name;
+        this.configuration = configuration;
+        this.weigher = weigher;
+
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        long sketchSize;
+        if (configuration.getMaximumWeight() != null) {
+            builder.maximumWeight(configuration.getMaximumWeight().toBytes()).weigher(new Weigher<Object, Object>() {
+                @Override
+                public int weigh(Object key, Object value) {
+                    return ((CachedValue) value).weight;
+                }
+            });
+            // Assuming entries of about a kilobyte
+            sketchSize = configuration.getMaximumWeight().toBytes() / 1024;
+        } else {
+            builder.maximumSize(configuration.getMaximumSize());
+            sketchSize = configuration.getMaximumSize();
+        }
+        if (configuration.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(configuration.getExpireAfterWrite().getQuantity(),
+                    configuration.getExpireAfterWrite().getUnit());
+        }
+        if (configuration.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(configuration.getExpireAfterAccess().getQuantity(),
+                    configuration.getExpireAfterAccess().getUnit());
+        }
+        this.cache = builder.removalListener(new RemovalListener<Object, Object>() {
+            @Override
+            public void onRemoval(RemovalNotification<Object, Object> notification) {
+                if (notification.getValue() != null) {
+                    weight.addAndGet(-((CachedValue) notification.getValue()).weight);
+                }
+            }
+        }).build();
+
+        this.misses = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1000, Math.min(sketchSize, 100000)))
+                .expireAfterWrite(1, TimeUnit.MINUTES)
+                .build();
+        this.sketch = configuration.isRejectOneOffKeys() ? new FrequencySketch(sketchSize) : null;
+        this.refreshNanos = configuration.getRefreshAfterWrite() == null
+                ? 0 : configuration.getRefreshAfterWrite().toNanoseconds();
+        this.refreshExecutor = refreshExecutor;
+
+        String prefix = MetricRegistry.name("fallwizard.cache", name);
+        this.loads = metrics.timer(MetricRegistry.name(prefix, "load"));
+        this.rejected = metrics.meter(MetricRegistry.name(prefix, "rejected"));
+        this.refreshes = metrics.meter(MetricRegistry.name(prefix, "refreshes"));
+        metrics.register(MetricRegistry.name(prefix, "size"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.size();
+            }
+        });
+        metrics.register(MetricRegistry.name(prefix, "weight"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return weight.get();
+            }
+        });
+        metrics.register(MetricRegistry.name(prefix, "hits"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.stats().hitCount();
+            }
+        });
+        metrics.register(MetricRegistry.name(prefix, "misses"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.stats().missCount();
+            }
+        });
+        metrics.register(MetricRegistry.name(prefix, "hitRate"), new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                return cache.stats().hitRate();
+            }
+        });
+        metrics.register(MetricRegistry.name(prefix, "evictions"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.stats().evictionCount();
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+
+        MethodInvocation invocation = RefreshAheadInterceptor.takeInvocation();
+
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+
+        CachedValue value = cache.getIfPresent(key);
+        long now = System.nanoTime();
+
+        if (value == null) {
+            misses.put(key, now);
+            return null;
+        }
+
+        // The first caller past the refresh time starts recomputing the value, all keep the cached one
+        if (refreshNanos > 0 && invocation instanceof ProxyMethodInvocation && value.claimRefresh(now, refreshNanos)) {
+            refresh(key, (ProxyMethodInvocation) invocation, now);
+        }
+
+        return new SimpleValueWrapper(value.value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+
+        if (!admit(key)) {
+            return;
+        }
+
+        CachedValue cached = new CachedValue(value, weigher.weigh(key, value));
+        weight.addAndGet(cached.weight);
+        cache.put(key, cached);
+        loaded(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+
+        // Through the map view, which does not count hits and misses
+        CachedValue existing = cache.asMap().get(key);
+        if (existing != null) {
+            return new SimpleValueWrapper(existing.value);
+        }
+        if (!admit(key)) {
+            return null;
+        }
+
+        CachedValue cached = new CachedValue(value, weigher.weigh(key, value));
+        weight.addAndGet(cached.weight);
+        existing = cache.asMap().putIfAbsent(key, cached);
+        if (existing != null) {
+            weight.addAndGet(-cached.weight);
+            return new SimpleValueWrapper(existing.value);
+        }
+        loaded(key);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return Number of entries
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * @return Estimated bytes of the entries
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public CacheConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Near the bound, only keys requested at least twice recently are cached: a one-off key
+     * would evict an entry which is more likely to be requested again.  Updates of cached keys
+     * are always admitted.
+     */
+    private boolean admit(Object key) {
+
+        if (sketch == null || !isNearBound() || sketch.frequency(key) > 1 || cache.asMap().containsKey(key)) {
+            return true;
+        }
+        rejected.mark();
+        misses.invalidate(key);
+        return false;
+    }
+
+    /**
+     * Recompute a value in the background.  The cache interceptor is running the invocation, so
+     * the clone proceeds past it, to the method itself.
+     */
+    private void refresh(final Object key, ProxyMethodInvocation invocation, long now) {
+
+        final MethodInvocation reload = invocation.invocableClone();
+        try {
+            refreshExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        put(key, reload.proceed());
+                    } catch (Throwable e) {
+                        // The cached value stays until a caller past the next refresh time tries again
+                        logger.warn("Could not refresh {} in cache {}", key, name, e);
+                    }
+                }
+            });
+            refreshes.mark();
+            misses.put(key, now);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Refresh queue full, not refreshing {} in cache {}", key, name);
+        }
+    }
+
+    private boolean isNearBound() {
+
+        if (configuration.getMaximumWeight() != null) {
+            return weight.get() >= configuration.getMaximumWeight().toBytes() * ADMISSION_THRESHOLD;
+        }
+        return cache.size() >= configuration.getMaximumSize() * ADMISSION_THRESHOLD;
+    }
+
+    private void loaded(Object key) {
+
+        Long missed = misses.getIfPresent(key);
+        if (missed != null) {
+            misses.invalidate(key);
+            loads.update(System.nanoTime() - missed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static class CachedValue {
+
+        private final Object value;
+
+        private final int weight;
+
+        private final long written = System.nanoTime();
+
+        private final AtomicLong refreshClaimed = new AtomicLong();
+
+        CachedValue(Object value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+
+        /**
+         * @return true for a single caller once the value is older than the refresh time
+         * (and again every refresh time, should that caller not put a new value)
+         */
+        boolean claimRefresh(long now, long refreshNanos) {
+
+            if (now - written < refreshNanos) {
+                return false;
+            }
+            long claimed = refreshClaimed.get();
+            return (claimed == 0 || now - claimed >= refreshNanos) && refreshClaimed.compareAndSet(claimed, now);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.fallwizard.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.github.fallwizard.configuration.CacheConfiguration;
+import io.github.fallwizard.configuration.CachesConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CacheManager of {@link BoundedCache}s, each with its metrics and a "cache-&lt;name&gt;"
+ * memory budget health check.  Owns the executor refreshing the entries of all caches,
+ * stopped (dropping the pending refreshes) with Dropwizard.
+ */
+public class BoundedCacheManager implements CacheManager, Managed {
+
+    // Pending refreshes beyond this are skipped, the next caller past the refresh time tries again
+    private static final int REFRESH_QUEUE_CAPACITY = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedCacheManager.class);
+
+    private final CachesConfiguration configuration;
+
+    private final BeanFactory beanFactory;
+
+    private final MetricRegistry metrics;
+
+    private final HealthCheckRegistry healthChecks;
+
+    private final ConcurrentMap<String, BoundedCache> caches = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    /**
+     * @param configuration Caches Configuration
+     * @param beanFactory Bean factory providing the Weigher beans
+     * @param metrics Registry of the cache metrics
+     * @param healthChecks Registry of the cache health checks
+     */
+    public BoundedCacheManager(CachesConfiguration configuration, BeanFactory beanFactory,
+                               MetricRegistry metrics, HealthCheckRegistry healthChecks) {
+        this.configuration = configuration;
+        this.beanFactory = beanFactory;
+        this.metrics = metrics;
+        this.healthChecks = healthChecks;
+
+        this.refreshExecutor = new ThreadPoolExecutor(configuration.getRefreshThreads(), configuration.getRefreshThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(REFRESH_QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setNameFormat("fallwizard-cache-refresh-%d").setDaemon(true).build());
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void start() throws Exception {}
+
+    @Override
+    public void stop() throws Exception {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Create the configured caches, so their metrics and health checks exist before they are used.
+     */
+    public void createConfiguredCaches() {
+        for (String name : configuration.getCaches().keySet()) {
+            getCache(name);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+
+        BoundedCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        CacheConfiguration cacheConfig = configuration.getCaches().get(name);
+        if (cacheConfig == null) {
+            if (!configuration.isDynamic()) {
+                return null;
+            }
+            cacheConfig = configuration.getDefaults();
+        }
+        return createCache(name, cacheConfig);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+
+        Set<String> names = new LinkedHashSet<>(configuration.getCaches().keySet());
+        names.addAll(caches.keySet());
+        return names;
+    }
+
+    /**
+     * @return The caches created so far
+     */
+    public Collection<BoundedCache> getCaches() {
+        return new ArrayList<>(caches.values());
+    }
+
+    private synchronized BoundedCache createCache(String name, CacheConfiguration cacheConfig) {
+
+        BoundedCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        cache = new BoundedCache(name, cacheConfig, getWeigher(cacheConfig), refreshExecutor, metrics);
+        healthChecks.register("cache-" + name, new CacheMemoryHealthCheck(cache));
+        caches.put(name, cache);
+
+        logger.info("Created cache {}", name);
+        return cache;
+    }
+
+    /**
+     * @param name Cache name
+     * @return The cache, or null if it was not created (never creates it)
+     */
+    public BoundedCache findCache(String name) {
+        return caches.get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Weigher<Object, Object> getWeigher(CacheConfiguration cacheConfig) {
+
+        if (cacheConfig.getWeigher() == null) {
+            return new EstimatingWeigher();
+        }
+        return beanFactory.getBean(cacheConfig.getWeigher(), Weigher.class);
+    }
+}
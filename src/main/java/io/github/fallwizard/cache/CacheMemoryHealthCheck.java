@@ -0,0 +1,30 @@
+package io.github.fallwizard.cache;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.util.Size;
+
+/**
+ * Unhealthy when the estimated size of a cache exceeds its memory budget
+ * (always healthy, reporting the size, without a budget).
+ */
+public class CacheMemoryHealthCheck extends HealthCheck {
+
+    private final BoundedCache cache;
+
+    public CacheMemoryHealthCheck(BoundedCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected Result check() throws Exception {
+
+        long weight = cache.getWeight();
+        Size budget = cache.getConfiguration().getMemoryBudget();
+
+        if (budget != null && weight > budget.toBytes()) {
+            return Result.unhealthy("%d entries, about %d bytes, over the %s budget", cache.size(), weight, budget);
+        }
+        return Result.healthy("%d entries, about %d bytes%s", cache.size(), weight,
+                budget == null ? "" : " of " + budget);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.fallwizard.cache;
+
+import com.google.common.cache.Weigher;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Rough estimate of the bytes of a cache entry: exact enough for Strings and arrays, a shallow
+ * estimate (size times the first element) for collections and maps, and a flat guess for other
+ * objects.  Configure a Weigher bean for entries it gets wrong.
+ */
+public class EstimatingWeigher implements Weigher<Object, Object> {
+
+    private static final int ENTRY_OVERHEAD = 32;
+
+    private static final int OBJECT_ESTIMATE = 64;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + estimate(key) + estimate(value));
+    }
+
+    static long estimate(Object object) {
+
+        if (object == null) {
+            return 0;
+        }
+        if (object instanceof String) {
+            return 40 + 2L * ((String) object).length();
+        }
+        if (object instanceof byte[]) {
+            return 16 + ((byte[]) object).length;
+        }
+        if (object instanceof char[]) {
+            return 16 + 2L * ((char[]) object).length;
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Enum) {
+            return 16;
+        }
+        if (object instanceof Collection) {
+            Collection<?> collection = (Collection<?>) object;
+            if (collection.isEmpty()) {
+                return 16;
+            }
+            return 16 + collection.size() * (8 + estimate(collection.iterator().next()));
+        }
+        if (object instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            if (map.isEmpty()) {
+                return 48;
+            }
+            Map.Entry<?, ?> entry = map.entrySet().iterator().next();
+            return 48 + map.size() * (32 + estimate(entry.getKey()) + estimate(entry.getValue()));
+        }
+        return OBJECT_ESTIMATE;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.fallwizard.cache;
+
+/**
+ * Count-min sketch of how often keys were requested recently (the frequency estimate of TinyLFU).
+ *
+ * Four rows of saturating counters (up to 15), incremented conservatively; every counter is
+ * halved once the sketch has seen ten times as many requests as it has columns, so old
+ * popularity fades.  Updates are
+ * not synchronized: a lost increment only makes an estimate slightly lower.
+ */
+class FrequencySketch {
+
+    private static final int ROWS = 4;
+
+    private static final int MAX_COUNT = 15;
+
+    private static final int[] SEEDS = {0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f};
+
+    private final byte[] counters;
+
+    private final int width;
+
+    private final int sampleSize;
+
+    private int additions;
+
+    /**
+     * @param expectedEntries Number of entries the cache holds
+     */
+    FrequencySketch(long expectedEntries) {
+
+        // Four columns per entry keeps collisions between recent keys rare
+        int columns = Integer.highestOneBit((int) Math.max(64, Math.min(4 * expectedEntries, 1 << 22)) - 1) << 1;
+        this.width = columns;
+        this.counters = new byte[ROWS * columns];
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * columns);
+    }
+
+    void increment(Object key) {
+
+        int hash = spread(key.hashCode());
+        int[] indexes = new int[ROWS];
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            indexes[row] = index(hash, row);
+            frequency = Math.min(frequency, counters[indexes[row]]);
+        }
+
+        // Conservative update: only the counters at the minimum, which limits the overestimation
+        if (frequency < MAX_COUNT) {
+            for (int index : indexes) {
+                if (counters[index] == frequency) {
+                    counters[index]++;
+                }
+            }
+        }
+
+        if (++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            frequency = Math.min(frequency, counters[index(hash, row)]);
+        }
+        return frequency;
+    }
+
+    private void reset() {
+
+        additions = 0;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (byte) (counters[i] >>> 1);
+        }
+    }
+
+    private int index(int hash, int row) {
+
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+
+    private static int spread(int hash) {
+
+        int h = hash * 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+}
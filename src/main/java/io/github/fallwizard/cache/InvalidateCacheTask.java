@@ -0,0 +1,48 @@
+package io.github.fallwizard.cache;
+
+import com.google.common.collect.ImmutableMultimap;
+import io.dropwizard.servlets.tasks.Task;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Admin task that empties every cache, or the given ones.
+ *
+ * Usage: POST /tasks/invalidate-cache[?cache=name]
+ */
+public class InvalidateCacheTask extends Task {
+
+    private final BoundedCacheManager cacheManager;
+
+    public InvalidateCacheTask(BoundedCacheManager cacheManager) {
+        super("invalidate-cache");
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void execute(ImmutableMultimap<String, String> parameters, PrintWriter output) throws Exception {
+
+        Collection<BoundedCache> caches = new ArrayList<>();
+        if (parameters.containsKey("cache")) {
+            for (String name : parameters.get("cache")) {
+                BoundedCache cache = cacheManager.findCache(name);
+                if (cache == null) {
+                    output.printf("No cache %s%n", name);
+                } else {
+                    caches.add(cache);
+                }
+            }
+        } else {
+            caches.addAll(cacheManager.getCaches());
+        }
+
+        for (BoundedCache cache : caches) {
+            long before = cache.size();
+            cache.clear();
+            output.printf("Invalidated %d entries of cache %s%n", before, cache.getName());
+        }
+        output.flush();
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.fallwizard.cache;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Exposes the invocation of a cached method to the {@link BoundedCache} it looks up, like
+ * Spring's ExposeInvocationInterceptor, so an entry past its refresh time can be recomputed by
+ * proceeding with a clone of the invocation in the background.
+ */
+class RefreshAheadInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<MethodInvocation> invocation = new ThreadLocal<>();
+
+    /**
+     * @return The invocation of the cached method called on this thread, or null (if the cache
+     *         is not used by a cached method, or the invocation was taken already)
+     */
+    static MethodInvocation takeInvocation() {
+
+        MethodInvocation current = invocation.get();
+        // Not seen by the lookups the method itself does
+        invocation.remove();
+        return current;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation methodInvocation) throws Throwable {
+
+        MethodInvocation previous = invocation.get();
+        invocation.set(methodInvocation);
+        try {
+            return methodInvocation.proceed();
+        } finally {
+            if (previous == null) {
+                invocation.remove();
+            } else {
+                invocation.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.fallwizard.cache;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.interceptor.CacheInterceptor;
+
+/**
+ * Adds a {@link RefreshAheadInterceptor} in front of the cache interceptor of the caching
+ * proxies, with the same pointcut, so it only sees the cached methods.
+ *
+ * Must be registered as a bean (not added to the bean factory), so it runs after the
+ * auto proxy creator.
+ */
+public class RefreshAheadPostProcessor implements BeanPostProcessor {
+
+    private final RefreshAheadInterceptor interceptor = new RefreshAheadInterceptor();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+        if (!(bean instanceof Advised) || ((Advised) bean).isFrozen()) {
+            return bean;
+        }
+
+        Advised advised = (Advised) bean;
+        Advisor[] advisors = advised.getAdvisors();
+        for (int i = 0; i < advisors.length; i++) {
+            if (advisors[i].getAdvice() == interceptor) {
+                return bean;
+            }
+            if (advisors[i].getAdvice() instanceof CacheInterceptor && advisors[i] instanceof PointcutAdvisor) {
+                advised.addAdvisor(i, new DefaultPointcutAdvisor(((PointcutAdvisor) advisors[i]).getPointcut(), interceptor));
+                return bean;
+            }
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Annotation based configuration: @Configuration (or any annotated) classes registered
+ * with the applicationContext, packages scanned for components, and whether that scan
+ * reads the build-time component index instead of scanning the classpath.
+ */
+public class AnnotationConfigConfiguration extends Configuration {
+
+    /**
+     * Fully qualified names of the classes to register, typically @Configuration classes.
+     */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private List<String> classes = new ArrayList<>();
+
+    /**
+     * Packages scanned for @Component classes.
+     */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private List<String> basePackages = new ArrayList<>();
+
+    /**
+     * Scan the basePackages from the META-INF/fallwizard.components files generated at compile
+     * time.  Components in jars built without the index are not found; without any index on
+     * the classpath the classpath is scanned as usual.  Other scans are not affected.
+     */
+    @Valid
+    @JsonProperty
+    private boolean componentIndex = false;
+
+    public List<String> getClasses() {
+        return classes;
+    }
+
+    public List<String> getBasePackages() {
+        return basePackages;
+    }
+
+    public boolean isComponentIndex() {
+        return componentIndex;
+    }
+
+    public boolean isEmpty() {
+        return classes.isEmpty() && basePackages.isEmpty();
+    }
+}
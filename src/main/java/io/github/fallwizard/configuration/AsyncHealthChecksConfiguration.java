@@ -0,0 +1,83 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scheduled execution of the Spring health checks.
+ *
+ * When enabled, the HealthCheck beans run in the background, each at its own interval and
+ * with its own timeout, and /healthcheck serves their latest results along with their age.
+ */
+public class AsyncHealthChecksConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int threads = 2;
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration interval = Duration.seconds(10);
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration timeout = Duration.seconds(5);
+
+    /** Per health check (bean name) interval and timeout. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Map<String, HealthCheckScheduleConfiguration> checks = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public Map<String, HealthCheckScheduleConfiguration> getChecks() {
+        return checks;
+    }
+
+    /**
+     * @param name Health check name
+     * @return Interval of the health check
+     */
+    public Duration getInterval(String name) {
+        HealthCheckScheduleConfiguration check = checks.get(name);
+        return check != null && check.getInterval() != null ? check.getInterval() : interval;
+    }
+
+    /**
+     * @param name Health check name
+     * @return Timeout of the health check
+     */
+    public Duration getTimeout(String name) {
+        HealthCheckScheduleConfiguration check = checks.get(name);
+        return check != null && check.getTimeout() != null ? check.getTimeout() : timeout;
+    }
+}
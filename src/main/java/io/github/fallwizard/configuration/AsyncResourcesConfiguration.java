@@ -0,0 +1,31 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+
+/**
+ * Asynchronous JAX-RS resource methods, run on Spring executor beans (see @ExecuteOn).
+ */
+public class AsyncResourcesConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * Executor bean used by @ExecuteOn methods which do not name one.
+     */
+    @Valid
+    @JsonProperty
+    private String defaultExecutor;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getDefaultExecutor() {
+        return defaultExecutor;
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import java.io.File;
+
+/**
+ * Snapshot cache of the bean definitions parsed from the Application Context files,
+ * so unchanged XML does not have to be parsed again on the next start.
+ */
+public class BeanDefinitionCacheConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the snapshot files.
+     * Defaults to "fallwizard-bean-definitions" in the temporary directory.
+     */
+    @Valid
+    @JsonProperty
+    private String directory = null;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public File getDirectory() {
+        return directory != null
+                ? new File(directory)
+                : new File(System.getProperty("java.io.tmpdir"), "fallwizard-bean-definitions");
+    }
+}
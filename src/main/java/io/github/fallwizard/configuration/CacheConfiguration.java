@@ -0,0 +1,106 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+/**
+ * Bounds and expiry of one Spring cache.  Bounded by entries (maximumSize, the default) or by
+ * the estimated size of the entries (maximumWeight).
+ */
+public class CacheConfiguration extends Configuration {
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    @Valid
+    @Min(0)
+    @JsonProperty
+    private Long maximumSize;
+
+    @Valid
+    @JsonProperty
+    private Size maximumWeight;
+
+    /**
+     * Bean name of a Guava Weigher estimating the bytes of an entry.
+     * Defaults to an estimate based on Strings, arrays, collections and maps.
+     */
+    @Valid
+    @JsonProperty
+    private String weigher;
+
+    @Valid
+    @JsonProperty
+    private Duration expireAfterWrite;
+
+    @Valid
+    @JsonProperty
+    private Duration expireAfterAccess;
+
+    /**
+     * Entries older than this are recomputed in the background when next requested through a
+     * cached method, while the callers keep getting the cached value, so hot entries are
+     * renewed before they expire.
+     */
+    @Valid
+    @JsonProperty
+    private Duration refreshAfterWrite;
+
+    /**
+     * Near the bound, only cache keys requested at least twice recently (counted by a
+     * frequency sketch), so one-off keys do not evict entries.  Unlike W-TinyLFU, the key is
+     * not weighed against the entry it evicts, which the Guava cache does not expose.
+     */
+    @Valid
+    @JsonProperty
+    private boolean rejectOneOffKeys = true;
+
+    /** The cache health check turns unhealthy when the estimated size exceeds this. */
+    @Valid
+    @JsonProperty
+    private Size memoryBudget;
+
+    public long getMaximumSize() {
+        return maximumSize == null ? DEFAULT_MAXIMUM_SIZE : maximumSize;
+    }
+
+    public Size getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public String getWeigher() {
+        return weigher;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public Duration getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+
+    public boolean isRejectOneOffKeys() {
+        return rejectOneOffKeys;
+    }
+
+    public Size getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = "must not set both maximumSize and maximumWeight")
+    public boolean isSingleBound() {
+        return maximumSize == null || maximumWeight == null;
+    }
+}
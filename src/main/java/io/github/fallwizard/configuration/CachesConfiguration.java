@@ -0,0 +1,63 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The "cacheManager" of the contexts (used by &lt;cache:annotation-driven/&gt; and @EnableCaching).
+ */
+public class CachesConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * Create the caches which are not configured (with the defaults) when they are first used.
+     */
+    @Valid
+    @JsonProperty
+    private boolean dynamic = true;
+
+    /** Threads recomputing the entries past their refreshAfterWrite. */
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int refreshThreads = 2;
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private CacheConfiguration defaults = new CacheConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Map<String, CacheConfiguration> caches = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public CacheConfiguration getDefaults() {
+        return defaults;
+    }
+
+    public Map<String, CacheConfiguration> getCaches() {
+        return caches;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Expose this configuration (the whole YAML tree, as parsed) to the Spring contexts as a
+ * property source, resolved by a PropertySourcesPlaceholderConfigurer.
+ */
+public class ConfigurationPropertiesConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * Prefix of the property names, e.g. "dw." for ${dw.server.applicationConnectors[0].port}.
+     */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private String prefix = "";
+
+    /**
+     * Leave placeholders the configuration and Environment cannot resolve for other configurers.
+     * Defaults to true when a propertyPlaceholderConfigurer is also configured.
+     */
+    @Valid
+    @JsonProperty
+    private Boolean ignoreUnresolvablePlaceholders = null;
+
+    /**
+     * Runs before the propertyPlaceholderConfigurer (which has the lowest precedence) by default.
+     */
+    @Valid
+    @JsonProperty
+    private int order = Ordered.LOWEST_PRECEDENCE - 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public Boolean isIgnoreUnresolvablePlaceholders() {
+        return ignoreUnresolvablePlaceholders;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+}
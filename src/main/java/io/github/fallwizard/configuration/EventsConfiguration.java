@@ -0,0 +1,71 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+import io.github.fallwizard.events.EventDispatch;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Delivery of the Spring ApplicationEvents to their listeners, on a bounded executor.
+ * Listeners annotated with @EventDispatch override async and whenFull.
+ */
+public class EventsConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int threads = 2;
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int queueCapacity = 1000;
+
+    /** Deliver events asynchronously to the listeners which are not annotated. */
+    @Valid
+    @JsonProperty
+    private boolean async = true;
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private EventDispatch.Overflow whenFull = EventDispatch.Overflow.CALLER_RUNS;
+
+    /** How long queued events may take to be delivered when Dropwizard stops. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration shutdownTimeout = Duration.seconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public EventDispatch.Overflow getWhenFull() {
+        return whenFull;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+}
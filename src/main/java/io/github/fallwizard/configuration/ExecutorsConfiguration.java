@@ -0,0 +1,62 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Metrics and lifecycle management of the executor beans (ExecutorService,
+ * ThreadPoolTaskExecutor, ThreadPoolTaskScheduler).
+ */
+public class ExecutorsConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /** How long executors may take to finish their queued tasks when Dropwizard stops. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration shutdownTimeout = Duration.seconds(30);
+
+    /**
+     * ExecutorService beans to replace with InstrumentedExecutorServices, which also time
+     * every task.  They must be injected as ExecutorService (or ScheduledExecutorService).
+     */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private List<String> instrument = new ArrayList<>();
+
+    /**
+     * Executor beans to replace with a virtual thread per task executor (JDK 21+, ignored on
+     * older JVMs).  They must be injected as ExecutorService, or as TaskExecutor for
+     * ThreadPoolTaskExecutor beans.
+     */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private List<String> virtualThreads = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public List<String> getInstrument() {
+        return instrument;
+    }
+
+    public List<String> getVirtualThreads() {
+        return virtualThreads;
+    }
+}
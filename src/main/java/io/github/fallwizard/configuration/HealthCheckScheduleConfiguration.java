@@ -0,0 +1,29 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+
+/**
+ * Interval and timeout of one scheduled health check (unset values fall back to the defaults).
+ */
+public class HealthCheckScheduleConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private Duration interval = null;
+
+    @Valid
+    @JsonProperty
+    private Duration timeout = null;
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+
+/**
+ * Cached readers and writers ({@link io.github.fallwizard.jackson.JsonCodecs}) of the ObjectMapper
+ * shared by Dropwizard (Jersey, configuration) and the Spring beans.  The mapper is resolvable
+ * in the contexts whether or not this is enabled.
+ */
+public class JacksonConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
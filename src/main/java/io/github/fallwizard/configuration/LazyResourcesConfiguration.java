@@ -0,0 +1,55 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Lazy registration of the Spring JAX-RS resources.
+ *
+ * When enabled, singleton beans annotated with @Path are not created during the context
+ * refresh; they are registered with Jersey by class and created on the first request
+ * (or by the background warm-up, once the server is accepting traffic).
+ */
+public class LazyResourcesConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /** Create the lazy resource beans in the background once the server has started. */
+    @Valid
+    @JsonProperty
+    private boolean warmUp = true;
+
+    /** How long to wait after the server has started before warming up. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration warmUpDelay = Duration.seconds(0);
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int warmUpThreads = 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    public Duration getWarmUpDelay() {
+        return warmUpDelay;
+    }
+
+    public int getWarmUpThreads() {
+        return warmUpThreads;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Dependency-ordered, parallel start and stop of the Managed and LifeCycle beans.
+ *
+ * When enabled, the beans are started in the order of the Spring dependency graph
+ * (depends-on and injected references, including indirect ones); beans that do not depend on
+ * each other are started concurrently.  They are stopped in the reverse order.
+ */
+public class ManagedLifecycleConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /** Starting usually waits on I/O, so this defaults to at least 4. */
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    /** How long a single bean may take to start before startup fails. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration startTimeout = Duration.minutes(1);
+
+    /** How long a single bean may take to stop before shutdown moves on. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration stopTimeout = Duration.seconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getStartTimeout() {
+        return startTimeout;
+    }
+
+    public Duration getStopTimeout() {
+        return stopTimeout;
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in parallel loading of the Spring Application Context files.
+ *
+ * When enabled, the files listed in "applicationContext" are parsed concurrently
+ * and merged into the (shared) parent context.  Each group in "childContexts"
+ * becomes a sibling child context of that parent; the children are loaded and
+ * refreshed in parallel once the parent has been refreshed.
+ */
+public class ParallelContextLoadingConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /** Number of threads used to parse files and refresh child contexts. */
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Groups of context files, each loaded into its own child context. */
+    @Valid
+    @JsonProperty
+    private List<List<String>> childContexts = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public List<List<String>> getChildContexts() {
+        return childContexts;
+    }
+}
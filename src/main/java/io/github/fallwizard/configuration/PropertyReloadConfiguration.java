@@ -0,0 +1,45 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Reloading of the propertyPlaceholderConfigurer properties without a restart.
+ *
+ * When enabled, beans declared with scope="refresh" are rebuilt with the new property values
+ * on demand (the "reload-properties" admin task) or, with watch, whenever one of the
+ * file-based property locations changes.
+ */
+public class PropertyReloadConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /** Watch the file-based property locations and reload when they change. */
+    @Valid
+    @JsonProperty
+    private boolean watch = false;
+
+    /** How long the files must be left alone before a change is reloaded. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration quietPeriod = Duration.seconds(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    public Duration getQuietPeriod() {
+        return quietPeriod;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.io.File;
+
+/**
+ * Local cache of the http(s) context files and property locations: all of them are fetched
+ * concurrently before the contexts load, revalidated with conditional requests, and served
+ * from the last good copy when the server cannot be reached.
+ */
+public class RemoteResourcesConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the cached copies.
+     * Defaults to "fallwizard-remote-resources" in the temporary directory.
+     */
+    @Valid
+    @JsonProperty
+    private String directory = null;
+
+    /** Number of resources fetched at the same time. */
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int threads = 4;
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration connectTimeout = Duration.seconds(2);
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration readTimeout = Duration.seconds(10);
+
+    /**
+     * How long after it was last fetched (or confirmed unchanged) a cached copy may still be
+     * used when the server fails.
+     */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration maxStaleness = Duration.days(7);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public File getDirectory() {
+        return directory != null
+                ? new File(directory)
+                : new File(System.getProperty("java.io.tmpdir"), "fallwizard-remote-resources");
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+}
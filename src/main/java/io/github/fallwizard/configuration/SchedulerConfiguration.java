@@ -0,0 +1,55 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Scheduler of the @Scheduled methods and &lt;task:scheduled-tasks&gt; of the contexts which do not
+ * name a scheduler of their own.
+ */
+public class SchedulerConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int poolSize = 4;
+
+    /**
+     * Skip a run while the previous run of the same job is still going, and skip the
+     * fixed-rate runs that became due while it was (instead of running them back to back).
+     */
+    @Valid
+    @JsonProperty
+    private boolean preventOverlap = true;
+
+    /** How long running jobs may take to finish when Dropwizard stops. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration shutdownTimeout = Duration.seconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public boolean isPreventOverlap() {
+        return preventOverlap;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import org.hibernate.validator.constraints.NotEmpty;
+import org.springframework.security.config.BeanIds;
+
+import javax.validation.Valid;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registration of the Spring Security FilterChainProxy with the Dropwizard servlet environment.
+ * Only used when "useSpringSecurity" is true.
+ */
+public class SecurityFilterChainConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * Name of the FilterChainProxy bean (the name the security namespace gives it by default).
+     */
+    @Valid
+    @NotEmpty
+    @JsonProperty
+    private String beanName = BeanIds.SPRING_SECURITY_FILTER_CHAIN;
+
+    @Valid
+    @NotEmpty
+    @JsonProperty
+    private List<String> urlPatterns = Collections.singletonList("/*");
+
+    /**
+     * Request paths equal to one of these prefixes, or below it (whole path segments only),
+     * skip the security filters entirely.
+     */
+    @Valid
+    @JsonProperty
+    private List<String> bypassPrefixes = new ArrayList<>();
+
+    /**
+     * Publish the latency of every filter in the chain (excluding the filters after it).
+     */
+    @Valid
+    @JsonProperty
+    private boolean timeFilters = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public List<String> getUrlPatterns() {
+        return urlPatterns;
+    }
+
+    public List<String> getBypassPrefixes() {
+        return bypassPrefixes;
+    }
+
+    public boolean shouldTimeFilters() {
+        return timeFilters;
+    }
+}
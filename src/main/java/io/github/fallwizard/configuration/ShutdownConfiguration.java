@@ -0,0 +1,64 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Graceful shutdown: flip readiness, drain requests and executors, stop the Managed beans,
+ * then close the Spring contexts.
+ */
+public class ShutdownConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * How long to keep serving after the "readiness" health check turns unhealthy,
+     * so load balancers stop routing traffic here.
+     */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration readinessDelay = Duration.seconds(5);
+
+    /** Deadline for the in-flight requests and the executor queues to finish. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration drainTimeout = Duration.seconds(30);
+
+    /** Answer requests arriving while draining with 503 Service Unavailable. */
+    @Valid
+    @JsonProperty
+    private boolean rejectWhileDraining = true;
+
+    /** Shut down the ExecutorService, ThreadPoolTaskExecutor and ThreadPoolTaskScheduler beans and wait for their queues. */
+    @Valid
+    @JsonProperty
+    private boolean drainExecutors = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getReadinessDelay() {
+        return readinessDelay;
+    }
+
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    public boolean shouldRejectWhileDraining() {
+        return rejectWhileDraining;
+    }
+
+    public boolean shouldDrainExecutors() {
+        return drainExecutors;
+    }
+}
@@ -1,8 +1,11 @@
 package io.github.fallwizard.configuration;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dropwizard.Configuration;
-import org.hibernate.validator.constraints.NotEmpty;
+import io.dropwizard.validation.ValidationMethod;
+
+import javax.validation.Valid;
 
 /**
  * Spring Configuration, which determines whether to use
@@ -14,9 +17,8 @@ import org.hibernate.validator.constraints.NotEmpty;
 public class SpringConfiguration extends Configuration {
 
 
-	@NotEmpty
 	@JsonProperty
-	protected String[] applicationContext;
+	protected String[] applicationContext = new String[0];
 
 	public String[] getApplicationContext() {
 		
@@ -54,10 +56,189 @@ public class SpringConfiguration extends Configuration {
 		this.useSpringSecurity = shouldUse;
 	}
 
+	/**
+	 * Should Spring beans with @Timed, @Metered, @ExceptionMetered,
+	 * @Gauge or @CachedGauge methods be instrumented?  Off by default: instrumented
+	 * beans are replaced by CGLIB subclasses.
+	 */
+	@JsonProperty
+	protected boolean instrumentAnnotatedBeans = false;
+
+	public boolean shouldInstrumentAnnotatedBeans() {
+		
+		return instrumentAnnotatedBeans;
+	}
+
     @JsonProperty("propertyPlaceholderConfigurer")
     protected SpringPropertyPlaceholderConfigurerConfiguration placeholderConfiguration;
 
     public SpringPropertyPlaceholderConfigurerConfiguration getPlaceholderConfiguration() {
         return placeholderConfiguration;
     }
+
+    @Valid
+    @JsonProperty("parallelLoading")
+    protected ParallelContextLoadingConfiguration parallelLoadingConfiguration;
+
+    public ParallelContextLoadingConfiguration getParallelLoadingConfiguration() {
+        return parallelLoadingConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("startupProfiler")
+    protected StartupProfilerConfiguration startupProfilerConfiguration = new StartupProfilerConfiguration();
+
+    public StartupProfilerConfiguration getStartupProfilerConfiguration() {
+        return startupProfilerConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("lazyResources")
+    protected LazyResourcesConfiguration lazyResourcesConfiguration = new LazyResourcesConfiguration();
+
+    public LazyResourcesConfiguration getLazyResourcesConfiguration() {
+        return lazyResourcesConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("beanDefinitionCache")
+    protected BeanDefinitionCacheConfiguration beanDefinitionCacheConfiguration = new BeanDefinitionCacheConfiguration();
+
+    public BeanDefinitionCacheConfiguration getBeanDefinitionCacheConfiguration() {
+        return beanDefinitionCacheConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("authenticator")
+    protected SpringSecurityAuthenticatorConfiguration authenticatorConfiguration = new SpringSecurityAuthenticatorConfiguration();
+
+    public SpringSecurityAuthenticatorConfiguration getAuthenticatorConfiguration() {
+        return authenticatorConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("securityFilterChain")
+    protected SecurityFilterChainConfiguration securityFilterChainConfiguration = new SecurityFilterChainConfiguration();
+
+    public SecurityFilterChainConfiguration getSecurityFilterChainConfiguration() {
+        return securityFilterChainConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("propertyReload")
+    protected PropertyReloadConfiguration propertyReloadConfiguration = new PropertyReloadConfiguration();
+
+    public PropertyReloadConfiguration getPropertyReloadConfiguration() {
+        return propertyReloadConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("managedLifecycle")
+    protected ManagedLifecycleConfiguration managedLifecycleConfiguration = new ManagedLifecycleConfiguration();
+
+    public ManagedLifecycleConfiguration getManagedLifecycleConfiguration() {
+        return managedLifecycleConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("shutdown")
+    protected ShutdownConfiguration shutdownConfiguration = new ShutdownConfiguration();
+
+    public ShutdownConfiguration getShutdownConfiguration() {
+        return shutdownConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("asyncHealthChecks")
+    protected AsyncHealthChecksConfiguration asyncHealthChecksConfiguration = new AsyncHealthChecksConfiguration();
+
+    public AsyncHealthChecksConfiguration getAsyncHealthChecksConfiguration() {
+        return asyncHealthChecksConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("executors")
+    protected ExecutorsConfiguration executorsConfiguration = new ExecutorsConfiguration();
+
+    public ExecutorsConfiguration getExecutorsConfiguration() {
+        return executorsConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("annotationConfig")
+    protected AnnotationConfigConfiguration annotationConfigConfiguration = new AnnotationConfigConfiguration();
+
+    public AnnotationConfigConfiguration getAnnotationConfigConfiguration() {
+        return annotationConfigConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("remoteResources")
+    protected RemoteResourcesConfiguration remoteResourcesConfiguration = new RemoteResourcesConfiguration();
+
+    public RemoteResourcesConfiguration getRemoteResourcesConfiguration() {
+        return remoteResourcesConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("configurationProperties")
+    protected ConfigurationPropertiesConfiguration configurationPropertiesConfiguration = new ConfigurationPropertiesConfiguration();
+
+    public ConfigurationPropertiesConfiguration getConfigurationPropertiesConfiguration() {
+        return configurationPropertiesConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("asyncResources")
+    protected AsyncResourcesConfiguration asyncResourcesConfiguration = new AsyncResourcesConfiguration();
+
+    public AsyncResourcesConfiguration getAsyncResourcesConfiguration() {
+        return asyncResourcesConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("jackson")
+    protected JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+
+    public JacksonConfiguration getJacksonConfiguration() {
+        return jacksonConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("scheduler")
+    protected SchedulerConfiguration schedulerConfiguration = new SchedulerConfiguration();
+
+    public SchedulerConfiguration getSchedulerConfiguration() {
+        return schedulerConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("events")
+    protected EventsConfiguration eventsConfiguration = new EventsConfiguration();
+
+    public EventsConfiguration getEventsConfiguration() {
+        return eventsConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("caches")
+    protected CachesConfiguration cachesConfiguration = new CachesConfiguration();
+
+    public CachesConfiguration getCachesConfiguration() {
+        return cachesConfiguration;
+    }
+
+    @Valid
+    @JsonProperty("warmUp")
+    protected WarmUpConfiguration warmUpConfiguration = new WarmUpConfiguration();
+
+    public WarmUpConfiguration getWarmUpConfiguration() {
+        return warmUpConfiguration;
+    }
+
+    @JsonIgnore
+    @ValidationMethod(message = "must list applicationContext files or annotationConfig classes or basePackages")
+    public boolean isContextDefined() {
+        return (applicationContext != null && applicationContext.length > 0) || !annotationConfigConfiguration.isEmpty();
+    }
 }
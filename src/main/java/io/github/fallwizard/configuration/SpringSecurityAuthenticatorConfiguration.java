@@ -0,0 +1,55 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import org.hibernate.validator.constraints.NotEmpty;
+
+import javax.validation.Valid;
+
+/**
+ * Dropwizard Basic authentication (@Auth UserDetails) backed by the Spring Security
+ * AuthenticationManager, with a cache of authenticated credentials.
+ * Only used when "useSpringSecurity" is true.
+ */
+public class SpringSecurityAuthenticatorConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    @Valid
+    @NotEmpty
+    @JsonProperty
+    private String realm = "fallwizard";
+
+    /**
+     * Name of the AuthenticationManager bean; only needed if the context defines more than one.
+     */
+    @Valid
+    @JsonProperty
+    private String authenticationManager = null;
+
+    /**
+     * Guava CacheBuilderSpec of the credentials cache (bound and TTL).
+     */
+    @Valid
+    @NotEmpty
+    @JsonProperty
+    private String cachePolicy = "maximumSize=10000, expireAfterWrite=10m";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getRealm() {
+        return realm;
+    }
+
+    public String getAuthenticationManager() {
+        return authenticationManager;
+    }
+
+    public String getCachePolicy() {
+        return cachePolicy;
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+/**
+ * Per-bean startup instrumentation.  Phase timings (placeholders, load, refresh,
+ * register*) are always recorded and logged; they are published as metrics, and bean
+ * creation timings recorded, only when enabled.
+ */
+public class StartupProfilerConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    /**
+     * Number of slowest beans published as individual gauges,
+     * and the default limit of the "startup-profile" admin task.
+     */
+    @Valid
+    @Min(0)
+    @JsonProperty
+    private int slowestBeans = 20;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSlowestBeans() {
+        return slowestBeans;
+    }
+}
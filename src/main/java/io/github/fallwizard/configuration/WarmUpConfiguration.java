@@ -0,0 +1,99 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+import io.dropwizard.util.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warm-up run once Jetty has started: the WarmUpHook beans are called, then the requests are
+ * replayed in-process in rounds until their latency levels off or the time budget runs out.
+ * The "readiness" health check is unhealthy until the warm-up is over.
+ */
+public class WarmUpConfiguration extends Configuration {
+
+    @Valid
+    @JsonProperty
+    private boolean enabled = false;
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private List<WarmUpRequestConfiguration> requests = new ArrayList<>();
+
+    /** Number of threads replaying each round of requests. */
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int concurrency = 2;
+
+    /** The warm-up is over after this long, leveled off or not. */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Duration timeBudget = Duration.seconds(60);
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int minRounds = 20;
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int maxRounds = 10000;
+
+    /**
+     * Latency has leveled off once the mean latency of a round stays within this fraction
+     * of the previous round's for {@link #stableRounds} rounds in a row.
+     */
+    @Valid
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    @JsonProperty
+    private double tolerance = 0.1;
+
+    @Valid
+    @Min(1)
+    @JsonProperty
+    private int stableRounds = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<WarmUpRequestConfiguration> getRequests() {
+        return requests;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    public int getMinRounds() {
+        return minRounds;
+    }
+
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public int getStableRounds() {
+        return stableRounds;
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.fallwizard.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.Configuration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A synthetic request replayed against the resources during the warm-up.
+ */
+public class WarmUpRequestConfiguration extends Configuration {
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private String method = "GET";
+
+    /** Path relative to the Jersey root path, with the query string (e.g. /users/1?expand=true). */
+    @Valid
+    @NotNull
+    @JsonProperty
+    private String path;
+
+    @Valid
+    @NotNull
+    @JsonProperty
+    private Map<String, String> headers = new LinkedHashMap<>();
+
+    /** Request body (sent as application/json unless a Content-Type header is set). */
+    @Valid
+    @JsonProperty
+    private String entity;
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.fallwizard.context;
+
+import io.github.fallwizard.configuration.AnnotationConfigConfiguration;
+import io.github.fallwizard.index.ComponentIndex;
+import io.github.fallwizard.index.IndexedResourcePatternResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Registers the annotated classes and scanned packages of the annotation configuration
+ * with a context, alongside (or instead of) its XML files.
+ */
+public final class AnnotationConfigLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationConfigLoader.class);
+
+    private AnnotationConfigLoader() {}
+
+    /**
+     * Register the configured classes and scan the configured packages.  The scanner only
+     * uses the default filters, so it may resolve the candidate classes from the component
+     * index; every other lookup goes through the context's own resource loader.
+     * @param context Context (not yet refreshed) receiving the bean definitions
+     * @param configuration Annotation configuration
+     * @param index Component index the base packages are scanned from (null to scan the classpath)
+     * @throws IllegalArgumentException if a configured class cannot be found
+     */
+    public static void load(GenericApplicationContext context, AnnotationConfigConfiguration configuration,
+                            ComponentIndex index) {
+
+        if (configuration.isEmpty()) {
+            return;
+        }
+
+        // Also registers the annotation config processors (@Configuration, @Autowired, ...)
+        AnnotatedBeanDefinitionReader reader = new AnnotatedBeanDefinitionReader(context, context.getEnvironment());
+
+        List<String> classes = configuration.getClasses();
+        for (String className : classes) {
+            try {
+                reader.register(ClassUtils.forName(className, context.getClassLoader()));
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new IllegalArgumentException("Cannot load annotated class " + className, e);
+            }
+        }
+
+        List<String> basePackages = configuration.getBasePackages();
+        int scanned = 0;
+        if (!basePackages.isEmpty()) {
+            ClassPathBeanDefinitionScanner scanner =
+                    new ClassPathBeanDefinitionScanner(context, true, context.getEnvironment());
+            scanner.setResourceLoader(index == null
+                    ? context
+                    : new IndexedResourcePatternResolver(index, context.getClassLoader(), context));
+            scanned = scanner.scan(basePackages.toArray(new String[basePackages.size()]));
+        }
+
+        logger.info("Registered {} annotated classes and {} components from {}", classes.size(), scanned, basePackages);
+    }
+}
@@ -0,0 +1,467 @@
+package io.github.fallwizard.context;
+
+import org.springframework.beans.BeanMetadataAttribute;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.ChildBeanDefinition;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the bean definitions produced by the XML bean definition reader.
+ *
+ * Only the plain definition types and the metadata values the XML parser creates (typed strings,
+ * bean references, inner beans and managed collections) are supported.  Anything else, such as
+ * scanned/annotated definitions, qualifiers, method overrides or arbitrary objects, makes
+ * {@link #writeDefinition} throw a {@link NotSerializableException}, so the caller can fall back to
+ * parsing the XML.
+ */
+class BeanDefinitionCodec {
+
+    private static final byte GENERIC = 0;
+    private static final byte ROOT = 1;
+    private static final byte CHILD = 2;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte TYPED_STRING = 2;
+    private static final byte BEAN_REFERENCE = 3;
+    private static final byte BEAN_NAME_REFERENCE = 4;
+    private static final byte INNER_BEAN = 5;
+    private static final byte LIST = 6;
+    private static final byte SET = 7;
+    private static final byte MAP = 8;
+    private static final byte PROPERTIES = 9;
+    private static final byte ARRAY = 10;
+    private static final byte BOOLEAN = 11;
+
+    // ------------------------------
+    // Writing
+    // ------------------------------
+
+    void writeDefinition(DataOutput out, BeanDefinition beanDefinition) throws IOException {
+
+        if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+            throw new NotSerializableException(beanDefinition.getClass().getName());
+        }
+
+        AbstractBeanDefinition definition = (AbstractBeanDefinition) beanDefinition;
+
+        if (definition.getClass() == GenericBeanDefinition.class) {
+            out.writeByte(GENERIC);
+        } else if (definition.getClass() == ChildBeanDefinition.class) {
+            out.writeByte(CHILD);
+        } else if (definition.getClass() == RootBeanDefinition.class
+                && ((RootBeanDefinition) definition).getDecoratedDefinition() == null
+                && ((RootBeanDefinition) definition).getTargetType() == null) {
+            out.writeByte(ROOT);
+        } else {
+            throw new NotSerializableException(definition.getClass().getName());
+        }
+
+        if (!definition.getQualifiers().isEmpty()
+                || !definition.getMethodOverrides().isEmpty()
+                || definition.getOriginatingBeanDefinition() != null) {
+            throw new NotSerializableException("Unsupported bean definition metadata: " + definition);
+        }
+
+        writeString(out, definition.getParentName());
+        writeString(out, definition.getBeanClassName());
+        writeString(out, definition.getScope());
+        out.writeBoolean(definition.isAbstract());
+        out.writeBoolean(definition.isLazyInit());
+        out.writeInt(definition.getAutowireMode());
+        out.writeInt(definition.getDependencyCheck());
+        writeStrings(out, definition.getDependsOn());
+        out.writeBoolean(definition.isAutowireCandidate());
+        out.writeBoolean(definition.isPrimary());
+        out.writeBoolean(definition.isNonPublicAccessAllowed());
+        out.writeBoolean(definition.isLenientConstructorResolution());
+        writeString(out, definition.getFactoryBeanName());
+        writeString(out, definition.getFactoryMethodName());
+        writeString(out, definition.getInitMethodName());
+        out.writeBoolean(definition.isEnforceInitMethod());
+        writeString(out, definition.getDestroyMethodName());
+        out.writeBoolean(definition.isEnforceDestroyMethod());
+        out.writeBoolean(definition.isSynthetic());
+        out.writeInt(definition.getRole());
+        writeString(out, definition.getDescription());
+        writeString(out, definition.getResourceDescription());
+
+        String[] attributeNames = definition.attributeNames();
+        out.writeInt(attributeNames.length);
+        for (String attributeName : attributeNames) {
+            Object attribute = definition.getAttribute(attributeName);
+            if (!(attribute instanceof String)) {
+                throw new NotSerializableException("Bean definition attribute: " + attributeName);
+            }
+            out.writeUTF(attributeName);
+            out.writeUTF((String) attribute);
+        }
+
+        ConstructorArgumentValues constructorArguments = definition.getConstructorArgumentValues();
+        Map<Integer, ConstructorArgumentValues.ValueHolder> indexed = constructorArguments.getIndexedArgumentValues();
+        out.writeInt(indexed.size());
+        for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexed.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeValueHolder(out, entry.getValue());
+        }
+        List<ConstructorArgumentValues.ValueHolder> generic = constructorArguments.getGenericArgumentValues();
+        out.writeInt(generic.size());
+        for (ConstructorArgumentValues.ValueHolder holder : generic) {
+            writeValueHolder(out, holder);
+        }
+
+        PropertyValue[] propertyValues = definition.getPropertyValues().getPropertyValues();
+        out.writeInt(propertyValues.length);
+        for (PropertyValue propertyValue : propertyValues) {
+            out.writeUTF(propertyValue.getName());
+            writeValue(out, propertyValue.getValue());
+        }
+    }
+
+    private void writeValueHolder(DataOutput out, ConstructorArgumentValues.ValueHolder holder) throws IOException {
+
+        writeValue(out, holder.getValue());
+        writeString(out, holder.getType());
+        writeString(out, holder.getName());
+    }
+
+    private void writeValue(DataOutput out, Object value) throws IOException {
+
+        if (value == null) {
+            out.writeByte(NULL);
+
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String) value);
+
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+
+        } else if (value.getClass() == TypedStringValue.class) {
+            TypedStringValue typed = (TypedStringValue) value;
+            out.writeByte(TYPED_STRING);
+            writeString(out, typed.getValue());
+            writeString(out, typed.hasTargetType() ? typed.getTargetType().getName() : typed.getTargetTypeName());
+            writeString(out, typed.getSpecifiedTypeName());
+            out.writeBoolean(typed.isDynamic());
+
+        } else if (value.getClass() == RuntimeBeanReference.class) {
+            RuntimeBeanReference reference = (RuntimeBeanReference) value;
+            out.writeByte(BEAN_REFERENCE);
+            out.writeUTF(reference.getBeanName());
+            out.writeBoolean(reference.isToParent());
+
+        } else if (value.getClass() == RuntimeBeanNameReference.class) {
+            out.writeByte(BEAN_NAME_REFERENCE);
+            out.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+
+        } else if (value.getClass() == BeanDefinitionHolder.class) {
+            BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+            out.writeByte(INNER_BEAN);
+            out.writeUTF(holder.getBeanName());
+            writeStrings(out, holder.getAliases());
+            writeDefinition(out, holder.getBeanDefinition());
+
+        } else if (value.getClass() == ManagedArray.class) {
+            ManagedArray array = (ManagedArray) value;
+            out.writeByte(ARRAY);
+            writeString(out, array.getElementTypeName());
+            out.writeBoolean(array.isMergeEnabled());
+            writeValues(out, array);
+
+        } else if (value.getClass() == ManagedList.class) {
+            ManagedList<?> list = (ManagedList<?>) value;
+            out.writeByte(LIST);
+            writeString(out, list.getElementTypeName());
+            out.writeBoolean(list.isMergeEnabled());
+            writeValues(out, list);
+
+        } else if (value.getClass() == ManagedSet.class) {
+            ManagedSet<?> set = (ManagedSet<?>) value;
+            out.writeByte(SET);
+            writeString(out, set.getElementTypeName());
+            out.writeBoolean(set.isMergeEnabled());
+            writeValues(out, set);
+
+        } else if (value.getClass() == ManagedMap.class) {
+            ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+            out.writeByte(MAP);
+            writeString(out, map.getKeyTypeName());
+            writeString(out, map.getValueTypeName());
+            out.writeBoolean(map.isMergeEnabled());
+            writeEntries(out, map);
+
+        } else if (value.getClass() == ManagedProperties.class) {
+            ManagedProperties properties = (ManagedProperties) value;
+            out.writeByte(PROPERTIES);
+            out.writeBoolean(properties.isMergeEnabled());
+            writeEntries(out, properties);
+
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+
+    private void writeValues(DataOutput out, Collection<?> values) throws IOException {
+
+        out.writeInt(values.size());
+        for (Object value : values) {
+            writeValue(out, value);
+        }
+    }
+
+    private void writeEntries(DataOutput out, Map<?, ?> map) throws IOException {
+
+        out.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static void writeStrings(DataOutput out, String[] values) throws IOException {
+
+        out.writeInt(values == null ? -1 : values.length);
+        if (values != null) {
+            for (String value : values) {
+                out.writeUTF(value);
+            }
+        }
+    }
+
+    // ------------------------------
+    // Reading
+    // ------------------------------
+
+    AbstractBeanDefinition readDefinition(DataInput in) throws IOException {
+
+        byte kind = in.readByte();
+        String parentName = readString(in);
+
+        AbstractBeanDefinition definition;
+        switch (kind) {
+            case GENERIC:
+                GenericBeanDefinition genericDefinition = new GenericBeanDefinition();
+                genericDefinition.setParentName(parentName);
+                definition = genericDefinition;
+                break;
+            case CHILD:
+                definition = new ChildBeanDefinition(parentName);
+                break;
+            case ROOT:
+                definition = new RootBeanDefinition();
+                break;
+            default:
+                throw new StreamCorruptedException("Unknown bean definition kind " + kind);
+        }
+
+        definition.setBeanClassName(readString(in));
+        definition.setScope(readString(in));
+        definition.setAbstract(in.readBoolean());
+        definition.setLazyInit(in.readBoolean());
+        definition.setAutowireMode(in.readInt());
+        definition.setDependencyCheck(in.readInt());
+        definition.setDependsOn(readStrings(in));
+        definition.setAutowireCandidate(in.readBoolean());
+        definition.setPrimary(in.readBoolean());
+        definition.setNonPublicAccessAllowed(in.readBoolean());
+        definition.setLenientConstructorResolution(in.readBoolean());
+        definition.setFactoryBeanName(readString(in));
+        definition.setFactoryMethodName(readString(in));
+        definition.setInitMethodName(readString(in));
+        definition.setEnforceInitMethod(in.readBoolean());
+        definition.setDestroyMethodName(readString(in));
+        definition.setEnforceDestroyMethod(in.readBoolean());
+        definition.setSynthetic(in.readBoolean());
+        definition.setRole(in.readInt());
+        definition.setDescription(readString(in));
+        definition.setResourceDescription(readString(in));
+
+        int attributes = in.readInt();
+        for (int i = 0; i < attributes; i++) {
+            definition.addMetadataAttribute(new BeanMetadataAttribute(in.readUTF(), in.readUTF()));
+        }
+
+        ConstructorArgumentValues constructorArguments = definition.getConstructorArgumentValues();
+        int indexed = in.readInt();
+        for (int i = 0; i < indexed; i++) {
+            int index = in.readInt();
+            constructorArguments.addIndexedArgumentValue(index, readValueHolder(in));
+        }
+        int generic = in.readInt();
+        for (int i = 0; i < generic; i++) {
+            constructorArguments.addGenericArgumentValue(readValueHolder(in));
+        }
+
+        MutablePropertyValues propertyValues = definition.getPropertyValues();
+        int properties = in.readInt();
+        for (int i = 0; i < properties; i++) {
+            String name = in.readUTF();
+            propertyValues.addPropertyValue(new PropertyValue(name, readValue(in)));
+        }
+
+        return definition;
+    }
+
+    private ConstructorArgumentValues.ValueHolder readValueHolder(DataInput in) throws IOException {
+
+        Object value = readValue(in);
+        String type = readString(in);
+        String name = readString(in);
+        return new ConstructorArgumentValues.ValueHolder(value, type, name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readValue(DataInput in) throws IOException {
+
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+
+            case STRING:
+                return in.readUTF();
+
+            case BOOLEAN:
+                return in.readBoolean();
+
+            case TYPED_STRING: {
+                TypedStringValue typed = new TypedStringValue(readString(in));
+                String targetTypeName = readString(in);
+                if (targetTypeName != null) {
+                    typed.setTargetTypeName(targetTypeName);
+                }
+                typed.setSpecifiedTypeName(readString(in));
+                if (in.readBoolean()) {
+                    typed.setDynamic();
+                }
+                return typed;
+            }
+
+            case BEAN_REFERENCE: {
+                String beanName = in.readUTF();
+                return new RuntimeBeanReference(beanName, in.readBoolean());
+            }
+
+            case BEAN_NAME_REFERENCE:
+                return new RuntimeBeanNameReference(in.readUTF());
+
+            case INNER_BEAN: {
+                String beanName = in.readUTF();
+                String[] aliases = readStrings(in);
+                return new BeanDefinitionHolder(readDefinition(in), beanName, aliases);
+            }
+
+            case ARRAY: {
+                String elementTypeName = readString(in);
+                boolean merge = in.readBoolean();
+                int size = in.readInt();
+                ManagedArray array = new ManagedArray(elementTypeName, size);
+                array.setMergeEnabled(merge);
+                readValues(in, array, size);
+                return array;
+            }
+
+            case LIST: {
+                ManagedList<Object> list = new ManagedList<>();
+                list.setElementTypeName(readString(in));
+                list.setMergeEnabled(in.readBoolean());
+                readValues(in, list, in.readInt());
+                return list;
+            }
+
+            case SET: {
+                ManagedSet<Object> set = new ManagedSet<>();
+                set.setElementTypeName(readString(in));
+                set.setMergeEnabled(in.readBoolean());
+                readValues(in, set, in.readInt());
+                return set;
+            }
+
+            case MAP: {
+                ManagedMap<Object, Object> map = new ManagedMap<>();
+                map.setKeyTypeName(readString(in));
+                map.setValueTypeName(readString(in));
+                map.setMergeEnabled(in.readBoolean());
+                readEntries(in, map);
+                return map;
+            }
+
+            case PROPERTIES: {
+                ManagedProperties properties = new ManagedProperties();
+                properties.setMergeEnabled(in.readBoolean());
+                readEntries(in, properties);
+                return properties;
+            }
+
+            default:
+                throw new StreamCorruptedException("Unknown value tag " + tag);
+        }
+    }
+
+    private void readValues(DataInput in, Collection<Object> values, int size) throws IOException {
+
+        for (int i = 0; i < size; i++) {
+            values.add(readValue(in));
+        }
+    }
+
+    private void readEntries(DataInput in, Map<Object, Object> map) throws IOException {
+
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            Object key = readValue(in);
+            map.put(key, readValue(in));
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static String[] readStrings(DataInput in) throws IOException {
+
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+}
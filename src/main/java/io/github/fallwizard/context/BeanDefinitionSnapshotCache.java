@@ -0,0 +1,275 @@
+package io.github.fallwizard.context;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.parsing.EmptyReaderEventListener;
+import org.springframework.beans.factory.parsing.ImportDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.SpringVersion;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * On-disk snapshot of the bean definitions parsed from the Application Context files.
+ *
+ * The snapshot file is named after a hash of the context locations, the active bean profiles
+ * and the Spring version.  It starts with a manifest of content hashes for every context file
+ * (including the files they import); if any of them changed, the snapshot is discarded and
+ * the XML is parsed again.  Any problem reading or writing a snapshot is logged and treated
+ * as a cache miss.
+ */
+public class BeanDefinitionSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BeanDefinitionSnapshotCache.class);
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final HashFunction HASH = Hashing.sha1();
+
+    private final File directory;
+
+    private final ResourcePatternResolver resolver;
+
+    private final BeanDefinitionCodec codec = new BeanDefinitionCodec();
+
+    private final Set<Resource> importedResources = Collections.synchronizedSet(new LinkedHashSet<Resource>());
+
+    public BeanDefinitionSnapshotCache(File directory, ResourcePatternResolver resolver) {
+        this.directory = directory;
+        this.resolver = resolver;
+    }
+
+    /**
+     * @return Listener to attach to the bean definition readers, so imported files become part of the snapshot key.
+     */
+    public EmptyReaderEventListener getImportListener() {
+
+        return new EmptyReaderEventListener() {
+            @Override
+            public void importProcessed(ImportDefinition importDefinition) {
+                if (importDefinition.getActualResources() != null) {
+                    importedResources.addAll(Arrays.asList(importDefinition.getActualResources()));
+                }
+            }
+        };
+    }
+
+    /**
+     * Register the bean definitions of a valid snapshot with the registry.
+     * @param registry Registry receiving the bean definitions
+     * @param locations Normalized context file locations
+     * @param environment Environment providing the bean profiles
+     * @return true if the snapshot was valid and restored, false if the XML has to be parsed
+     */
+    public boolean restore(BeanDefinitionRegistry registry, List<String> locations, Environment environment) {
+
+        File snapshot = snapshotFile(locations, environment);
+        if (!snapshot.isFile()) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+
+            if (in.readInt() != FORMAT_VERSION) {
+                return invalidate(snapshot, "format changed");
+            }
+
+            int manifestSize = in.readInt();
+            for (int i = 0; i < manifestSize; i++) {
+                boolean pattern = in.readBoolean();
+                String location = in.readUTF();
+                String hash = in.readUTF();
+                if (!hash.equals(hashLocation(location, pattern))) {
+                    return invalidate(snapshot, location + " changed");
+                }
+            }
+
+            // Read everything before registering, so a truncated file leaves the registry untouched.
+            List<BeanDefinitionHolder> definitions = new ArrayList<>();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String beanName = in.readUTF();
+                String[] aliases = BeanDefinitionCodec.readStrings(in);
+                definitions.add(new BeanDefinitionHolder(codec.readDefinition(in), beanName, aliases));
+            }
+
+            for (BeanDefinitionHolder definition : definitions) {
+                BeanDefinitionReaderUtils.registerBeanDefinition(definition, registry);
+            }
+
+            logger.info("Restored {} bean definitions from {} in {} ms", count, snapshot,
+                    (System.nanoTime() - start) / 1000000);
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read bean definition snapshot {}, parsing the context files.", snapshot, e);
+            return invalidate(snapshot, e.getMessage());
+        }
+    }
+
+    /**
+     * Write a snapshot of the bean definitions the context files produced.
+     * @param beanFactory Bean factory the context files were loaded into (not yet refreshed)
+     * @param locations Normalized context file locations
+     * @param environment Environment providing the bean profiles
+     */
+    public void store(ConfigurableListableBeanFactory beanFactory, List<String> locations, Environment environment) {
+
+        File snapshot = snapshotFile(locations, environment);
+
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buffer);
+
+            out.writeInt(FORMAT_VERSION);
+
+            // Top-level locations (which may be patterns), then the files they import
+            Map<String, Boolean> manifest = new LinkedHashMap<>();
+            for (String location : locations) {
+                manifest.put(location, true);
+            }
+            synchronized (importedResources) {
+                for (Resource resource : importedResources) {
+                    manifest.put(resource.getURL().toString(), false);
+                }
+            }
+            out.writeInt(manifest.size());
+            for (Map.Entry<String, Boolean> entry : manifest.entrySet()) {
+                out.writeBoolean(entry.getValue());
+                out.writeUTF(entry.getKey());
+                out.writeUTF(hashLocation(entry.getKey(), entry.getValue()));
+            }
+
+            String[] beanNames = beanFactory.getBeanDefinitionNames();
+            out.writeInt(beanNames.length);
+            for (String beanName : beanNames) {
+                out.writeUTF(beanName);
+                BeanDefinitionCodec.writeStrings(out, beanFactory.getAliases(beanName));
+                codec.writeDefinition(out, beanFactory.getBeanDefinition(beanName));
+            }
+            out.flush();
+
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+
+            // Write to a temporary file and rename, so a concurrent start never reads half a snapshot.
+            File temporary = File.createTempFile(snapshot.getName(), ".tmp", directory);
+            try (BufferedOutputStream file = new BufferedOutputStream(new FileOutputStream(temporary))) {
+                buffer.writeTo(file);
+            }
+            if (!temporary.renameTo(snapshot)) {
+                snapshot.delete();
+                if (!temporary.renameTo(snapshot)) {
+                    temporary.delete();
+                    throw new IOException("Cannot rename " + temporary + " to " + snapshot);
+                }
+            }
+
+            logger.info("Stored {} bean definitions in {}", beanNames.length, snapshot);
+
+        } catch (NotSerializableException e) {
+            logger.info("Bean definitions cannot be cached ({}), the context files will be parsed on every start.",
+                    e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Could not write bean definition snapshot {}", snapshot, e);
+        }
+    }
+
+    private File snapshotFile(List<String> locations, Environment environment) {
+
+        Hasher hasher = HASH.newHasher()
+                .putInt(FORMAT_VERSION)
+                .putString(String.valueOf(SpringVersion.getVersion()), StandardCharsets.UTF_8);
+
+        for (String location : locations) {
+            hasher.putString(location, StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        putProfiles(hasher, environment.getActiveProfiles());
+        putProfiles(hasher, environment.getDefaultProfiles());
+
+        return new File(directory, hasher.hash() + ".bdc");
+    }
+
+    private void putProfiles(Hasher hasher, String[] profiles) {
+
+        List<String> sorted = new ArrayList<>(Arrays.asList(profiles));
+        Collections.sort(sorted);
+
+        hasher.putByte((byte) 1);
+        for (String profile : sorted) {
+            hasher.putString(profile, StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+    }
+
+    /**
+     * Hash the content of every resource a location resolves to (locations may be patterns).
+     */
+    private String hashLocation(String location, boolean pattern) throws IOException {
+
+        List<Resource> resources = new ArrayList<>();
+        if (pattern) {
+            resources.addAll(Arrays.asList(resolver.getResources(location)));
+        } else {
+            resources.add(new UrlResource(location));
+        }
+
+        Collections.sort(resources, new Comparator<Resource>() {
+            @Override
+            public int compare(Resource left, Resource right) {
+                return left.getDescription().compareTo(right.getDescription());
+            }
+        });
+
+        Hasher hasher = HASH.newHasher();
+        for (Resource resource : resources) {
+            hasher.putString(resource.getDescription(), StandardCharsets.UTF_8);
+            try (InputStream in = resource.getInputStream()) {
+                hasher.putBytes(ByteStreams.toByteArray(in));
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private boolean invalidate(File snapshot, String reason) {
+
+        logger.info("Discarding bean definition snapshot {}: {}", snapshot, reason);
+        if (!snapshot.delete()) {
+            logger.debug("Could not delete {}", snapshot);
+        }
+        return false;
+    }
+}
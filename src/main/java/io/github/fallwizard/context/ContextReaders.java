@@ -0,0 +1,34 @@
+package io.github.fallwizard.context;
+
+import org.springframework.beans.factory.parsing.ReaderEventListener;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.xml.ResourceEntityResolver;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Creates XML bean definition readers configured the way GenericXmlApplicationContext configures its own.
+ */
+public final class ContextReaders {
+
+    private ContextReaders() {}
+
+    /**
+     * @param registry Registry receiving the bean definitions
+     * @param context Context providing the environment (profiles) and resource loading
+     * @param listener Reader event listener (may be null)
+     * @return Configured reader
+     */
+    public static XmlBeanDefinitionReader create(
+            BeanDefinitionRegistry registry, GenericApplicationContext context, ReaderEventListener listener) {
+
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry);
+        reader.setEnvironment(context.getEnvironment());
+        reader.setResourceLoader(context);
+        reader.setEntityResolver(new ResourceEntityResolver(context));
+        if (listener != null) {
+            reader.setEventListener(listener);
+        }
+        return reader;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.fallwizard.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+
+/**
+ * Marks every singleton bean definition as lazy-init, so the context refresh only creates
+ * the post processors and infrastructure, and other beans are created on first lookup
+ * (together with their dependencies).
+ *
+ * Runs as a plain BeanFactoryPostProcessor, after the definitions registered by
+ * @Configuration classes exist.
+ */
+public class LazyInitPostProcessor implements BeanFactoryPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyInitPostProcessor.class);
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+
+        int marked = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+
+            if (definition instanceof AbstractBeanDefinition
+                    && !definition.isAbstract()
+                    && definition.isSingleton()
+                    && !definition.isLazyInit()
+                    && definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE) {
+                ((AbstractBeanDefinition) definition).setLazyInit(true);
+                marked++;
+            }
+        }
+
+        logger.debug("Marked {} singletons as lazy-init", marked);
+    }
+}
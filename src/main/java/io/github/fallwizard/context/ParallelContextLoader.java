@@ -0,0 +1,280 @@
+package io.github.fallwizard.context;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.parsing.ReaderEventListener;
+import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads Spring Application Context files concurrently.
+ *
+ * Files destined for a single context are parsed into scratch bean factories on
+ * separate threads and then merged (in configuration order) into the target context.
+ * Groups of files can also be loaded into sibling child contexts that share a parent
+ * and are refreshed in parallel.
+ */
+public class ParallelContextLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelContextLoader.class);
+
+    private final ExecutorService executor;
+
+    private final Map<String, Long> loadTimes = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+    private ReaderEventListener readerEventListener;
+
+    public ParallelContextLoader(int threads) {
+        this.executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("fallwizard-context-loader-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Parse the supplied context files concurrently and register their bean definitions
+     * with the target context.  The target is not refreshed.
+     * @param target Context receiving the bean definitions
+     * @param locations Normalized resource locations
+     */
+    public void loadBeanDefinitions(final GenericApplicationContext target, List<String> locations) {
+
+        List<Future<ScratchBeanFactory>> parsed = new ArrayList<>();
+
+        for (final String location : locations) {
+
+            parsed.add(executor.submit(new Callable<ScratchBeanFactory>() {
+                @Override
+                public ScratchBeanFactory call() throws Exception {
+                    return parse(target, location);
+                }
+            }));
+        }
+
+        // Merge in configuration order, so overriding behaves as it would sequentially.
+        for (Future<ScratchBeanFactory> future : parsed) {
+
+            mergeInto(target, await(future));
+        }
+    }
+
+    /**
+     * Create one child context per group, load and refresh all of them in parallel.
+     * @param parent Shared (already refreshed) parent context
+     * @param groups Normalized resource locations per child context
+     * @param initializer Applied to each child before its files are loaded
+     * @return Refreshed child contexts, in the order of the groups
+     */
+    public List<GenericXmlApplicationContext> loadChildContexts(
+            final GenericApplicationContext parent,
+            List<List<String>> groups,
+            final ApplicationContextInitializer<GenericApplicationContext> initializer) {
+
+        List<Future<GenericXmlApplicationContext>> children = new ArrayList<>();
+
+        for (final List<String> group : groups) {
+
+            children.add(executor.submit(new Callable<GenericXmlApplicationContext>() {
+                @Override
+                public GenericXmlApplicationContext call() throws Exception {
+                    return createChild(parent, group, initializer);
+                }
+            }));
+        }
+
+        List<GenericXmlApplicationContext> refreshed = new ArrayList<>();
+
+        try {
+            for (Future<GenericXmlApplicationContext> future : children) {
+
+                refreshed.add(await(future));
+            }
+        } catch (RuntimeException e) {
+            closeChildren(children, e);
+            throw e;
+        }
+
+        return refreshed;
+    }
+
+    /**
+     * @param readerEventListener Listener attached to the readers used by {@link #loadBeanDefinitions}
+     */
+    public void setReaderEventListener(ReaderEventListener readerEventListener) {
+
+        this.readerEventListener = readerEventListener;
+    }
+
+    /**
+     * @return Time (in milliseconds) it took to load each context file.
+     */
+    public Map<String, Long> getLoadTimes() {
+
+        synchronized (loadTimes) {
+            return new LinkedHashMap<>(loadTimes);
+        }
+    }
+
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * After a child failed: wait for every sibling (including those still refreshing) and close
+     * each one that refreshed, so none keeps its singletons and threads.
+     */
+    private void closeChildren(List<Future<GenericXmlApplicationContext>> children, RuntimeException failure) {
+
+        for (Future<GenericXmlApplicationContext> future : children) {
+
+            GenericXmlApplicationContext child;
+            try {
+                child = Uninterruptibles.getUninterruptibly(future);
+            } catch (ExecutionException e) {
+                if (e.getCause() != failure && e.getCause() != failure.getCause()) {
+                    logger.warn("Another child context failed to refresh", e.getCause());
+                }
+                continue;
+            }
+
+            try {
+                child.close();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to close child context {}", child.getDisplayName(), e);
+            }
+        }
+    }
+
+    private ScratchBeanFactory parse(GenericApplicationContext target, String location) {
+
+        long start = System.nanoTime();
+
+        ScratchBeanFactory scratch = new ScratchBeanFactory();
+        ContextReaders.create(scratch, target, readerEventListener).loadBeanDefinitions(location);
+
+        recordLoadTime(location, start);
+
+        return scratch;
+    }
+
+    private void mergeInto(GenericApplicationContext target, ScratchBeanFactory scratch) {
+
+        Map<String, String> renamed = new HashMap<>();
+
+        for (String beanName : scratch.getBeanDefinitionNames()) {
+
+            String targetName = beanName;
+
+            // Generated names ("com.example.Foo#0") are only unique per file.
+            if (isGenerated(beanName) && target.containsBeanDefinition(beanName)) {
+
+                targetName = BeanDefinitionReaderUtils.generateBeanName(
+                        scratch.getBeanDefinition(beanName), target);
+                renamed.put(beanName, targetName);
+            }
+
+            target.registerBeanDefinition(targetName, scratch.getBeanDefinition(beanName));
+        }
+
+        // Every alias of the file, including <alias> elements naming a bean of another file
+        for (String[] alias : scratch.aliases) {
+
+            String name = renamed.containsKey(alias[0]) ? renamed.get(alias[0]) : alias[0];
+
+            // A bean without an id is aliased by its class name only if the name is free, so the
+            // alias stays with the first such bean (of any file), as when loading sequentially.
+            if (isGenerated(alias[0]) && scratch.containsBeanDefinition(alias[0])
+                    && alias[1].equals(scratch.getBeanDefinition(alias[0]).getBeanClassName())
+                    && target.isBeanNameInUse(alias[1])) {
+                continue;
+            }
+
+            target.registerAlias(name, alias[1]);
+        }
+    }
+
+    private static boolean isGenerated(String beanName) {
+
+        return beanName.contains(BeanDefinitionReaderUtils.GENERATED_BEAN_NAME_SEPARATOR);
+    }
+
+    private GenericXmlApplicationContext createChild(
+            GenericApplicationContext parent,
+            List<String> locations,
+            ApplicationContextInitializer<GenericApplicationContext> initializer) {
+
+        GenericXmlApplicationContext child = new GenericXmlApplicationContext();
+        child.setParent(parent);
+        child.setDisplayName("fallwizard-child" + locations);
+        initializer.initialize(child);
+
+        for (String location : locations) {
+
+            long start = System.nanoTime();
+            child.load(location);
+            recordLoadTime(location, start);
+        }
+
+        long start = System.nanoTime();
+        child.refresh();
+        logger.info("Refreshed child context {} in {} ms", locations,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        return child;
+    }
+
+    private void recordLoadTime(String location, long startNanos) {
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        loadTimes.put(location, elapsed);
+        logger.info("Loaded {} in {} ms", location, elapsed);
+    }
+
+    private static <T> T await(Future<T> future) {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading application context", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to load application context", e.getCause());
+        }
+    }
+
+    /**
+     * Bean factory a file is parsed into, recording its aliases in registration order (aliases
+     * may name beans defined in other files, so they cannot be listed by bean).
+     */
+    private static final class ScratchBeanFactory extends DefaultListableBeanFactory {
+
+        private final List<String[]> aliases = new ArrayList<>();
+
+        @Override
+        public void registerAlias(String name, String alias) {
+
+            super.registerAlias(name, alias);
+            aliases.add(new String[] { name, alias });
+        }
+    }
+}
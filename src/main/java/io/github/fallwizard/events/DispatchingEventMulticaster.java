@@ -0,0 +1,36 @@
+package io.github.fallwizard.events;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+
+/**
+ * Event multicaster of a context, handing every delivery to the shared {@link EventDispatcher}.
+ */
+public class DispatchingEventMulticaster extends SimpleApplicationEventMulticaster {
+
+    private final EventDispatcher dispatcher;
+
+    public DispatchingEventMulticaster(BeanFactory beanFactory, EventDispatcher dispatcher) {
+        super(beanFactory);
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void multicastEvent(final ApplicationEvent event) {
+
+        boolean lifecycle = event instanceof ApplicationContextEvent;
+
+        for (final ApplicationListener listener : getApplicationListeners(event)) {
+            dispatcher.dispatch(listener, new Runnable() {
+                @Override
+                public void run() {
+                    invokeListener(listener, event);
+                }
+            }, lifecycle);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.fallwizard.events;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * How an ApplicationListener receives events, overriding the events configuration.
+ *
+ * Context lifecycle events (refreshed, started, stopped, closed) are always delivered on the
+ * publishing thread.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EventDispatch {
+
+    /**
+     * Deliver events on the event executor rather than on the publishing thread.
+     */
+    boolean async() default true;
+
+    /**
+     * What to do with an asynchronous event when the executor queue is full.
+     */
+    Overflow whenFull() default Overflow.CALLER_RUNS;
+
+    enum Overflow {
+        /** Drop the event for this listener (counted by fallwizard.events.dropped). */
+        DROP,
+        /** Deliver the event on the publishing thread, slowing the publisher down. */
+        CALLER_RUNS
+    }
+}
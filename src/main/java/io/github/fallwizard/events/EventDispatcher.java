@@ -0,0 +1,170 @@
+package io.github.fallwizard.events;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.github.fallwizard.configuration.EventsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded executor delivering the events of every context, shut down by Dropwizard.
+ *
+ * Publishes fallwizard.events.queue (events waiting), fallwizard.events.dropped and
+ * fallwizard.events.callerRuns (full queue), and per listener class
+ * fallwizard.events.&lt;Listener&gt;.latency and .failures.
+ */
+public class EventDispatcher implements Managed {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDispatcher.class);
+
+    private final EventsConfiguration configuration;
+
+    private final MetricRegistry metrics;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ConcurrentMap<Class<?>, ListenerDispatch> listeners = new ConcurrentHashMap<>();
+
+    private final Meter dropped;
+
+    private final Meter callerRuns;
+
+    public EventDispatcher(EventsConfiguration configuration, MetricRegistry metrics) {
+        this.configuration = configuration;
+        this.metrics = metrics;
+
+        this.executor = new ThreadPoolExecutor(configuration.getThreads(), configuration.getThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(configuration.getQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("fallwizard-events-%d").setDaemon(true).build());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.dropped = metrics.meter("fallwizard.events.dropped");
+        this.callerRuns = metrics.meter("fallwizard.events.callerRuns");
+        metrics.register("fallwizard.events.queue", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return executor.getQueue().size();
+            }
+        });
+    }
+
+    /**
+     * Deliver an event to a listener, on the executor or on the calling thread.
+     * @param listener Listener (decides how it is delivered)
+     * @param invocation Delivery of the event to the listener
+     * @param lifecycle Whether the event is a context lifecycle event (always delivered at once)
+     */
+    void dispatch(Object listener, final Runnable invocation, boolean lifecycle) {
+
+        final ListenerDispatch dispatch = getDispatch(listener);
+
+        final Runnable timed = new Runnable() {
+            @Override
+            public void run() {
+                Timer.Context timer = dispatch.latency.time();
+                try {
+                    invocation.run();
+                } catch (RuntimeException e) {
+                    dispatch.failures.mark();
+                    throw e;
+                } finally {
+                    timer.stop();
+                }
+            }
+        };
+
+        if (lifecycle || !dispatch.async) {
+            timed.run();
+            return;
+        }
+
+        // Failures of asynchronous listeners never reach the publisher, even when it runs them
+        Runnable logged = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    timed.run();
+                } catch (RuntimeException e) {
+                    logger.error("Listener {} failed", dispatch.name, e);
+                }
+            }
+        };
+
+        try {
+            executor.execute(logged);
+        } catch (RejectedExecutionException e) {
+            // Once stopped, events are delivered on the publishing thread
+            if (dispatch.whenFull == EventDispatch.Overflow.DROP && !executor.isShutdown()) {
+                dropped.mark();
+                logger.debug("Event queue full, dropped an event for {}", dispatch.name);
+            } else {
+                callerRuns.mark();
+                logged.run();
+            }
+        }
+    }
+
+    @Override
+    public void start() throws Exception {}
+
+    @Override
+    public void stop() throws Exception {
+
+        executor.shutdown();
+        if (!executor.awaitTermination(configuration.getShutdownTimeout().toNanoseconds(), TimeUnit.NANOSECONDS)) {
+            int remaining = executor.shutdownNow().size();
+            logger.warn("Events not delivered within {}, dropped {} queued events",
+                    configuration.getShutdownTimeout(), remaining);
+        }
+    }
+
+    private ListenerDispatch getDispatch(Object listener) {
+
+        Class<?> listenerClass = ClassUtils.getUserClass(listener);
+        ListenerDispatch dispatch = listeners.get(listenerClass);
+        if (dispatch == null) {
+            dispatch = new ListenerDispatch(listenerClass);
+            ListenerDispatch existing = listeners.putIfAbsent(listenerClass, dispatch);
+            if (existing != null) {
+                dispatch = existing;
+            }
+        }
+        return dispatch;
+    }
+
+    private class ListenerDispatch {
+
+        private final String name;
+
+        private final boolean async;
+
+        private final EventDispatch.Overflow whenFull;
+
+        private final Timer latency;
+
+        private final Meter failures;
+
+        ListenerDispatch(Class<?> listenerClass) {
+
+            EventDispatch annotation = AnnotationUtils.findAnnotation(listenerClass, EventDispatch.class);
+            this.name = ClassUtils.getShortName(listenerClass);
+            this.async = annotation == null ? configuration.isAsync() : annotation.async();
+            this.whenFull = annotation == null ? configuration.getWhenFull() : annotation.whenFull();
+            this.latency = metrics.timer(MetricRegistry.name("fallwizard.events", name, "latency"));
+            this.failures = metrics.meter(MetricRegistry.name("fallwizard.events", name, "failures"));
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.fallwizard.executor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.InstrumentedExecutorService;
+import com.codahale.metrics.InstrumentedScheduledExecutorService;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import io.github.fallwizard.configuration.ExecutorsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Finds the executor beans as they are created, publishes the state of their thread pools
+ * (pool size, active threads, queue depth, saturation) as "fallwizard.executors.&lt;bean&gt;.pool.*"
+ * gauges and keeps them for {@link ManagedExecutors} to shut down.
+ *
+ * The processor is shared by the applicationContext and the child contexts, so pools are told
+ * apart by identity: a bean named like one of another context, or a further instance of a
+ * prototype executor, is kept as well and publishes its metrics as "&lt;bean&gt;#1", "&lt;bean&gt;#2"...
+ * A destroyed bean (closed context, refreshed scope) gives its pool and metric names back.
+ *
+ * Beans listed in the configuration are replaced by virtual thread executors and/or by
+ * InstrumentedExecutorServices.
+ */
+public class ExecutorBeanPostProcessor implements DestructionAwareBeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorBeanPostProcessor.class);
+
+    private final MetricRegistry registry;
+
+    private final Set<String> instrument;
+
+    private final Set<String> virtualThreads;
+
+    // Metric names by pool
+    private final Map<ExecutorService, String> executors = new IdentityHashMap<>();
+
+    // The values of executors (IdentityHashMap.containsValue compares them by identity)
+    private final Set<String> names = new HashSet<>();
+
+    // Pools by the bean they were found in (which may be replaced, so not the pool itself)
+    private final Map<Object, ExecutorService> beans = new IdentityHashMap<>();
+
+    public ExecutorBeanPostProcessor(MetricRegistry registry, ExecutorsConfiguration configuration) {
+        this.registry = registry;
+        this.instrument = new HashSet<>(configuration.getInstrument());
+        this.virtualThreads = new HashSet<>(configuration.getVirtualThreads());
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+        if (virtualThreads.contains(beanName)) {
+            bean = toVirtualThreads(bean, beanName);
+        }
+
+        ExecutorService executor = executorOf(bean);
+        if (executor == null) {
+            return bean;
+        }
+
+        String name = nameOf(executor, beanName);
+        if (name == null) {
+            // Already seen, e.g. a pool shared by two beans
+            return bean;
+        }
+
+        if (executor instanceof ThreadPoolExecutor) {
+            registerGauges(name, (ThreadPoolExecutor) executor);
+        }
+
+        if (instrument.contains(beanName) && bean instanceof ExecutorService) {
+            String prefix = MetricRegistry.name("fallwizard", "executors", name);
+            bean = bean instanceof ScheduledExecutorService
+                    ? new InstrumentedScheduledExecutorService((ScheduledExecutorService) bean, registry, prefix)
+                    : new InstrumentedExecutorService((ExecutorService) bean, registry, prefix);
+        }
+
+        synchronized (executors) {
+            beans.put(bean, executor);
+        }
+        return bean;
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+
+        final String name;
+        synchronized (executors) {
+            ExecutorService executor = beans.remove(bean);
+            if (executor == null) {
+                return;
+            }
+            name = executors.remove(executor);
+            names.remove(name);
+        }
+
+        final String prefix = MetricRegistry.name("fallwizard", "executors", name, "pool") + ".";
+        registry.removeMatching(new MetricFilter() {
+            @Override
+            public boolean matches(String metricName, Metric metric) {
+                return metricName.startsWith(prefix);
+            }
+        });
+    }
+
+    /**
+     * @return The executors found so far, with the name their metrics are published under
+     */
+    public Map<ExecutorService, String> getExecutors() {
+        synchronized (executors) {
+            return new IdentityHashMap<>(executors);
+        }
+    }
+
+    /**
+     * Keep a pool and choose the name of its metrics.
+     * @return The bean name, qualified if another pool uses it, or null if the pool is known
+     */
+    private String nameOf(ExecutorService executor, String beanName) {
+
+        synchronized (executors) {
+            if (executors.containsKey(executor)) {
+                return null;
+            }
+            String name = beanName;
+            for (int i = 1; !names.add(name); i++) {
+                name = beanName + "#" + i;
+            }
+            if (!name.equals(beanName)) {
+                logger.info("Another pool is named {} (a bean of another context or a prototype),"
+                        + " publishing the metrics of this one as {}", beanName, name);
+            }
+            executors.put(executor, name);
+            return name;
+        }
+    }
+
+    private Object toVirtualThreads(Object bean, String beanName) {
+
+        if (!(bean instanceof ExecutorService || bean instanceof ThreadPoolTaskExecutor)) {
+            logger.warn("Bean {} is not an ExecutorService or ThreadPoolTaskExecutor, not using virtual threads", beanName);
+            return bean;
+        }
+
+        ExecutorService virtual = VirtualThreads.newExecutor();
+        if (virtual == null) {
+            logger.warn("Virtual threads need JDK 21 or later, keeping the thread pool of {}", beanName);
+            return bean;
+        }
+
+        // The replaced pool has not run anything yet
+        if (bean instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) bean).shutdown();
+            logger.info("Executor {} now runs every task on its own virtual thread", beanName);
+            return new ConcurrentTaskExecutor(virtual);
+        }
+        ((ExecutorService) bean).shutdown();
+        logger.info("Executor {} now runs every task on its own virtual thread", beanName);
+        return virtual;
+    }
+
+    private static ExecutorService executorOf(Object bean) {
+
+        try {
+            if (bean instanceof ExecutorService) {
+                return (ExecutorService) bean;
+            }
+            if (bean instanceof ThreadPoolTaskExecutor) {
+                return ((ThreadPoolTaskExecutor) bean).getThreadPoolExecutor();
+            }
+            if (bean instanceof ThreadPoolTaskScheduler) {
+                return ((ThreadPoolTaskScheduler) bean).getScheduledExecutor();
+            }
+            if (bean instanceof ConcurrentTaskExecutor
+                    && ((ConcurrentTaskExecutor) bean).getConcurrentExecutor() instanceof ExecutorService) {
+                return (ExecutorService) ((ConcurrentTaskExecutor) bean).getConcurrentExecutor();
+            }
+        } catch (IllegalStateException e) {
+            // Not initialized
+            return null;
+        }
+        return null;
+    }
+
+    private void registerGauges(String name, final ThreadPoolExecutor pool) {
+
+        String prefix = MetricRegistry.name("fallwizard", "executors", name, "pool");
+
+        Map<String, Metric> gauges = new LinkedHashMap<>();
+        gauges.put("size", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return pool.getPoolSize();
+            }
+        });
+        gauges.put("active", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return pool.getActiveCount();
+            }
+        });
+        gauges.put("max", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return pool.getMaximumPoolSize();
+            }
+        });
+        gauges.put("queue", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return pool.getQueue().size();
+            }
+        });
+        gauges.put("queueRemaining", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return pool.getQueue().remainingCapacity();
+            }
+        });
+        gauges.put("completed", new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return pool.getCompletedTaskCount();
+            }
+        });
+        gauges.put("saturation", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(pool.getActiveCount(), pool.getMaximumPoolSize());
+            }
+        });
+
+        for (Map.Entry<String, Metric> gauge : gauges.entrySet()) {
+            registry.register(MetricRegistry.name(prefix, gauge.getKey()), gauge.getValue());
+        }
+    }
+}
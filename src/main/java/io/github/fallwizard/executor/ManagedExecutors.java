@@ -0,0 +1,50 @@
+package io.github.fallwizard.executor;
+
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuts the executor beans down when Dropwizard stops: no new tasks are accepted, queued
+ * tasks may finish until the shutdown timeout, then the remaining ones are dropped.
+ */
+public class ManagedExecutors implements Managed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedExecutors.class);
+
+    private final ExecutorBeanPostProcessor executors;
+
+    private final Duration shutdownTimeout;
+
+    public ManagedExecutors(ExecutorBeanPostProcessor executors, Duration shutdownTimeout) {
+        this.executors = executors;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public void start() throws Exception {}
+
+    @Override
+    public void stop() throws Exception {
+
+        Map<ExecutorService, String> pools = executors.getExecutors();
+        for (ExecutorService pool : pools.keySet()) {
+            pool.shutdown();
+        }
+
+        long deadline = System.nanoTime() + shutdownTimeout.toNanoseconds();
+        for (Map.Entry<ExecutorService, String> pool : pools.entrySet()) {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            if (!pool.getKey().awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                int dropped = pool.getKey().shutdownNow().size();
+                logger.warn("Executor {} did not finish within {}, dropped {} queued tasks",
+                        pool.getValue(), shutdownTimeout, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.fallwizard.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual thread executors, which only exist on JDK 21 and later.
+ */
+public final class VirtualThreads {
+
+    private static final Method NEW_EXECUTOR = findFactoryMethod();
+
+    private VirtualThreads() {}
+
+    public static boolean isAvailable() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * @return A new virtual thread per task executor, or null on JVMs without virtual threads
+     */
+    public static ExecutorService newExecutor() {
+
+        if (NEW_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+
+    private static Method findFactoryMethod() {
+
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.fallwizard.health;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.util.Duration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A health check that runs its delegate on a schedule and answers with the latest result.
+ *
+ * Each run executes on the worker pool and is abandoned (and reported unhealthy) once it
+ * exceeds the timeout; a run is skipped while the previous one is still executing.  Results
+ * carry their age, and become unhealthy when no run has completed for several intervals.
+ */
+public class CachedHealthCheck extends HealthCheck implements Runnable {
+
+    private static final int STALE_INTERVALS = 3;
+
+    private final String name;
+
+    private final HealthCheck delegate;
+
+    private final Duration interval;
+
+    private final Duration timeout;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService workers;
+
+    private final Timer durations;
+
+    private final Meter timeouts;
+
+    private volatile Result latest;
+
+    private volatile long completedAt;
+
+    private volatile Future<?> running;
+
+    public CachedHealthCheck(String name, HealthCheck delegate, Duration interval, Duration timeout,
+                             ScheduledExecutorService scheduler, ExecutorService workers, MetricRegistry registry) {
+        this.name = name;
+        this.delegate = delegate;
+        this.interval = interval;
+        this.timeout = timeout;
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.durations = registry.timer(MetricRegistry.name("fallwizard", "healthchecks", name, "duration"));
+        this.timeouts = registry.meter(MetricRegistry.name("fallwizard", "healthchecks", name, "timeouts"));
+
+        String ageName = MetricRegistry.name("fallwizard", "healthchecks", name, "age");
+        registry.remove(ageName);
+        registry.register(ageName, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return completedAt == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - completedAt);
+            }
+        });
+    }
+
+    /**
+     * Start running the delegate at the configured interval.
+     */
+    public void schedule() {
+        scheduler.scheduleWithFixedDelay(this, 0, interval.toNanoseconds(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+
+        Future<?> previous = running;
+        if (previous != null && !previous.isDone()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final AtomicBoolean recorded = new AtomicBoolean();
+
+        final Future<?> execution = workers.submit(new Runnable() {
+            @Override
+            public void run() {
+                Result result = delegate.execute();
+                if (recorded.compareAndSet(false, true)) {
+                    record(result, start);
+                }
+            }
+        });
+        running = execution;
+
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (!execution.isDone() && recorded.compareAndSet(false, true)) {
+                    execution.cancel(true);
+                    timeouts.mark();
+                    record(Result.unhealthy("Timed out after " + timeout), start);
+                }
+            }
+        }, timeout.toNanoseconds(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected Result check() throws Exception {
+
+        Result result = latest;
+        if (result == null) {
+            return Result.unhealthy("Not checked yet");
+        }
+
+        long age = System.nanoTime() - completedAt;
+        String ageDescription = "checked " + TimeUnit.NANOSECONDS.toMillis(age) + " ms ago";
+
+        if (age > interval.toNanoseconds() * STALE_INTERVALS + timeout.toNanoseconds()) {
+            return Result.unhealthy("Stale result, " + ageDescription);
+        }
+
+        String message = result.getMessage();
+        if (message == null && result.getError() != null) {
+            message = String.valueOf(result.getError());
+        }
+        message = (message == null ? "" : message + ", ") + ageDescription;
+        return result.isHealthy() ? Result.healthy(message) : Result.unhealthy(message);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HealthCheck getDelegate() {
+        return delegate;
+    }
+
+    private void record(Result result, long start) {
+
+        durations.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        latest = result;
+        completedAt = System.nanoTime();
+    }
+}
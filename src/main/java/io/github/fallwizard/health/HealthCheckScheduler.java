@@ -0,0 +1,76 @@
+package io.github.fallwizard.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.lifecycle.ServerLifecycleListener;
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.configuration.AsyncHealthChecksConfiguration;
+import org.eclipse.jetty.server.Server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Wraps health checks in {@link CachedHealthCheck}s sharing one scheduler thread and a bounded
+ * worker pool, both managed by the Dropwizard lifecycle.
+ *
+ * The checks start running once the server has started, after the Managed beans they may
+ * depend on; until then they answer "Not checked yet".
+ */
+public class HealthCheckScheduler implements ServerLifecycleListener {
+
+    private final AsyncHealthChecksConfiguration configuration;
+
+    private final List<CachedHealthCheck> pending = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService workers;
+
+    private boolean started;
+
+    public HealthCheckScheduler(AsyncHealthChecksConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @param name Health check name
+     * @param healthCheck Health check to run in the background
+     * @param environment Dropwizard Environment
+     * @return Scheduled health check serving the latest result
+     */
+    public synchronized CachedHealthCheck schedule(String name, HealthCheck healthCheck, Environment environment) {
+
+        if (scheduler == null) {
+            scheduler = environment.lifecycle().scheduledExecutorService("fallwizard-health-check-scheduler-%d")
+                    .threads(1)
+                    .build();
+            workers = environment.lifecycle().executorService("fallwizard-health-check-%d")
+                    .minThreads(configuration.getThreads())
+                    .maxThreads(configuration.getThreads())
+                    .build();
+            environment.lifecycle().addServerLifecycleListener(this);
+        }
+
+        CachedHealthCheck cached = new CachedHealthCheck(name, healthCheck,
+                configuration.getInterval(name), configuration.getTimeout(name),
+                scheduler, workers, environment.metrics());
+        if (started) {
+            cached.schedule();
+        } else {
+            pending.add(cached);
+        }
+        return cached;
+    }
+
+    @Override
+    public synchronized void serverStarted(Server server) {
+
+        started = true;
+        for (CachedHealthCheck cached : pending) {
+            cached.schedule();
+        }
+        pending.clear();
+    }
+}
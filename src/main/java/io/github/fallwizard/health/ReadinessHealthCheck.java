@@ -0,0 +1,48 @@
+package io.github.fallwizard.health;
+
+import com.codahale.metrics.health.HealthCheck;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Health check telling load balancers whether this instance should receive traffic.
+ * Registered as "readiness"; turns unhealthy, with the reason, while the service is not ready.
+ */
+public class ReadinessHealthCheck extends HealthCheck {
+
+    public static final String NAME = "readiness";
+
+    private final AtomicReference<String> notReadyReason = new AtomicReference<>();
+
+    public void setReady() {
+        this.notReadyReason.set(null);
+    }
+
+    /**
+     * @param reason Why the service should not receive traffic
+     */
+    public void setNotReady(String reason) {
+        this.notReadyReason.set(reason);
+    }
+
+    /**
+     * Become ready, unless the service became not ready for another reason since
+     * (e.g. it started shutting down while warming up).
+     * @param reason The reason given to {@link #setNotReady(String)}
+     * @return true if the service is now ready
+     */
+    public boolean clearNotReady(String reason) {
+        return notReadyReason.compareAndSet(reason, null) || isReady();
+    }
+
+    public boolean isReady() {
+        return notReadyReason.get() == null;
+    }
+
+    @Override
+    protected Result check() throws Exception {
+
+        String reason = notReadyReason.get();
+        return reason == null ? Result.healthy() : Result.unhealthy(reason);
+    }
+}
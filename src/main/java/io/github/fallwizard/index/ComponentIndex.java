@@ -0,0 +1,89 @@
+package io.github.fallwizard.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The component classes listed in the META-INF/fallwizard.components files (written at compile
+ * time by {@link ComponentIndexProcessor}) of every jar and directory on the classpath.
+ *
+ * Each line maps a class name to the comma separated stereotypes it was indexed for, e.g.
+ * <pre>com.example.Sprockets=org.springframework.stereotype.Component</pre>
+ */
+public class ComponentIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+    public static final String LOCATION = "META-INF/fallwizard.components";
+
+    private final Map<String, String> components;
+
+    private final int files;
+
+    ComponentIndex(Map<String, String> components, int files) {
+        this.components = Collections.unmodifiableMap(components);
+        this.files = files;
+    }
+
+    /**
+     * @param classLoader Class loader providing the index files
+     * @return The merged index, or null if no index file is on the classpath
+     */
+    public static ComponentIndex load(ClassLoader classLoader) throws IOException {
+
+        Map<String, String> components = new TreeMap<>();
+        int files = 0;
+
+        Enumeration<URL> urls = classLoader.getResources(LOCATION);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            Properties entries = new Properties();
+            try (InputStream in = url.openStream()) {
+                entries.load(in);
+            }
+            for (String className : entries.stringPropertyNames()) {
+                components.put(className, entries.getProperty(className));
+            }
+            files++;
+            logger.debug("Read {} components from {}", entries.size(), url);
+        }
+
+        return files == 0 ? null : new ComponentIndex(components, files);
+    }
+
+    /**
+     * @return Indexed class names mapped to their stereotypes
+     */
+    public Map<String, String> getComponents() {
+        return components;
+    }
+
+    /**
+     * @param className Class name
+     * @return Path of the class file, relative to the classpath root
+     */
+    public static String classFilePath(String className) {
+        return ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+    }
+
+    public int size() {
+        return components.size();
+    }
+
+    /**
+     * @return Number of index files merged
+     */
+    public int getFiles() {
+        return files;
+    }
+}
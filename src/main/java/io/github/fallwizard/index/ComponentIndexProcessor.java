@@ -0,0 +1,173 @@
+package io.github.fallwizard.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor writing the {@link ComponentIndex} of a compilation unit: every class
+ * annotated, directly or through a meta-annotation such as @Service or @Configuration, with
+ * one of the annotations Spring's default component scan filters include.
+ *
+ * Registered through META-INF/services, so it runs whenever Fallwizard is on the compile
+ * classpath; nothing is written if the sources hold no components.  The index already in the
+ * output directory is merged in (as an incremental compile only processes the changed sources),
+ * dropping the classes compiled again or removed.
+ */
+@SupportedAnnotationTypes("*")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    static final List<String> STEREOTYPES = Arrays.asList(
+            "org.springframework.stereotype.Component",
+            "javax.annotation.ManagedBean",
+            "javax.inject.Named");
+
+    private final Map<String, Set<String>> components = new TreeMap<>();
+
+    // Binary names of the classes compiled in this run, components or not
+    private final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (Element element : roundEnv.getRootElements()) {
+                index(element);
+            }
+        }
+
+        // Never claim the annotations, other processors may want them too.
+        return false;
+    }
+
+    private void index(Element element) {
+
+        if (!(element.getKind() == ElementKind.CLASS
+                && (element.getEnclosingElement().getKind() == ElementKind.PACKAGE
+                    || element.getModifiers().contains(Modifier.STATIC)))) {
+            return;
+        }
+
+        String className = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+        processed.add(className);
+
+        Set<String> stereotypes = new TreeSet<>();
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            collectStereotypes((TypeElement) annotation.getAnnotationType().asElement(),
+                    stereotypes, new HashSet<String>());
+        }
+        if (!stereotypes.isEmpty()) {
+            components.put(className, stereotypes);
+        }
+
+        for (Element enclosed : element.getEnclosedElements()) {
+            index(enclosed);
+        }
+    }
+
+    private void collectStereotypes(TypeElement annotationType, Set<String> stereotypes, Set<String> visited) {
+
+        String name = annotationType.getQualifiedName().toString();
+        if (!visited.add(name)) {
+            return;
+        }
+        if (STEREOTYPES.contains(name)) {
+            stereotypes.add(name);
+            return;
+        }
+        if (name.startsWith("java.lang.annotation.")) {
+            return;
+        }
+        for (AnnotationMirror meta : annotationType.getAnnotationMirrors()) {
+            collectStereotypes((TypeElement) meta.getAnnotationType().asElement(), stereotypes, visited);
+        }
+    }
+
+    private void writeIndex() {
+
+        boolean existing = mergePreviousIndex();
+        if (components.isEmpty() && !existing) {
+            return;
+        }
+
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+
+            try (Writer out = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Set<String>> component : components.entrySet()) {
+                    out.write(component.getKey());
+                    out.write('=');
+                    String separator = "";
+                    for (String stereotype : component.getValue()) {
+                        out.write(separator);
+                        out.write(stereotype);
+                        separator = ",";
+                    }
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write " + ComponentIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add the components of the index left in the output directory by a previous compilation,
+     * except the classes compiled in this run (indexed again if still components) and the
+     * classes that do not exist anymore.
+     * @return true if there was a previous index
+     */
+    private boolean mergePreviousIndex() {
+
+        Properties entries = new Properties();
+        try {
+            FileObject previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.LOCATION);
+            try (InputStream in = previous.openInputStream()) {
+                entries.load(in);
+            }
+        } catch (IOException e) {
+            // No previous index (or it cannot be read, then it is rewritten from this run)
+            return false;
+        }
+
+        for (String className : entries.stringPropertyNames()) {
+            if (processed.contains(className) || components.containsKey(className)
+                    || processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) == null) {
+                continue;
+            }
+            components.put(className, new TreeSet<>(Arrays.asList(entries.getProperty(className).split(","))));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.fallwizard.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.PathMatcher;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the class file patterns component scanning asks for (classpath*:com/example/**&#47;*.class)
+ * from a {@link ComponentIndex} rather than walking every jar on the classpath.  All other
+ * locations are resolved as an application context would.
+ *
+ * The index only holds the classes the default scan filters include, so it must only be given
+ * to a scanner using those filters (never set as the resource loader of a context: JPA entity
+ * scanning, repository scanning or a scan with custom filters would miss their classes).
+ */
+public class IndexedResourcePatternResolver implements ResourcePatternResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexedResourcePatternResolver.class);
+
+    private final ComponentIndex index;
+
+    private final ClassLoader classLoader;
+
+    private final ResourcePatternResolver delegate;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public IndexedResourcePatternResolver(ComponentIndex index, ClassLoader classLoader) {
+        this(index, classLoader, new PathMatchingResourcePatternResolver(new DefaultResourceLoader(classLoader)));
+    }
+
+    /**
+     * @param index Component index
+     * @param classLoader Class loader reading the class files
+     * @param delegate Resolves every location that is not a class file pattern
+     */
+    public IndexedResourcePatternResolver(ComponentIndex index, ClassLoader classLoader, ResourcePatternResolver delegate) {
+        this.index = index;
+        this.classLoader = classLoader;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Resource[] getResources(String locationPattern) throws IOException {
+
+        if (!locationPattern.startsWith(CLASSPATH_ALL_URL_PREFIX)
+                || !locationPattern.endsWith(ClassUtils.CLASS_FILE_SUFFIX)) {
+            return delegate.getResources(locationPattern);
+        }
+
+        String pattern = locationPattern.substring(CLASSPATH_ALL_URL_PREFIX.length());
+        List<Resource> resources = new ArrayList<>();
+        for (String className : index.getComponents().keySet()) {
+            String path = ComponentIndex.classFilePath(className);
+            if (pathMatcher.match(pattern, path)) {
+                resources.add(new ClassPathResource(path, classLoader));
+            }
+        }
+
+        logger.debug("Resolved {} from the component index: {} classes", locationPattern, resources.size());
+        return resources.toArray(new Resource[resources.size()]);
+    }
+
+    @Override
+    public Resource getResource(String location) {
+        return delegate.getResource(location);
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.fallwizard.jackson;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ObjectReaders and ObjectWriters of the shared ObjectMapper, created once per type.
+ *
+ * Readers and writers are immutable and thread-safe; reusing them saves resolving the root
+ * (de)serializer and copying the configuration on every call.  Inject it into Spring beans
+ * (it is a resolvable dependency when the Jackson profile is enabled).
+ */
+public class JsonCodecs {
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JsonCodecs(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        return reader(objectMapper.constructType(type));
+    }
+
+    public ObjectReader reader(TypeReference<?> type) {
+        return reader(objectMapper.getTypeFactory().constructType(type));
+    }
+
+    public ObjectReader reader(JavaType type) {
+
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = objectMapper.reader(type);
+            ObjectReader existing = readers.putIfAbsent(type, reader);
+            if (existing != null) {
+                reader = existing;
+            }
+        }
+        return reader;
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writer(objectMapper.constructType(type));
+    }
+
+    public ObjectWriter writer(TypeReference<?> type) {
+        return writer(objectMapper.getTypeFactory().constructType(type));
+    }
+
+    public ObjectWriter writer(JavaType type) {
+
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            writer = objectMapper.writerFor(type);
+            ObjectWriter existing = writers.putIfAbsent(type, writer);
+            if (existing != null) {
+                writer = existing;
+            }
+        }
+        return writer;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
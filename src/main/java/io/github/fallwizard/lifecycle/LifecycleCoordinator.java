@@ -0,0 +1,429 @@
+package io.github.fallwizard.lifecycle;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
+import io.github.fallwizard.configuration.ManagedLifecycleConfiguration;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Starts and stops the Managed and LifeCycle beans in dependency order, registered with
+ * Dropwizard as a single Managed object.
+ *
+ * The beans are grouped in levels: a bean's level is one more than the highest level of the
+ * managed beans it depends on (directly or through other beans).  Levels start one after the
+ * other, the beans of a level concurrently; stopping runs the levels in reverse.  The timeouts
+ * apply to each bean, from the moment a thread starts (or stops) it.  A bean that fails or
+ * times out while starting fails the startup: the other beans of its level still waiting for
+ * a thread are dropped, the running ones may finish, then every started bean is stopped.
+ */
+public class LifecycleCoordinator implements Managed {
+
+    private static final Logger logger = LoggerFactory.getLogger(LifecycleCoordinator.class);
+
+    private final ManagedLifecycleConfiguration configuration;
+
+    private final Map<ConfigurableListableBeanFactory, Map<String, Node>> nodes = new IdentityHashMap<>();
+
+    private final List<Node> order = new ArrayList<>();
+
+    private MetricRegistry registry;
+
+    private boolean registered;
+
+    public LifecycleCoordinator(ManagedLifecycleConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @param beanName Name of the bean
+     * @param beanFactory Bean factory defining the bean
+     * @param managed The bean
+     */
+    public synchronized void add(String beanName, ConfigurableListableBeanFactory beanFactory, Managed managed) {
+
+        Map<String, Node> factoryNodes = nodes.get(beanFactory);
+        if (factoryNodes == null) {
+            factoryNodes = new HashMap<>();
+            nodes.put(beanFactory, factoryNodes);
+        }
+        if (!factoryNodes.containsKey(beanName)) {
+            Node node = new Node(beanName, beanFactory, managed);
+            factoryNodes.put(beanName, node);
+            order.add(node);
+        }
+    }
+
+    /**
+     * @param beanName Name of the bean
+     * @param beanFactory Bean factory defining the bean
+     * @param lifeCycle The bean
+     */
+    public void add(String beanName, ConfigurableListableBeanFactory beanFactory, LifeCycle lifeCycle) {
+        add(beanName, beanFactory, new LifeCycleManaged(lifeCycle));
+    }
+
+    /**
+     * Register with the Dropwizard lifecycle (once, whichever registrar finishes first).
+     * @param environment Dropwizard Environment
+     */
+    public synchronized void manage(Environment environment) {
+
+        if (!registered) {
+            registry = environment.metrics();
+            environment.lifecycle().manage(this);
+            registered = true;
+        }
+    }
+
+    @Override
+    public void start() throws Exception {
+
+        List<List<Node>> levels = levels();
+        logger.info("Starting {} managed beans in {} levels", order.size(), levels.size());
+
+        ExecutorService executor = createExecutor();
+        Timer.Context total = registry.timer(MetricRegistry.name("fallwizard", "lifecycle", "start")).time();
+        try {
+            for (List<Node> level : levels) {
+                Map<Action, Future<?>> starts = new LinkedHashMap<>();
+                for (Node node : level) {
+                    Action start = new Action(node, true);
+                    starts.put(start, executor.submit(start));
+                }
+                try {
+                    for (Map.Entry<Action, Future<?>> start : starts.entrySet()) {
+                        await(start.getKey(), start.getValue(), configuration.getStartTimeout());
+                    }
+                } catch (Exception e) {
+                    settle(starts, configuration.getStartTimeout());
+                    logger.error("Managed beans failed to start, stopping the ones already started");
+                    stop();
+                    throw e;
+                }
+            }
+        } finally {
+            total.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void stop() throws Exception {
+
+        List<List<Node>> levels = levels();
+        Collections.reverse(levels);
+
+        ExecutorService executor = createExecutor();
+        Timer.Context total = registry.timer(MetricRegistry.name("fallwizard", "lifecycle", "stop")).time();
+        try {
+            for (List<Node> level : levels) {
+                Map<Action, Future<?>> stops = new LinkedHashMap<>();
+                for (Node node : level) {
+                    if (node.started) {
+                        Action stop = new Action(node, false);
+                        stops.put(stop, executor.submit(stop));
+                    }
+                }
+                for (Map.Entry<Action, Future<?>> stop : stops.entrySet()) {
+                    try {
+                        await(stop.getKey(), stop.getValue(), configuration.getStopTimeout());
+                    } catch (Exception e) {
+                        logger.warn("Could not stop managed bean {}", stop.getKey().node.beanName, e);
+                    }
+                }
+            }
+        } finally {
+            total.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * After a bean of a level failed to start: drop the starts still waiting for a thread, and
+     * let the running ones finish (within their timeout), so the beans that started are known
+     * and stopped.
+     */
+    private static void settle(Map<Action, Future<?>> starts, Duration timeout) {
+
+        for (Map.Entry<Action, Future<?>> start : starts.entrySet()) {
+            if (start.getKey().claimed.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                await(start.getKey(), start.getValue(), timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                start.getValue().cancel(true);
+            } catch (TimeoutException e) {
+                logger.warn("Managed bean {} was still starting, it may not be stopped", start.getKey().node.beanName);
+            } catch (Exception e) {
+                // the failure of this bean, or of the one being reported
+            }
+        }
+    }
+
+    /**
+     * @return The managed beans grouped by dependency level, lowest first
+     */
+    public synchronized List<List<Node>> levels() {
+
+        Map<Node, Integer> levelOf = new HashMap<>();
+        List<List<Node>> levels = new ArrayList<>();
+        for (Node node : order) {
+            int level = level(node, levelOf, new HashSet<Node>());
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<Node>());
+            }
+            levels.get(level).add(node);
+        }
+        return levels;
+    }
+
+    private int level(Node node, Map<Node, Integer> levelOf, Set<Node> visiting) {
+
+        Integer known = levelOf.get(node);
+        if (known != null) {
+            return known;
+        }
+        if (!visiting.add(node)) {
+            logger.warn("Circular dependency involving managed bean {}, ordering may be arbitrary", node.beanName);
+            return 0;
+        }
+
+        int level = 0;
+        for (Node dependency : managedDependencies(node)) {
+            level = Math.max(level, level(dependency, levelOf, visiting) + 1);
+        }
+        visiting.remove(node);
+        levelOf.put(node, level);
+        return level;
+    }
+
+    /**
+     * The managed beans a bean depends on, directly or through beans that are not managed.
+     */
+    private Set<Node> managedDependencies(Node node) {
+
+        Set<Node> result = new HashSet<>();
+        Map<ConfigurableListableBeanFactory, Set<String>> visited = new IdentityHashMap<>();
+        collectDependencies(node.beanFactory, node.beanName, node, visited, result);
+        return result;
+    }
+
+    private void collectDependencies(ConfigurableListableBeanFactory beanFactory, String beanName, Node origin,
+                                     Map<ConfigurableListableBeanFactory, Set<String>> visited, Set<Node> result) {
+
+        for (String dependency : beanFactory.getDependenciesForBean(beanName)) {
+
+            ConfigurableListableBeanFactory owner = owner(beanFactory, dependency);
+            Set<String> ownerVisited = visited.get(owner);
+            if (ownerVisited == null) {
+                ownerVisited = new HashSet<>();
+                visited.put(owner, ownerVisited);
+            }
+            if (!ownerVisited.add(dependency)) {
+                continue;
+            }
+
+            Map<String, Node> ownerNodes = nodes.get(owner);
+            Node managed = ownerNodes == null ? null : ownerNodes.get(dependency);
+            if (managed != null && managed != origin) {
+                result.add(managed);
+            } else {
+                collectDependencies(owner, dependency, origin, visited, result);
+            }
+        }
+    }
+
+    /**
+     * The factory that actually holds a bean, walking up to the parent contexts.
+     */
+    private ConfigurableListableBeanFactory owner(ConfigurableListableBeanFactory beanFactory, String beanName) {
+
+        ConfigurableListableBeanFactory current = beanFactory;
+        while (!current.containsLocalBean(beanName)) {
+            BeanFactory parent = current.getParentBeanFactory();
+            if (!(parent instanceof ConfigurableListableBeanFactory)) {
+                return beanFactory;
+            }
+            current = (ConfigurableListableBeanFactory) parent;
+        }
+        return current;
+    }
+
+    private ExecutorService createExecutor() {
+
+        return Executors.newFixedThreadPool(configuration.getThreads(),
+                new ThreadFactoryBuilder().setNameFormat("fallwizard-lifecycle-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Wait for a bean to start or stop, at most the timeout from the moment it began (it may
+     * first wait for a thread of the pool).
+     */
+    private static void await(Action action, Future<?> future, Duration timeout) throws Exception {
+
+        long timeoutNanos = timeout.toNanoseconds();
+        try {
+            while (true) {
+                long wait = action.running ? action.begun + timeoutNanos - System.nanoTime() : timeoutNanos;
+                try {
+                    future.get(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    if (action.running && System.nanoTime() - action.begun >= timeoutNanos) {
+                        future.cancel(true);
+                        throw new TimeoutException("Managed bean " + action.node.beanName + " did not "
+                                + (action.start ? "start" : "stop") + " within " + timeout);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Starts or stops one bean, recording when it began.
+     */
+    private final class Action implements Callable<Void> {
+
+        private final Node node;
+
+        private final boolean start;
+
+        // Taken by the thread running the action, or by settle() to drop it before it runs
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private volatile long begun;
+
+        private volatile boolean running;
+
+        Action(Node node, boolean start) {
+            this.node = node;
+            this.start = start;
+        }
+
+        @Override
+        public Void call() throws Exception {
+
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            begun = System.nanoTime();
+            running = true;
+            if (start) {
+                node.start(registry);
+            } else {
+                node.stop(registry);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A managed bean and its state.
+     */
+    public static final class Node {
+
+        private final String beanName;
+
+        private final ConfigurableListableBeanFactory beanFactory;
+
+        private final Managed managed;
+
+        private volatile boolean started;
+
+        Node(String beanName, ConfigurableListableBeanFactory beanFactory, Managed managed) {
+            this.beanName = beanName;
+            this.beanFactory = beanFactory;
+            this.managed = managed;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public boolean isStarted() {
+            return started;
+        }
+
+        void start(MetricRegistry registry) throws Exception {
+
+            Timer.Context context = registry.timer(MetricRegistry.name("fallwizard", "lifecycle", beanName, "start")).time();
+            try {
+                managed.start();
+                started = true;
+            } finally {
+                logger.info("Started managed bean {} in {} ms", beanName, context.stop() / 1000000);
+            }
+        }
+
+        void stop(MetricRegistry registry) throws Exception {
+
+            Timer.Context context = registry.timer(MetricRegistry.name("fallwizard", "lifecycle", beanName, "stop")).time();
+            try {
+                started = false;
+                managed.stop();
+            } finally {
+                logger.info("Stopped managed bean {} in {} ms", beanName, context.stop() / 1000000);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return beanName;
+        }
+    }
+
+    /**
+     * Drives a Jetty LifeCycle bean as a Managed object.
+     */
+    private static final class LifeCycleManaged implements Managed {
+
+        private final LifeCycle lifeCycle;
+
+        LifeCycleManaged(LifeCycle lifeCycle) {
+            this.lifeCycle = lifeCycle;
+        }
+
+        @Override
+        public void start() throws Exception {
+            lifeCycle.start();
+        }
+
+        @Override
+        public void stop() throws Exception {
+            lifeCycle.stop();
+        }
+    }
+}
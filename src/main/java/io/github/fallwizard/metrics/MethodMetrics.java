@@ -0,0 +1,26 @@
+package io.github.fallwizard.metrics;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+
+/**
+ * Metrics of one instrumented method, resolved once when the bean is proxied.
+ * Any of them may be null.
+ */
+class MethodMetrics {
+
+    final Timer timer;
+
+    final Meter meter;
+
+    final Meter exceptionMeter;
+
+    final Class<? extends Throwable> exceptionCause;
+
+    MethodMetrics(Timer timer, Meter meter, Meter exceptionMeter, Class<? extends Throwable> exceptionCause) {
+        this.timer = timer;
+        this.meter = meter;
+        this.exceptionMeter = exceptionMeter;
+        this.exceptionCause = exceptionCause;
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.fallwizard.metrics;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.annotation.CachedGauge;
+import com.codahale.metrics.annotation.ExceptionMetered;
+import com.codahale.metrics.annotation.Gauge;
+import com.codahale.metrics.annotation.Metered;
+import com.codahale.metrics.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.ws.rs.Path;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instruments Spring beans carrying the Codahale metric annotations.
+ *
+ * Beans with @Timed, @Metered or @ExceptionMetered methods are wrapped in a generated (CGLIB)
+ * subclass whose interceptor updates metrics resolved once per method.  @Gauge and @CachedGauge
+ * methods (without arguments) are registered as gauges, read from the target of beans that are
+ * already proxies.  JAX-RS resources are skipped, since
+ * Dropwizard already instruments them.
+ */
+public class MetricsAnnotationBeanPostProcessor implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsAnnotationBeanPostProcessor.class);
+
+    private final MetricRegistry registry;
+
+    public MetricsAnnotationBeanPostProcessor(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+
+        if (AnnotationUtils.findAnnotation(targetClass, Path.class) != null) {
+            return bean;
+        }
+
+        Map<Method, MethodMetrics> metrics = new HashMap<>();
+
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(targetClass)) {
+
+            if (method.isBridge() || method.isSynthetic() || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            registerGauges(bean, targetClass, method);
+
+            MethodMetrics methodMetrics = createMethodMetrics(targetClass, method);
+            if (methodMetrics != null) {
+                metrics.put(method, methodMetrics);
+            }
+        }
+
+        if (metrics.isEmpty()) {
+            return bean;
+        }
+
+        MetricsMethodInterceptor interceptor = new MetricsMethodInterceptor(targetClass, metrics);
+
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+
+        if (Modifier.isFinal(targetClass.getModifiers())) {
+            logger.warn("Cannot instrument bean '{}': {} is final", beanName, targetClass.getName());
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+
+        logger.info("Instrumenting {} methods of bean '{}'", metrics.size(), beanName);
+
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    private MethodMetrics createMethodMetrics(Class<?> targetClass, Method method) {
+
+        Timed timed = AnnotationUtils.findAnnotation(method, Timed.class);
+        Metered metered = AnnotationUtils.findAnnotation(method, Metered.class);
+        ExceptionMetered exceptionMetered = AnnotationUtils.findAnnotation(method, ExceptionMetered.class);
+
+        if (timed == null && metered == null && exceptionMetered == null) {
+            return null;
+        }
+
+        if (Modifier.isFinal(method.getModifiers()) || Modifier.isPrivate(method.getModifiers())
+                || Modifier.isStatic(method.getModifiers())) {
+            logger.warn("Cannot instrument {}: it must not be private, static or final", method);
+            return null;
+        }
+
+        Timer timer = timed == null ? null
+                : registry.timer(chooseName(timed.name(), timed.absolute(), targetClass, method));
+        Meter meter = metered == null ? null
+                : registry.meter(chooseName(metered.name(), metered.absolute(), targetClass, method));
+        Meter exceptionMeter = exceptionMetered == null ? null
+                : registry.meter(chooseName(exceptionMetered.name(), exceptionMetered.absolute(), targetClass, method,
+                        ExceptionMetered.DEFAULT_NAME_SUFFIX));
+
+        return new MethodMetrics(timer, meter, exceptionMeter,
+                exceptionMetered == null ? null : exceptionMetered.cause());
+    }
+
+    private void registerGauges(final Object bean, Class<?> targetClass, final Method method) {
+
+        Gauge gauge = AnnotationUtils.findAnnotation(method, Gauge.class);
+        CachedGauge cachedGauge = AnnotationUtils.findAnnotation(method, CachedGauge.class);
+
+        if (gauge == null && cachedGauge == null) {
+            return;
+        }
+
+        if (method.getParameterTypes().length != 0) {
+            logger.warn("Cannot register gauge {}: it must not take arguments", method);
+            return;
+        }
+
+        ReflectionUtils.makeAccessible(method);
+        final GaugeReader reader = new GaugeReader(bean, method);
+
+        try {
+            if (gauge != null) {
+                registry.register(chooseName(gauge.name(), gauge.absolute(), targetClass, method),
+                        new com.codahale.metrics.Gauge<Object>() {
+                            @Override
+                            public Object getValue() {
+                                return reader.read();
+                            }
+                        });
+            }
+            if (cachedGauge != null) {
+                registry.register(chooseName(cachedGauge.name(), cachedGauge.absolute(), targetClass, method),
+                        new com.codahale.metrics.CachedGauge<Object>(cachedGauge.timeout(), cachedGauge.timeoutUnit()) {
+                            @Override
+                            protected Object loadValue() {
+                                return reader.read();
+                            }
+                        });
+            }
+        } catch (IllegalArgumentException e) {
+            // Gauges of prototype beans (or beans sharing a class and method name) would collide.
+            logger.warn("Cannot register gauge for {}: {}", method, e.getMessage());
+        }
+    }
+
+    /**
+     * Same naming as Dropwizard's resource instrumentation: an explicit name is relative to the
+     * class unless absolute, the default name is the class and method name.
+     */
+    private static String chooseName(String explicitName, boolean absolute, Class<?> targetClass, Method method,
+                                     String... suffixes) {
+
+        if (explicitName != null && !explicitName.isEmpty()) {
+            if (absolute) {
+                return explicitName;
+            }
+            return MetricRegistry.name(targetClass, explicitName);
+        }
+        return MetricRegistry.name(MetricRegistry.name(targetClass, method.getName()), suffixes);
+    }
+
+    /**
+     * Calls a gauge method.  The method belongs to the target class, so a proxy (a JDK proxy does
+     * not even declare it) is not called directly: the target is looked up on every read, as
+     * target sources may hand out a different one each time.
+     */
+    private static class GaugeReader {
+
+        private final Object bean;
+
+        private final Method method;
+
+        GaugeReader(Object bean, Method method) {
+            this.bean = bean;
+            this.method = method;
+        }
+
+        Object read() {
+
+            if (!(bean instanceof Advised)) {
+                return ReflectionUtils.invokeMethod(method, bean);
+            }
+
+            TargetSource targetSource = ((Advised) bean).getTargetSource();
+            Object target;
+            try {
+                target = targetSource.getTarget();
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot get the target of " + method, e);
+            }
+            try {
+                return ReflectionUtils.invokeMethod(method, target);
+            } finally {
+                try {
+                    targetSource.releaseTarget(target);
+                } catch (Exception e) {
+                    logger.warn("Cannot release the target of {}", method, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.fallwizard.metrics;
+
+import com.codahale.metrics.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Updates the @Timed, @Metered and @ExceptionMetered metrics of a proxied bean.
+ * The metrics are looked up by method; nothing is resolved reflectively per call.
+ */
+class MetricsMethodInterceptor implements MethodInterceptor {
+
+    private static final MethodMetrics NONE = new MethodMetrics(null, null, null, null);
+
+    private final Class<?> targetClass;
+
+    private final Map<Method, MethodMetrics> metrics;
+
+    MetricsMethodInterceptor(Class<?> targetClass, Map<Method, MethodMetrics> metrics) {
+        this.targetClass = targetClass;
+        this.metrics = new ConcurrentHashMap<>(metrics);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+
+        MethodMetrics methodMetrics = lookup(invocation.getMethod());
+        if (methodMetrics == NONE) {
+            return invocation.proceed();
+        }
+
+        Timer.Context context = methodMetrics.timer != null ? methodMetrics.timer.time() : null;
+        if (methodMetrics.meter != null) {
+            methodMetrics.meter.mark();
+        }
+
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            if (methodMetrics.exceptionMeter != null && methodMetrics.exceptionCause.isInstance(t)) {
+                methodMetrics.exceptionMeter.mark();
+            }
+            throw t;
+        } finally {
+            if (context != null) {
+                context.stop();
+            }
+        }
+    }
+
+    private MethodMetrics lookup(Method method) {
+
+        MethodMetrics methodMetrics = metrics.get(method);
+        if (methodMetrics == null) {
+            // Interface methods (JDK proxies) and bridge methods map to the annotated target method once.
+            methodMetrics = metrics.get(ClassUtils.getMostSpecificMethod(method, targetClass));
+            metrics.put(method, methodMetrics == null ? NONE : methodMetrics);
+        }
+        return methodMetrics == null ? NONE : methodMetrics;
+    }
+}
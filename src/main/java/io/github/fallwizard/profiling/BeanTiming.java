@@ -0,0 +1,103 @@
+package io.github.fallwizard.profiling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creation timings of a single Spring bean, as recorded by the {@link StartupProfiler}.
+ * Creation time is inclusive: it contains the time spent creating the dependencies
+ * that were instantiated on behalf of this bean.
+ */
+public class BeanTiming {
+
+    private final String beanName;
+
+    private final String beanType;
+
+    private final int depth;
+
+    private final BeanTiming dependent;
+
+    private final List<BeanTiming> dependencies = new ArrayList<>();
+
+    private final long startNanos;
+
+    private long initStartNanos;
+
+    private long endNanos;
+
+    BeanTiming(String beanName, Class<?> beanType, BeanTiming dependent, int depth, long startNanos) {
+        this.beanName = beanName;
+        this.beanType = beanType == null ? "?" : beanType.getName();
+        this.dependent = dependent;
+        this.depth = depth;
+        this.startNanos = startNanos;
+    }
+
+    void initStarted(long nanos) {
+        this.initStartNanos = nanos;
+    }
+
+    void finished(long nanos) {
+        this.endNanos = nanos;
+        if (dependent != null) {
+            dependent.addDependency(this);
+        }
+    }
+
+    private synchronized void addDependency(BeanTiming dependency) {
+        dependencies.add(dependency);
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public String getBeanType() {
+        return beanType;
+    }
+
+    /**
+     * @return Number of beans that were being created (on this thread) when this bean was requested.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The bean whose creation caused this bean to be created, or null.
+     */
+    public BeanTiming getDependent() {
+        return dependent;
+    }
+
+    public synchronized List<BeanTiming> getDependencies() {
+        return Collections.unmodifiableList(new ArrayList<>(dependencies));
+    }
+
+    /**
+     * @return Time from instantiation to the end of initialization, including dependencies.
+     */
+    public long getCreationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * @return Time spent in initialization callbacks (e.g. init-method, afterPropertiesSet).
+     */
+    public long getInitNanos() {
+        return initStartNanos == 0 ? 0 : endNanos - initStartNanos;
+    }
+
+    /**
+     * @return Creation time, excluding the time spent creating dependencies.
+     */
+    public long getSelfNanos() {
+        long self = getCreationNanos();
+        for (BeanTiming dependency : getDependencies()) {
+            self -= dependency.getCreationNanos();
+        }
+        return Math.max(self, 0);
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.fallwizard.profiling;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * Times a BeanFactoryPostProcessor (e.g. the placeholder configurer) as a startup phase.
+ * Implements PriorityOrdered so the delegate runs in the same round it would on its own.
+ */
+public class ProfiledBeanFactoryPostProcessor implements BeanFactoryPostProcessor, PriorityOrdered {
+
+    private final BeanFactoryPostProcessor delegate;
+
+    private final StartupProfiler profiler;
+
+    private final String phase;
+
+    public ProfiledBeanFactoryPostProcessor(BeanFactoryPostProcessor delegate, StartupProfiler profiler, String phase) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+        this.phase = phase;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+
+        long start = System.nanoTime();
+        delegate.postProcessBeanFactory(beanFactory);
+        profiler.recordPhase(phase, start);
+    }
+
+    @Override
+    public int getOrder() {
+
+        return delegate instanceof Ordered ? ((Ordered) delegate).getOrder() : Ordered.LOWEST_PRECEDENCE;
+    }
+
+    public BeanFactoryPostProcessor getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.fallwizard.profiling;
+
+import com.google.common.collect.ImmutableMultimap;
+import io.dropwizard.servlets.tasks.Task;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin task that dumps the startup phases, the slowest N beans and the critical path.
+ *
+ * Usage: POST /tasks/startup-profile?limit=25
+ */
+public class StartupProfileTask extends Task {
+
+    private final StartupProfiler profiler;
+
+    private final int defaultLimit;
+
+    public StartupProfileTask(StartupProfiler profiler, int defaultLimit) {
+        super("startup-profile");
+        this.profiler = profiler;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @Override
+    public void execute(ImmutableMultimap<String, String> parameters, PrintWriter output) throws Exception {
+
+        int limit = defaultLimit;
+        if (parameters.containsKey("limit")) {
+            limit = Integer.parseInt(parameters.get("limit").iterator().next());
+        }
+
+        output.println("Phases:");
+        for (Map.Entry<String, Long> phase : profiler.getPhases().entrySet()) {
+            output.printf("  %-30s %10.2f ms%n", phase.getKey(), millis(phase.getValue()));
+        }
+
+        output.println();
+        output.printf("Slowest %d beans (total / self / init ms, depth):%n", limit);
+        for (BeanTiming timing : profiler.getSlowestBeans(limit)) {
+            output.printf("  %10.2f %10.2f %10.2f %3d  %s (%s)%n",
+                    millis(timing.getCreationNanos()), millis(timing.getSelfNanos()),
+                    millis(timing.getInitNanos()), timing.getDepth(),
+                    timing.getBeanName(), timing.getBeanType());
+        }
+
+        output.println();
+        output.println("Critical path:");
+        List<BeanTiming> path = profiler.getCriticalPath();
+        for (BeanTiming timing : path) {
+            output.printf("  %" + (timing.getDepth() * 2 + 1) + "s%s %.2f ms (self %.2f ms)%n",
+                    "", timing.getBeanName(), millis(timing.getCreationNanos()), millis(timing.getSelfNanos()));
+        }
+        output.flush();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,267 @@
+package io.github.fallwizard.profiling;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long the Fallwizard startup phases take and (when added to a bean factory
+ * as a BeanPostProcessor) how long each bean takes to be created and initialized.
+ *
+ * Bean timings are only recorded until {@link #stop()} is called, so prototype beans
+ * created while serving requests are not tracked.
+ */
+public class StartupProfiler extends InstantiationAwareBeanPostProcessorAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupProfiler.class);
+
+    public static final String METRICS_PREFIX = "fallwizard.startup";
+
+    private static final Comparator<BeanTiming> SLOWEST_FIRST = new Comparator<BeanTiming>() {
+        @Override
+        public int compare(BeanTiming left, BeanTiming right) {
+            return Long.compare(right.getCreationNanos(), left.getCreationNanos());
+        }
+    };
+
+    private final ThreadLocal<Deque<BeanTiming>> creating = new ThreadLocal<Deque<BeanTiming>>() {
+        @Override
+        protected Deque<BeanTiming> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    private final List<BeanTiming> beanTimings = Collections.synchronizedList(new ArrayList<BeanTiming>());
+
+    private final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+    private volatile boolean recording = true;
+
+    // ------------------------------
+    // Phases
+    // ------------------------------
+
+    /**
+     * Record the time spent in a startup phase (repeated phases accumulate).
+     * @param phase Name of the phase
+     * @param startNanos Value of System.nanoTime() when the phase started
+     */
+    public void recordPhase(String phase, long startNanos) {
+
+        long elapsed = System.nanoTime() - startNanos;
+
+        synchronized (phases) {
+            Long previous = phases.get(phase);
+            phases.put(phase, previous == null ? elapsed : previous + elapsed);
+        }
+    }
+
+    /**
+     * @return Nanoseconds spent in each phase, in the order the phases were first recorded.
+     */
+    public Map<String, Long> getPhases() {
+
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    // ------------------------------
+    // Beans
+    // ------------------------------
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+
+        if (recording) {
+            Deque<BeanTiming> stack = creating.get();
+            stack.push(new BeanTiming(beanName, beanClass, stack.peek(), stack.size(), System.nanoTime()));
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+
+        BeanTiming timing = current(beanName);
+        if (timing != null) {
+            timing.initStarted(System.nanoTime());
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+        BeanTiming timing = current(beanName);
+        if (timing != null) {
+            timing.finished(System.nanoTime());
+            creating.get().pop();
+            beanTimings.add(timing);
+        }
+        return bean;
+    }
+
+    /**
+     * Find the timing of the bean currently being created, discarding the timings of beans
+     * whose creation failed (and therefore never finished) along the way.
+     */
+    private BeanTiming current(String beanName) {
+
+        if (!recording) {
+            return null;
+        }
+
+        Deque<BeanTiming> stack = creating.get();
+
+        for (BeanTiming timing : stack) {
+            if (timing.getBeanName().equals(beanName)) {
+                Iterator<BeanTiming> abandoned = stack.iterator();
+                while (abandoned.next() != timing) {
+                    abandoned.remove();
+                }
+                return timing;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stop recording bean timings.
+     */
+    public void stop() {
+
+        recording = false;
+        creating.remove();
+    }
+
+    public List<BeanTiming> getBeanTimings() {
+
+        synchronized (beanTimings) {
+            return new ArrayList<>(beanTimings);
+        }
+    }
+
+    /**
+     * @param limit Maximum number of beans to return
+     * @return Beans with the longest (inclusive) creation time, slowest first.
+     */
+    public List<BeanTiming> getSlowestBeans(int limit) {
+
+        List<BeanTiming> timings = getBeanTimings();
+        Collections.sort(timings, SLOWEST_FIRST);
+        return timings.subList(0, Math.min(limit, timings.size()));
+    }
+
+    /**
+     * The critical path is the chain of beans, starting with the slowest top-level bean,
+     * formed by always following the slowest dependency.
+     * @return Beans on the critical path, outermost first.
+     */
+    public List<BeanTiming> getCriticalPath() {
+
+        List<BeanTiming> path = new ArrayList<>();
+
+        BeanTiming slowest = null;
+        for (BeanTiming timing : getBeanTimings()) {
+            if (timing.getDependent() == null
+                    && (slowest == null || timing.getCreationNanos() > slowest.getCreationNanos())) {
+                slowest = timing;
+            }
+        }
+
+        while (slowest != null) {
+            path.add(slowest);
+            List<BeanTiming> dependencies = new ArrayList<>(slowest.getDependencies());
+            Collections.sort(dependencies, SLOWEST_FIRST);
+            slowest = dependencies.isEmpty() ? null : dependencies.get(0);
+        }
+
+        return path;
+    }
+
+    // ------------------------------
+    // Reporting
+    // ------------------------------
+
+    /**
+     * Publish phase timers, aggregate bean timers and gauges for the slowest beans.
+     * @param registry Dropwizard Metric Registry
+     * @param slowestBeans Number of beans to publish individual gauges for
+     */
+    public void publish(MetricRegistry registry, int slowestBeans) {
+
+        for (Map.Entry<String, Long> phase : getPhases().entrySet()) {
+            registry.timer(MetricRegistry.name(METRICS_PREFIX, "phase", phase.getKey()))
+                    .update(phase.getValue(), TimeUnit.NANOSECONDS);
+        }
+
+        List<BeanTiming> timings = getBeanTimings();
+        if (timings.isEmpty()) {
+            return;
+        }
+
+        Timer creation = registry.timer(MetricRegistry.name(METRICS_PREFIX, "beans", "creation"));
+        Timer init = registry.timer(MetricRegistry.name(METRICS_PREFIX, "beans", "init"));
+        int maxDepth = 0;
+
+        for (BeanTiming timing : timings) {
+            creation.update(timing.getCreationNanos(), TimeUnit.NANOSECONDS);
+            init.update(timing.getInitNanos(), TimeUnit.NANOSECONDS);
+            maxDepth = Math.max(maxDepth, timing.getDepth());
+        }
+
+        registerGauge(registry, MetricRegistry.name(METRICS_PREFIX, "beans", "maxDepth"), (long) maxDepth);
+
+        Set<String> published = new HashSet<>();
+        for (BeanTiming timing : getSlowestBeans(slowestBeans)) {
+            if (published.add(timing.getBeanName())) {
+                String name = MetricRegistry.name(METRICS_PREFIX, "beans", timing.getBeanName());
+                registerGauge(registry, MetricRegistry.name(name, "creationMillis"),
+                        TimeUnit.NANOSECONDS.toMillis(timing.getCreationNanos()));
+                registerGauge(registry, MetricRegistry.name(name, "initMillis"),
+                        TimeUnit.NANOSECONDS.toMillis(timing.getInitNanos()));
+                registerGauge(registry, MetricRegistry.name(name, "depth"), (long) timing.getDepth());
+            }
+        }
+    }
+
+    /**
+     * Log the phase timings.
+     */
+    public void logPhases() {
+
+        for (Map.Entry<String, Long> phase : getPhases().entrySet()) {
+            logger.info("Startup phase {} took {} ms", phase.getKey(),
+                    TimeUnit.NANOSECONDS.toMillis(phase.getValue()));
+        }
+    }
+
+    private void registerGauge(MetricRegistry registry, String name, final Long value) {
+
+        registry.remove(name);
+        registry.register(name, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return value;
+            }
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.fallwizard.properties;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import org.springframework.core.env.EnumerablePropertySource;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The Dropwizard configuration object flattened into an immutable map, so placeholders like
+ * ${server.applicationConnectors[0].port} or ${spring.useSpringSecurity} are single hash lookups.
+ *
+ * The configuration is serialized with the application's ObjectMapper, so subclasses and
+ * their custom properties are included, and values read as the YAML would spell them
+ * (e.g. durations as "30 seconds").
+ */
+public class ConfigurationPropertySource extends EnumerablePropertySource<Map<String, Object>> {
+
+    public static final String NAME = "fallwizardConfiguration";
+
+    private final String[] propertyNames;
+
+    public ConfigurationPropertySource(Map<String, Object> properties) {
+        super(NAME, ImmutableMap.copyOf(properties));
+        this.propertyNames = properties.keySet().toArray(new String[properties.size()]);
+    }
+
+    /**
+     * @param configuration Configuration object
+     * @param objectMapper Mapper serializing it
+     * @param prefix Prefix of every property name (may be empty)
+     * @return The flattened configuration
+     */
+    public static ConfigurationPropertySource from(Object configuration, ObjectMapper objectMapper, String prefix) {
+
+        String root = prefix.endsWith(".") ? prefix.substring(0, prefix.length() - 1) : prefix;
+
+        ImmutableMap.Builder<String, Object> properties = ImmutableMap.builder();
+        flatten(root, objectMapper.<JsonNode>valueToTree(configuration), properties);
+        return new ConfigurationPropertySource(properties.build());
+    }
+
+    private static void flatten(String path, JsonNode node, ImmutableMap.Builder<String, Object> properties) {
+
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                flatten(path.isEmpty() ? field.getKey() : path + "." + field.getKey(), field.getValue(), properties);
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                flatten(path + "[" + i + "]", node.get(i), properties);
+            }
+        } else if (!node.isNull() && !path.isEmpty()) {
+            properties.put(path, node.asText());
+        }
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return source.get(name);
+    }
+
+    @Override
+    public boolean containsProperty(String name) {
+        return source.containsKey(name);
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return propertyNames.clone();
+    }
+
+    public int size() {
+        return propertyNames.length;
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.fallwizard.properties;
+
+import io.github.fallwizard.profiling.StartupProfiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PropertySourcesPlaceholderConfigurer resolving against the context's Environment (which
+ * holds the {@link ConfigurationPropertySource} first), and reporting how many placeholders
+ * it resolved and how long that took.
+ */
+public class ReportingPlaceholderConfigurer extends PropertySourcesPlaceholderConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportingPlaceholderConfigurer.class);
+
+    private final StartupProfiler profiler;
+
+    private final AtomicInteger resolved = new AtomicInteger();
+
+    private final AtomicInteger unresolved = new AtomicInteger();
+
+    private Environment environment;
+
+    private long elapsedNanos;
+
+    // Set once the context has been processed, later runs are property reloads
+    private boolean processed;
+
+    /**
+     * @param profiler Records the resolution as the "configurationPlaceholders" phase (may be null)
+     */
+    public ReportingPlaceholderConfigurer(StartupProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        super.setEnvironment(environment);
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+
+        final Environment source = environment;
+        if (source != null) {
+            MutablePropertySources sources = new MutablePropertySources();
+            sources.addLast(new PropertySource<Environment>(ENVIRONMENT_PROPERTIES_PROPERTY_SOURCE_NAME, source) {
+                @Override
+                public Object getProperty(String name) {
+                    String value = source.getProperty(name);
+                    (value != null ? resolved : unresolved).incrementAndGet();
+                    return value;
+                }
+            });
+            setPropertySources(sources);
+        }
+
+        // Counted again when the properties are reloaded
+        resolved.set(0);
+        unresolved.set(0);
+
+        long start = System.nanoTime();
+        super.postProcessBeanFactory(beanFactory);
+        elapsedNanos = System.nanoTime() - start;
+
+        if (profiler != null && !processed) {
+            profiler.recordPhase("configurationPlaceholders", start);
+        }
+        processed = true;
+        logger.info("Resolved {} placeholders ({} unresolved) in {} ms",
+                resolved.get(), unresolved.get(), elapsedNanos / 1000000.0);
+    }
+
+    public int getResolvedCount() {
+        return resolved.get();
+    }
+
+    public int getUnresolvedCount() {
+        return unresolved.get();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.setup.Environment;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Base registrar for beans whose type (or a supertype) carries an annotation.
+ */
+public abstract class AnnotatedBeanRegistrar implements BeanRegistrar {
+
+    private final String name;
+
+    private final Class<? extends Annotation> annotationType;
+
+    protected AnnotatedBeanRegistrar(String name, Class<? extends Annotation> annotationType) {
+        this.name = name;
+        this.annotationType = annotationType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean accepts(Class<?> beanType) {
+        return AnnotationUtils.findAnnotation(beanType, annotationType) != null;
+    }
+
+    @Override
+    public void finish(Environment environment) {}
+}
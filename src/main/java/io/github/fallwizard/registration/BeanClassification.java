@@ -0,0 +1,60 @@
+package io.github.fallwizard.registration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of classifying the Spring beans: which beans each registrar accepted.
+ */
+public class BeanClassification {
+
+    private final Map<BeanRegistrar, List<ClassifiedBean>> beansByRegistrar = new LinkedHashMap<>();
+
+    private final int scannedBeans;
+
+    private long elapsedNanos;
+
+    BeanClassification(List<BeanRegistrar> registrars, int scannedBeans) {
+        for (BeanRegistrar registrar : registrars) {
+            beansByRegistrar.put(registrar, new ArrayList<ClassifiedBean>());
+        }
+        this.scannedBeans = scannedBeans;
+    }
+
+    void finished(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void add(BeanRegistrar registrar, ClassifiedBean bean) {
+        beansByRegistrar.get(registrar).add(bean);
+    }
+
+    /**
+     * @return Registrars, in the order they are called
+     */
+    public List<BeanRegistrar> getRegistrars() {
+        return new ArrayList<>(beansByRegistrar.keySet());
+    }
+
+    public List<ClassifiedBean> getBeans(BeanRegistrar registrar) {
+        List<ClassifiedBean> beans = beansByRegistrar.get(registrar);
+        return beans == null ? Collections.<ClassifiedBean>emptyList() : Collections.unmodifiableList(beans);
+    }
+
+    /**
+     * @return Number of beans that were classified
+     */
+    public int getScannedBeans() {
+        return scannedBeans;
+    }
+
+    /**
+     * @return Time it took to classify the beans
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.fallwizard.registration;
+
+import com.google.common.collect.ImmutableMultimap;
+import io.dropwizard.servlets.tasks.Task;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin task that lists which beans each registrar registered with Dropwizard.
+ *
+ * Usage: POST /tasks/bean-classification
+ */
+public class BeanClassificationTask extends Task {
+
+    private final BeanClassification classification;
+
+    public BeanClassificationTask(BeanClassification classification) {
+        super("bean-classification");
+        this.classification = classification;
+    }
+
+    @Override
+    public void execute(ImmutableMultimap<String, String> parameters, PrintWriter output) throws Exception {
+
+        output.printf("Classified %d beans in %d ms%n", classification.getScannedBeans(),
+                TimeUnit.NANOSECONDS.toMillis(classification.getElapsedNanos()));
+
+        for (BeanRegistrar registrar : classification.getRegistrars()) {
+            List<ClassifiedBean> beans = classification.getBeans(registrar);
+            output.println();
+            output.printf("%s (%s): %d%n", registrar.getName(), registrar.getClass().getName(), beans.size());
+            for (ClassifiedBean bean : beans) {
+                output.println("  " + bean);
+            }
+        }
+        output.flush();
+    }
+}
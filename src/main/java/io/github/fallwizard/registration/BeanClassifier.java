@@ -0,0 +1,106 @@
+package io.github.fallwizard.registration;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classifies every bean of one or more Spring contexts in a single pass.
+ *
+ * The type of each bean is determined once (without creating the bean) and matched against all
+ * registrars.  Beans that implement {@link BeanRegistrar} are added to the registrars themselves.
+ * Beans are told apart by context and name: a bean of a child context is classified even if
+ * another context has a bean of the same name (the registrars fail on real conflicts, such as
+ * two resources with the same path).
+ */
+public class BeanClassifier {
+
+    private final List<BeanRegistrar> registrars;
+
+    /**
+     * @param registrars Built-in registrars, in the order they should be called
+     */
+    public BeanClassifier(List<BeanRegistrar> registrars) {
+        this.registrars = registrars;
+    }
+
+    /**
+     * @param contexts Refreshed contexts (parent first)
+     * @return Beans accepted by each registrar
+     */
+    public BeanClassification classify(List<? extends ConfigurableApplicationContext> contexts) {
+
+        long start = System.nanoTime();
+
+        List<ClassifiedBean> beans = new ArrayList<>();
+        // Bean names per context
+        Map<ConfigurableListableBeanFactory, Set<String>> seen = new IdentityHashMap<>();
+
+        for (ConfigurableApplicationContext context : contexts) {
+
+            ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+
+                if (beanFactory.getMergedBeanDefinition(beanName).isAbstract()) {
+                    continue;
+                }
+                addBean(beans, seen, beanFactory, beanName);
+            }
+
+            // Singletons registered directly, without a bean definition
+            for (String beanName : beanFactory.getSingletonNames()) {
+
+                if (!beanFactory.containsBeanDefinition(beanName)) {
+                    addBean(beans, seen, beanFactory, beanName);
+                }
+            }
+        }
+
+        // Registrars defined as beans can only be known once the beans have been typed.
+        List<BeanRegistrar> allRegistrars = new ArrayList<>(registrars);
+        for (ClassifiedBean bean : beans) {
+            if (BeanRegistrar.class.isAssignableFrom(bean.getBeanType())) {
+                allRegistrars.add(bean.getInstance(BeanRegistrar.class));
+            }
+        }
+
+        BeanClassification classification = new BeanClassification(allRegistrars, beans.size());
+        for (ClassifiedBean bean : beans) {
+            for (BeanRegistrar registrar : allRegistrars) {
+                if (registrar.accepts(bean.getBeanType())) {
+                    classification.add(registrar, bean);
+                }
+            }
+        }
+        classification.finished(System.nanoTime() - start);
+
+        return classification;
+    }
+
+    private void addBean(List<ClassifiedBean> beans, Map<ConfigurableListableBeanFactory, Set<String>> seen,
+                         ConfigurableListableBeanFactory beanFactory, String beanName) {
+
+        Class<?> beanType = beanFactory.getType(beanName);
+        if (beanType == null) {
+            return;
+        }
+
+        Set<String> names = seen.get(beanFactory);
+        if (names == null) {
+            names = new HashSet<>();
+            seen.put(beanFactory, names);
+        }
+        if (!names.add(beanName)) {
+            return;
+        }
+
+        beans.add(new ClassifiedBean(beanName, beanType, beanFactory));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.setup.Environment;
+
+/**
+ * Registers a kind of Spring bean with Dropwizard (Managed objects, Tasks, resources, ...).
+ *
+ * Every bean in the Spring context is classified once, by type, against all registrars.
+ * Registrars are called in order: {@link #register} for each accepted bean, then {@link #finish}.
+ * Besides the built-in registrars, any Spring bean implementing this interface is used as a
+ * registrar, which lets applications bootstrap their own bean kinds (servlets, filters,
+ * Jersey features, reporters, ...) the same way.
+ */
+public interface BeanRegistrar {
+
+    /**
+     * @return Name used for diagnostics and metrics (e.g. "managed")
+     */
+    String getName();
+
+    /**
+     * @param beanType Type of the bean (the product type for FactoryBeans)
+     * @return true if beans of this type should be handed to {@link #register}
+     */
+    boolean accepts(Class<?> beanType);
+
+    /**
+     * Register the bean with Dropwizard.  The bean is not created until {@link ClassifiedBean#getInstance()} is called.
+     * @param bean Classified bean
+     * @param environment Dropwizard Environment
+     */
+    void register(ClassifiedBean bean, Environment environment);
+
+    /**
+     * Called once all accepted beans have been registered.
+     * @param environment Dropwizard Environment
+     */
+    void finish(Environment environment);
+}
@@ -0,0 +1,60 @@
+package io.github.fallwizard.registration;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * A bean found by the {@link BeanClassifier}, along with the bean factory that defines it.
+ * The instance is created (and then shared between registrars) on the first call to {@link #getInstance()}.
+ */
+public class ClassifiedBean {
+
+    private final String beanName;
+
+    private final Class<?> beanType;
+
+    private final ConfigurableListableBeanFactory beanFactory;
+
+    private Object instance;
+
+    public ClassifiedBean(String beanName, Class<?> beanType, ConfigurableListableBeanFactory beanFactory) {
+        this.beanName = beanName;
+        this.beanType = beanType;
+        this.beanFactory = beanFactory;
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public Class<?> getBeanType() {
+        return beanType;
+    }
+
+    public ConfigurableListableBeanFactory getBeanFactory() {
+        return beanFactory;
+    }
+
+    /**
+     * @return true if the bean definition is lazy-init (the bean may not exist yet)
+     */
+    public boolean isLazyInit() {
+        return beanFactory.containsBeanDefinition(beanName)
+                && beanFactory.getBeanDefinition(beanName).isLazyInit();
+    }
+
+    public synchronized Object getInstance() {
+        if (instance == null) {
+            instance = beanFactory.getBean(beanName);
+        }
+        return instance;
+    }
+
+    public <T> T getInstance(Class<T> type) {
+        return type.cast(getInstance());
+    }
+
+    @Override
+    public String toString() {
+        return beanName + " (" + beanType.getName() + ")";
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.fallwizard.registration;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.health.HealthCheckScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Register Dropwizard Healthchecks, named after their beans.
+ */
+public class HealthCheckRegistrar extends TypeBeanRegistrar<HealthCheck> {
+
+    private static final Logger logger = LoggerFactory.getLogger(HealthCheckRegistrar.class);
+
+    private final HealthCheckScheduler scheduler;
+
+    public HealthCheckRegistrar() {
+        this(null);
+    }
+
+    /**
+     * @param scheduler Scheduler running the health checks in the background (null to run them on every request)
+     */
+    public HealthCheckRegistrar(HealthCheckScheduler scheduler) {
+        super("healthChecks", HealthCheck.class);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void register(String beanName, HealthCheck healthCheck, Environment environment) {
+
+        // The registry keeps the first one
+        if (environment.healthChecks().getNames().contains(beanName)) {
+            logger.warn("A health check named '{}' is already registered, ignoring {}",
+                    beanName, healthCheck.getClass().getName());
+            return;
+        }
+
+        if (scheduler != null) {
+            environment.healthChecks().register(beanName, scheduler.schedule(beanName, healthCheck, environment));
+            logger.info("Registering scheduled healthCheck: " + healthCheck.getClass().getName());
+            return;
+        }
+
+        environment.healthChecks().register(beanName, healthCheck);
+        logger.info("Registering healthCheck: " + healthCheck.getClass().getName());
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.lifecycle.LifecycleCoordinator;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Register Jetty Lifecycle Components.
+ */
+public class LifeCycleRegistrar extends TypeBeanRegistrar<LifeCycle> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LifeCycleRegistrar.class);
+
+    private final LifecycleCoordinator coordinator;
+
+    public LifeCycleRegistrar() {
+        this(null);
+    }
+
+    /**
+     * @param coordinator Coordinator starting the beans in dependency order (null to register them with Dropwizard directly)
+     */
+    public LifeCycleRegistrar(LifecycleCoordinator coordinator) {
+        super("lifecycle", LifeCycle.class);
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    public void register(ClassifiedBean bean, Environment environment) {
+
+        if (coordinator == null) {
+            super.register(bean, environment);
+            return;
+        }
+
+        coordinator.add(bean.getBeanName(), bean.getBeanFactory(), bean.getInstance(LifeCycle.class));
+
+        logger.info("Registering lifeCycle with the lifecycle coordinator: " + bean);
+    }
+
+    @Override
+    protected void register(String beanName, LifeCycle lifeCycle, Environment environment) {
+
+        environment.lifecycle().manage(lifeCycle);
+
+        logger.info("Registering lifeCycle: " + lifeCycle.getClass().getName());
+    }
+
+    @Override
+    public void finish(Environment environment) {
+
+        if (coordinator != null) {
+            coordinator.manage(environment);
+        }
+    }
+}
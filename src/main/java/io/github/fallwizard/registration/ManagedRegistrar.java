@@ -0,0 +1,58 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.lifecycle.LifecycleCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Register Dropwizard Managed-Lifecycle Components.
+ */
+public class ManagedRegistrar extends TypeBeanRegistrar<Managed> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedRegistrar.class);
+
+    private final LifecycleCoordinator coordinator;
+
+    public ManagedRegistrar() {
+        this(null);
+    }
+
+    /**
+     * @param coordinator Coordinator starting the beans in dependency order (null to register them with Dropwizard directly)
+     */
+    public ManagedRegistrar(LifecycleCoordinator coordinator) {
+        super("managed", Managed.class);
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    public void register(ClassifiedBean bean, Environment environment) {
+
+        if (coordinator == null) {
+            super.register(bean, environment);
+            return;
+        }
+
+        coordinator.add(bean.getBeanName(), bean.getBeanFactory(), bean.getInstance(Managed.class));
+
+        logger.info("Registering managed with the lifecycle coordinator: " + bean);
+    }
+
+    @Override
+    protected void register(String beanName, Managed managed, Environment environment) {
+
+        environment.lifecycle().manage(managed);
+
+        logger.info("Registering managed: " + managed.getClass().getName());
+    }
+
+    @Override
+    public void finish(Environment environment) {
+
+        if (coordinator != null) {
+            coordinator.manage(environment);
+        }
+    }
+}
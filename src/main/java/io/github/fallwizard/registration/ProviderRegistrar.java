@@ -0,0 +1,28 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Register JAX-RS Providers (MessageBodyReader/Writers, ExceptionMappers, filters, ...).
+ */
+public class ProviderRegistrar extends AnnotatedBeanRegistrar {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRegistrar.class);
+
+    public ProviderRegistrar() {
+        super("providers", Provider.class);
+    }
+
+    @Override
+    public void register(ClassifiedBean bean, Environment environment) {
+
+        Object provider = bean.getInstance();
+
+        environment.jersey().register(provider);
+        logger.info("Registering provider : " + provider.getClass().getName());
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.configuration.LazyResourcesConfiguration;
+import io.github.fallwizard.resources.LazyResourceBinder;
+import io.github.fallwizard.resources.ResourceWarmUp;
+import io.github.fallwizard.resources.SpringResourceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.Path;
+
+/**
+ * Register JAX-RS Endpoints.
+ *
+ * With lazy resources enabled, lazy-init resource beans are registered by class and bound to
+ * their (not yet created) Spring bean; other resources are registered as instances.
+ */
+public class ResourceRegistrar extends AnnotatedBeanRegistrar {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceRegistrar.class);
+
+    private final LazyResourcesConfiguration lazyConfig;
+
+    private final LazyResourceBinder binder = new LazyResourceBinder();
+
+    public ResourceRegistrar(LazyResourcesConfiguration lazyConfig) {
+        super("resources", Path.class);
+        this.lazyConfig = lazyConfig;
+    }
+
+    @Override
+    public void register(ClassifiedBean bean, Environment environment) {
+
+        if (lazyConfig.isEnabled() && bean.isLazyInit()) {
+
+            binder.add(createResourceFactory(bean, bean.getBeanType()));
+            environment.jersey().register(bean.getBeanType());
+            logger.info("Registering lazy resource : " + bean.getBeanType().getName());
+
+        } else {
+
+            Object resource = bean.getInstance();
+            environment.jersey().register(resource);
+            logger.info("Registering resource : " + resource.getClass().getName());
+        }
+    }
+
+    @Override
+    public void finish(Environment environment) {
+
+        if (binder.getFactories().isEmpty()) {
+            return;
+        }
+
+        environment.jersey().register(binder);
+
+        if (lazyConfig.isWarmUp()) {
+            environment.lifecycle().addServerLifecycleListener(new ResourceWarmUp(
+                    binder.getFactories(),
+                    environment.lifecycle().scheduledExecutorService("fallwizard-resource-warm-up-%d")
+                            .threads(lazyConfig.getWarmUpThreads()).build(),
+                    lazyConfig.getWarmUpDelay()));
+        }
+    }
+
+    private <R> SpringResourceFactory<R> createResourceFactory(ClassifiedBean bean, Class<R> resourceClass) {
+
+        return new SpringResourceFactory<>(bean.getBeanFactory(), bean.getBeanName(), resourceClass);
+    }
+}
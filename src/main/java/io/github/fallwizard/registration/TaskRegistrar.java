@@ -0,0 +1,36 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.servlets.tasks.Task;
+import io.dropwizard.setup.Environment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Register Dropwizard Tasks.
+ */
+public class TaskRegistrar extends TypeBeanRegistrar<Task> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskRegistrar.class);
+
+    private final Set<String> taskNames = new HashSet<>();
+
+    public TaskRegistrar() {
+        super("tasks", Task.class);
+    }
+
+    @Override
+    protected void register(String beanName, Task task, Environment environment) {
+
+        // The task servlet keeps the last one
+        if (!taskNames.add(task.getName())) {
+            logger.warn("Bean '{}' is a second task named '{}', it replaces the first", beanName, task.getName());
+        }
+
+        environment.admin().addTask(task);
+
+        logger.info("Registering task: " + task.getClass().getName());
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.fallwizard.registration;
+
+import io.dropwizard.setup.Environment;
+
+/**
+ * Base registrar for beans assignable to a type.
+ */
+public abstract class TypeBeanRegistrar<T> implements BeanRegistrar {
+
+    private final String name;
+
+    private final Class<T> type;
+
+    protected TypeBeanRegistrar(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean accepts(Class<?> beanType) {
+        return type.isAssignableFrom(beanType);
+    }
+
+    @Override
+    public void register(ClassifiedBean bean, Environment environment) {
+        register(bean.getBeanName(), bean.getInstance(type), environment);
+    }
+
+    /**
+     * @param beanName Name of the bean
+     * @param bean The bean
+     * @param environment Dropwizard Environment
+     */
+    protected abstract void register(String beanName, T bean, Environment environment);
+
+    @Override
+    public void finish(Environment environment) {}
+}
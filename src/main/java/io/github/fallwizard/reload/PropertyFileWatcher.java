@@ -0,0 +1,124 @@
+package io.github.fallwizard.reload;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the property files and reloads once they have been left alone for the quiet period,
+ * so editors writing a file in several steps cause a single reload.
+ */
+public class PropertyFileWatcher implements Managed {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyFileWatcher.class);
+
+    private final PropertyReloader reloader;
+
+    private final List<File> files;
+
+    private final Duration quietPeriod;
+
+    private WatchService watchService;
+
+    private ExecutorService executor;
+
+    public PropertyFileWatcher(PropertyReloader reloader, List<File> files, Duration quietPeriod) {
+        this.reloader = reloader;
+        this.files = files;
+        this.quietPeriod = quietPeriod;
+    }
+
+    @Override
+    public void start() throws Exception {
+
+        final Set<Path> watched = new HashSet<>();
+        Set<Path> directories = new HashSet<>();
+        for (File file : files) {
+            Path path = file.getAbsoluteFile().toPath().normalize();
+            watched.add(path);
+            directories.add(path.getParent());
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+
+        executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("fallwizard-property-watcher-%d").setDaemon(true).build());
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                watch(watched);
+            }
+        });
+
+        logger.info("Watching property files {}", watched);
+    }
+
+    @Override
+    public void stop() throws Exception {
+
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void watch(Set<Path> watched) {
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+
+                Set<Path> changed = new HashSet<>();
+                WatchKey key = watchService.take();
+
+                // Collect events until the files have been quiet for the whole period
+                while (key != null) {
+                    collect(key, watched, changed);
+                    key = watchService.poll(quietPeriod.toMilliseconds(), TimeUnit.MILLISECONDS);
+                }
+
+                if (!changed.isEmpty()) {
+                    reloader.reload("watch " + changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.debug("Property file watcher stopped");
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> watched, Set<Path> changed) {
+
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path) {
+                Path path = directory.resolve((Path) event.context()).normalize();
+                if (watched.contains(path)) {
+                    changed.add(path.getFileName());
+                }
+            }
+        }
+        key.reset();
+    }
+}
@@ -0,0 +1,302 @@
+package io.github.fallwizard.reload;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.github.fallwizard.context.ContextReaders;
+import io.github.fallwizard.profiling.ProfiledBeanFactoryPostProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.PlaceholderConfigurerSupport;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.OrderComparator;
+import org.springframework.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-resolves the placeholder properties and rebuilds the refresh scoped beans whose
+ * resolved definition changed.
+ *
+ * The context files are parsed again into a scratch bean factory, keeping only the refresh
+ * scoped definitions, and the placeholder configurers of the context resolve them in the order
+ * they ran at startup (the propertyPlaceholderConfigurer re-reads its locations, the
+ * configuration properties and the Environment are resolved as before).  Definitions whose
+ * resolved values changed replace the current ones and their beans are rebuilt by the
+ * RefreshScope; if that fails, the previous definitions are restored.
+ */
+public class PropertyReloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyReloader.class);
+
+    private static final int HISTORY_SIZE = 20;
+
+    private final Map<GenericApplicationContext, List<String>> contexts = new LinkedHashMap<>();
+
+    private final LinkedList<ReloadResult> history = new LinkedList<>();
+
+    private final Timer reloads;
+
+    private final Meter failures;
+
+    public PropertyReloader(MetricRegistry registry) {
+        this.reloads = registry.timer(MetricRegistry.name("fallwizard", "properties", "reloads"));
+        this.failures = registry.meter(MetricRegistry.name("fallwizard", "properties", "failures"));
+    }
+
+    /**
+     * @param context Context with a registered RefreshScope
+     * @param locations Normalized locations of the context files
+     */
+    public synchronized void addContext(GenericApplicationContext context, List<String> locations) {
+        contexts.put(context, new ArrayList<>(locations));
+    }
+
+    /**
+     * Reload the properties and rebuild the affected beans.  Failures are logged and recorded,
+     * never thrown, so the application keeps running on the previous values.
+     * @param trigger What requested the reload (for the history)
+     * @return Outcome of the reload
+     */
+    public synchronized ReloadResult reload(String trigger) {
+
+        List<String> refreshed = new ArrayList<>();
+        String error = null;
+
+        long start = System.nanoTime();
+        try {
+            for (Map.Entry<GenericApplicationContext, List<String>> entry : contexts.entrySet()) {
+                refreshed.addAll(reload(entry.getKey(), entry.getValue()));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Reloading properties ({}) failed, keeping the current beans", trigger, e);
+            failures.mark();
+            error = String.valueOf(e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        reloads.update(elapsed, TimeUnit.NANOSECONDS);
+
+        ReloadResult result = new ReloadResult(trigger, refreshed, elapsed, error);
+        history.addFirst(result);
+        if (history.size() > HISTORY_SIZE) {
+            history.removeLast();
+        }
+        logger.info("Property reload {}", result);
+        return result;
+    }
+
+    /**
+     * @return The most recent reloads, newest first
+     */
+    public synchronized List<ReloadResult> getHistory() {
+        return Collections.unmodifiableList(new ArrayList<>(history));
+    }
+
+    private List<String> reload(GenericApplicationContext context, List<String> locations) {
+
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        Scope scope = beanFactory.getRegisteredScope(RefreshScope.NAME);
+        if (!(scope instanceof RefreshScope)) {
+            return Collections.emptyList();
+        }
+
+        // Parse the refreshable definitions again and resolve them against the current properties
+        DefaultListableBeanFactory scratch = new DefaultListableBeanFactory();
+        ContextReaders.create(scratch, context, null).loadBeanDefinitions(locations.toArray(new String[locations.size()]));
+        for (String name : scratch.getBeanDefinitionNames()) {
+            if (!RefreshScope.NAME.equals(scratch.getBeanDefinition(name).getScope())) {
+                scratch.removeBeanDefinition(name);
+            }
+        }
+        if (scratch.getBeanDefinitionCount() == 0) {
+            return Collections.emptyList();
+        }
+        for (BeanFactoryPostProcessor configurer : placeholderConfigurers(context)) {
+            configurer.postProcessBeanFactory(scratch);
+        }
+
+        Map<String, BeanDefinition> changed = new LinkedHashMap<>();
+        Map<String, BeanDefinition> previous = new LinkedHashMap<>();
+        for (String name : scratch.getBeanDefinitionNames()) {
+
+            if (!beanFactory.containsBeanDefinition(name)) {
+                logger.warn("Ignoring refreshable bean '{}', beans cannot be added without a restart", name);
+                continue;
+            }
+            BeanDefinition resolved = scratch.getBeanDefinition(name);
+            BeanDefinition current = beanFactory.getBeanDefinition(name);
+            if (!sameDefinition(resolved, current)) {
+                changed.put(name, resolved);
+                previous.put(name, current);
+            }
+        }
+        if (changed.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+        for (Map.Entry<String, BeanDefinition> definition : changed.entrySet()) {
+            registry.registerBeanDefinition(definition.getKey(), definition.getValue());
+        }
+        try {
+            ((RefreshScope) scope).refresh(changed.keySet(), beanFactory);
+        } catch (RuntimeException e) {
+            for (Map.Entry<String, BeanDefinition> definition : previous.entrySet()) {
+                registry.registerBeanDefinition(definition.getKey(), definition.getValue());
+            }
+            throw e;
+        }
+        return new ArrayList<>(changed.keySet());
+    }
+
+    /**
+     * @return The placeholder configurers of the context (registered or declared), in the order
+     *         the context invoked them
+     */
+    private static List<BeanFactoryPostProcessor> placeholderConfigurers(GenericApplicationContext context) {
+
+        Map<BeanFactoryPostProcessor, Boolean> candidates = new IdentityHashMap<>();
+        for (BeanFactoryPostProcessor processor : context.getBeanFactoryPostProcessors()) {
+            candidates.put(processor, Boolean.TRUE);
+        }
+        for (BeanFactoryPostProcessor processor
+                : context.getBeanFactory().getBeansOfType(BeanFactoryPostProcessor.class, true, false).values()) {
+            candidates.put(processor, Boolean.TRUE);
+        }
+
+        List<BeanFactoryPostProcessor> configurers = new ArrayList<>();
+        for (BeanFactoryPostProcessor processor : candidates.keySet()) {
+            // Not timed again as a startup phase
+            BeanFactoryPostProcessor configurer = processor instanceof ProfiledBeanFactoryPostProcessor
+                    ? ((ProfiledBeanFactoryPostProcessor) processor).getDelegate()
+                    : processor;
+            if (configurer instanceof PlaceholderConfigurerSupport) {
+                configurers.add(configurer);
+            }
+        }
+        OrderComparator.sort(configurers);
+        return configurers;
+    }
+
+    /**
+     * Compare the resolved values of two definitions.  BeanDefinition.equals cannot be used: the
+     * values of the current definition are shared with the merged definition the bean was created
+     * from, and creating it resolved their target types (a TypedStringValue then holds a Class
+     * instead of a class name and is not equal to a freshly parsed one anymore).
+     */
+    private static boolean sameDefinition(BeanDefinition a, BeanDefinition b) {
+
+        if (!ObjectUtils.nullSafeEquals(a.getBeanClassName(), b.getBeanClassName())
+                || !ObjectUtils.nullSafeEquals(a.getFactoryBeanName(), b.getFactoryBeanName())
+                || !ObjectUtils.nullSafeEquals(a.getFactoryMethodName(), b.getFactoryMethodName())
+                || !ObjectUtils.nullSafeEquals(a.getScope(), b.getScope())) {
+            return false;
+        }
+
+        PropertyValue[] aProperties = a.getPropertyValues().getPropertyValues();
+        if (aProperties.length != b.getPropertyValues().size()) {
+            return false;
+        }
+        for (PropertyValue property : aProperties) {
+            PropertyValue other = b.getPropertyValues().getPropertyValue(property.getName());
+            if (other == null || !sameValue(property.getValue(), other.getValue())) {
+                return false;
+            }
+        }
+
+        ConstructorArgumentValues aArguments = a.getConstructorArgumentValues();
+        ConstructorArgumentValues bArguments = b.getConstructorArgumentValues();
+        if (!aArguments.getIndexedArgumentValues().keySet().equals(bArguments.getIndexedArgumentValues().keySet())) {
+            return false;
+        }
+        for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> argument
+                : aArguments.getIndexedArgumentValues().entrySet()) {
+            if (!sameArgument(argument.getValue(), bArguments.getIndexedArgumentValues().get(argument.getKey()))) {
+                return false;
+            }
+        }
+        List<ConstructorArgumentValues.ValueHolder> aGeneric = aArguments.getGenericArgumentValues();
+        List<ConstructorArgumentValues.ValueHolder> bGeneric = bArguments.getGenericArgumentValues();
+        if (aGeneric.size() != bGeneric.size()) {
+            return false;
+        }
+        for (int i = 0; i < aGeneric.size(); i++) {
+            if (!sameArgument(aGeneric.get(i), bGeneric.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameArgument(ConstructorArgumentValues.ValueHolder a, ConstructorArgumentValues.ValueHolder b) {
+
+        return ObjectUtils.nullSafeEquals(a.getName(), b.getName())
+                && ObjectUtils.nullSafeEquals(a.getType(), b.getType())
+                && sameValue(a.getValue(), b.getValue());
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+
+        if (a instanceof TypedStringValue && b instanceof TypedStringValue) {
+            // The target type is compared by name, whether it was resolved or not
+            TypedStringValue aString = (TypedStringValue) a;
+            TypedStringValue bString = (TypedStringValue) b;
+            return ObjectUtils.nullSafeEquals(aString.getValue(), bString.getValue())
+                    && ObjectUtils.nullSafeEquals(aString.getTargetTypeName(), bString.getTargetTypeName());
+        }
+        if (a instanceof BeanDefinitionHolder && b instanceof BeanDefinitionHolder) {
+            BeanDefinitionHolder aHolder = (BeanDefinitionHolder) a;
+            BeanDefinitionHolder bHolder = (BeanDefinitionHolder) b;
+            return aHolder.getBeanName().equals(bHolder.getBeanName())
+                    && sameDefinition(aHolder.getBeanDefinition(), bHolder.getBeanDefinition());
+        }
+        if (a instanceof BeanDefinition && b instanceof BeanDefinition) {
+            return sameDefinition((BeanDefinition) a, (BeanDefinition) b);
+        }
+        if (a instanceof Map && b instanceof Map) {
+            return sameValues(((Map<?, ?>) a).keySet(), ((Map<?, ?>) b).keySet())
+                    && sameValues(((Map<?, ?>) a).values(), ((Map<?, ?>) b).values());
+        }
+        if ((a instanceof List && b instanceof List) || (a instanceof Set && b instanceof Set)) {
+            return sameValues((Collection<?>) a, (Collection<?>) b);
+        }
+        return ObjectUtils.nullSafeEquals(a, b);
+    }
+
+    /**
+     * Compare the values of two (managed) collections in iteration order.
+     */
+    private static boolean sameValues(Collection<?> a, Collection<?> b) {
+
+        if (a.size() != b.size()) {
+            return false;
+        }
+        Iterator<?> bValues = b.iterator();
+        for (Object value : a) {
+            if (!sameValue(value, bValues.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.fallwizard.reload;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Scope of the beans that are rebuilt when the placeholder properties are reloaded.
+ *
+ * Declare a bean with scope="refresh" (plus &lt;aop:scoped-proxy/&gt; when it is injected into
+ * singletons).  On reload, new instances of the affected beans are built into a new generation
+ * which then replaces the current one in a single step: callers see either all old or all new
+ * instances, and if building fails the current instances stay in place.
+ */
+public class RefreshScope implements Scope {
+
+    public static final String NAME = "refresh";
+
+    private volatile Generation current = new Generation();
+
+    /**
+     * The generation being built by the reloading thread, so refreshable dependencies of a
+     * rebuilt bean come from the same generation.
+     */
+    private final ThreadLocal<Generation> building = new ThreadLocal<>();
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+
+        Generation generation = generation();
+        synchronized (generation) {
+            Object instance = generation.instances.get(name);
+            if (instance == null) {
+                instance = objectFactory.getObject();
+                generation.instances.put(name, instance);
+            }
+            return instance;
+        }
+    }
+
+    @Override
+    public Object remove(String name) {
+
+        Generation generation = generation();
+        synchronized (generation) {
+            generation.callbacks.remove(name);
+            return generation.instances.remove(name);
+        }
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+
+        Generation generation = generation();
+        synchronized (generation) {
+            generation.callbacks.put(name, callback);
+        }
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return NAME;
+    }
+
+    /**
+     * Rebuild the given beans and swap them in.  Beans that were never created are left to be
+     * created on first use.
+     * @param names Names of the beans whose definitions changed
+     * @param beanFactory Bean factory creating the new instances
+     */
+    public void refresh(Collection<String> names, BeanFactory beanFactory) {
+
+        Generation previous = current;
+        Generation next;
+        Map<String, Runnable> retired = new LinkedHashMap<>();
+
+        synchronized (previous) {
+            next = new Generation(previous);
+            for (String name : names) {
+                next.instances.remove(name);
+                Runnable callback = next.callbacks.remove(name);
+                if (callback != null) {
+                    retired.put(name, callback);
+                }
+            }
+        }
+
+        building.set(next);
+        try {
+            for (String name : names) {
+                if (previous.instances.containsKey(name)) {
+                    beanFactory.getBean(name);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Discard whatever was built; the current generation stays untouched.
+            for (String name : names) {
+                destroy(next.callbacks.get(name));
+            }
+            throw e;
+        } finally {
+            building.remove();
+        }
+
+        current = next;
+
+        for (Runnable callback : retired.values()) {
+            destroy(callback);
+        }
+    }
+
+    private Generation generation() {
+
+        Generation generation = building.get();
+        return generation != null ? generation : current;
+    }
+
+    private static void destroy(Runnable callback) {
+
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    private static final class Generation {
+
+        private final Map<String, Object> instances;
+
+        private final Map<String, Runnable> callbacks;
+
+        Generation() {
+            this.instances = new LinkedHashMap<>();
+            this.callbacks = new LinkedHashMap<>();
+        }
+
+        Generation(Generation previous) {
+            this.instances = new LinkedHashMap<>(previous.instances);
+            this.callbacks = new LinkedHashMap<>(previous.callbacks);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.fallwizard.reload;
+
+import com.google.common.collect.ImmutableMultimap;
+import io.dropwizard.servlets.tasks.Task;
+
+import java.io.PrintWriter;
+
+/**
+ * Admin task that reloads the placeholder properties and lists the reload history.
+ *
+ * Usage: POST /tasks/reload-properties[?history=true]
+ */
+public class ReloadPropertiesTask extends Task {
+
+    private final PropertyReloader reloader;
+
+    public ReloadPropertiesTask(PropertyReloader reloader) {
+        super("reload-properties");
+        this.reloader = reloader;
+    }
+
+    @Override
+    public void execute(ImmutableMultimap<String, String> parameters, PrintWriter output) throws Exception {
+
+        if (!parameters.containsKey("history")) {
+            output.println(reloader.reload("admin task"));
+            output.println();
+        }
+
+        output.println("History (newest first):");
+        for (ReloadResult result : reloader.getHistory()) {
+            output.println("  " + result);
+        }
+        output.flush();
+    }
+}
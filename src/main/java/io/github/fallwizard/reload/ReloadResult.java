@@ -0,0 +1,61 @@
+package io.github.fallwizard.reload;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Outcome of one property reload: what triggered it and which beans were rebuilt.
+ */
+public class ReloadResult {
+
+    private final Date time = new Date();
+
+    private final String trigger;
+
+    private final List<String> refreshedBeans;
+
+    private final long elapsedNanos;
+
+    private final String error;
+
+    public ReloadResult(String trigger, List<String> refreshedBeans, long elapsedNanos, String error) {
+        this.trigger = trigger;
+        this.refreshedBeans = Collections.unmodifiableList(refreshedBeans);
+        this.elapsedNanos = elapsedNanos;
+        this.error = error;
+    }
+
+    public Date getTime() {
+        return time;
+    }
+
+    public String getTrigger() {
+        return trigger;
+    }
+
+    public List<String> getRefreshedBeans() {
+        return refreshedBeans;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Why the reload failed, or null if it succeeded
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%tF %<tT %s: %s in %d ms, refreshed %s", time, trigger,
+                isSuccessful() ? "succeeded" : "failed (" + error + ")", elapsedNanos / 1000000, refreshedBeans);
+    }
+}
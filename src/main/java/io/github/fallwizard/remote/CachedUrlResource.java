@@ -0,0 +1,40 @@
+package io.github.fallwizard.remote;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * URL resource read through the {@link RemoteResourceCache}.  Relative resources (e.g. the
+ * imports of a context file) are read through the cache too.
+ */
+public class CachedUrlResource extends UrlResource {
+
+    private final URL url;
+
+    private final RemoteResourceCache cache;
+
+    public CachedUrlResource(URL url, RemoteResourceCache cache) {
+        super(url);
+        this.url = url;
+        this.cache = cache;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return cache.getInputStream(url);
+    }
+
+    @Override
+    public Resource createRelative(String relativePath) throws MalformedURLException {
+
+        if (relativePath.startsWith("/")) {
+            relativePath = relativePath.substring(1);
+        }
+        return new CachedUrlResource(new URL(url, relativePath), cache);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.fallwizard.remote;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * Resolves http(s) locations to {@link CachedUrlResource}s and everything else as an
+ * application context would.  Set as the resource loader of a context, it serves the context
+ * files, their imports and the placeholder locations.
+ */
+public class CachingResourceLoader implements ResourcePatternResolver {
+
+    private final RemoteResourceCache cache;
+
+    private final ClassLoader classLoader;
+
+    private final ResourcePatternResolver delegate;
+
+    public CachingResourceLoader(RemoteResourceCache cache, ClassLoader classLoader) {
+        this.cache = cache;
+        this.classLoader = classLoader;
+        this.delegate = new PathMatchingResourcePatternResolver(new DefaultResourceLoader(classLoader));
+    }
+
+    @Override
+    public Resource getResource(String location) {
+
+        if (!RemoteResourceCache.isRemote(location)) {
+            return delegate.getResource(location);
+        }
+
+        try {
+            return new CachedUrlResource(new URL(location), cache);
+        } catch (MalformedURLException e) {
+            return delegate.getResource(location);
+        }
+    }
+
+    @Override
+    public Resource[] getResources(String locationPattern) throws IOException {
+
+        if (RemoteResourceCache.isRemote(locationPattern)) {
+            return new Resource[] { getResource(locationPattern) };
+        }
+        return delegate.getResources(locationPattern);
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+}
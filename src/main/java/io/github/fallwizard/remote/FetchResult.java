@@ -0,0 +1,57 @@
+package io.github.fallwizard.remote;
+
+import java.io.File;
+
+/**
+ * Outcome of fetching one remote resource into the cache.
+ */
+public class FetchResult {
+
+    public enum Source {
+        /** The server sent the content. */
+        DOWNLOADED,
+        /** The server confirmed the cached copy (304 Not Modified). */
+        NOT_MODIFIED,
+        /** The server failed, the cached copy is used. */
+        STALE
+    }
+
+    private final String url;
+
+    private final Source source;
+
+    private final File file;
+
+    private final long elapsedNanos;
+
+    public FetchResult(String url, Source source, File file, long elapsedNanos) {
+        this.url = url;
+        this.source = source;
+        this.file = file;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * @return Local copy of the content
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s in %d ms (%d bytes)", url, source, elapsedNanos / 1000000, file.length());
+    }
+}
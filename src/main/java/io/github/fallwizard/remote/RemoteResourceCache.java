@@ -0,0 +1,358 @@
+package io.github.fallwizard.remote;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.fallwizard.configuration.RemoteResourcesConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * On-disk cache of http(s) resources.
+ *
+ * For every URL, a small properties file (named after a hash of the URL) records the ETag,
+ * Last-Modified, the content hash and when the server last vouched for the copy.  The
+ * content itself is stored under its SHA-256, shared by the URLs with identical content, and
+ * deleted once no URL points to it anymore.  Every fetch is a conditional request; if it
+ * fails, a copy vouched for within the staleness limit is used instead.
+ *
+ * Resources prefetched with {@link #prefetch}, or read since, are served from the cache
+ * without another request until {@link #clearPrefetched} is called.
+ */
+public class RemoteResourceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteResourceCache.class);
+
+    private final File directory;
+
+    private final File objects;
+
+    private final int threads;
+
+    private final int connectTimeoutMillis;
+
+    private final int readTimeoutMillis;
+
+    private final long maxStalenessMillis;
+
+    private final Map<String, FetchResult> prefetched = new ConcurrentHashMap<>();
+
+    private volatile boolean reusePrefetched = true;
+
+    private final Timer fetchTimer;
+
+    private final Meter downloaded;
+
+    private final Meter notModified;
+
+    private final Meter stale;
+
+    private final Meter failed;
+
+    public RemoteResourceCache(RemoteResourcesConfiguration configuration, MetricRegistry metrics) {
+        this.directory = configuration.getDirectory();
+        this.objects = new File(directory, "objects");
+        this.threads = configuration.getThreads();
+        this.connectTimeoutMillis = (int) configuration.getConnectTimeout().toMilliseconds();
+        this.readTimeoutMillis = (int) configuration.getReadTimeout().toMilliseconds();
+        this.maxStalenessMillis = configuration.getMaxStaleness().toMilliseconds();
+        this.fetchTimer = metrics.timer("fallwizard.remote.fetch");
+        this.downloaded = metrics.meter("fallwizard.remote.downloaded");
+        this.notModified = metrics.meter("fallwizard.remote.notModified");
+        this.stale = metrics.meter("fallwizard.remote.stale");
+        this.failed = metrics.meter("fallwizard.remote.failed");
+    }
+
+    /**
+     * @param location Resource location
+     * @return true for the http: and https: locations this cache handles
+     */
+    public static boolean isRemote(String location) {
+        return location.startsWith("http:") || location.startsWith("https:");
+    }
+
+    /**
+     * Fetch the remote locations concurrently.  Failures are logged, the resource will be
+     * fetched again (and fail properly) when it is read.
+     * @param locations Resource locations, non remote ones are ignored
+     * @return Results of the successful fetches, in the order of the locations
+     */
+    public List<FetchResult> prefetch(Collection<String> locations) {
+
+        Set<String> urls = new LinkedHashSet<>();
+        for (String location : locations) {
+            if (isRemote(location)) {
+                urls.add(location);
+            }
+        }
+        if (urls.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, urls.size()),
+                new ThreadFactoryBuilder().setNameFormat("fallwizard-remote-%d").setDaemon(true).build());
+
+        long start = System.nanoTime();
+        Map<String, Future<FetchResult>> fetches = new LinkedHashMap<>();
+        try {
+            for (final String url : urls) {
+                fetches.put(url, executor.submit(new Callable<FetchResult>() {
+                    @Override
+                    public FetchResult call() throws Exception {
+                        return fetch(new URL(url));
+                    }
+                }));
+            }
+
+            List<FetchResult> results = new ArrayList<>();
+            for (Map.Entry<String, Future<FetchResult>> fetch : fetches.entrySet()) {
+                try {
+                    FetchResult result = fetch.getValue().get();
+                    prefetched.put(fetch.getKey(), result);
+                    results.add(result);
+                    logger.info("Prefetched {}", result);
+                } catch (ExecutionException e) {
+                    logger.warn("Could not prefetch {}", fetch.getKey(), e.getCause());
+                }
+            }
+
+            logger.info("Prefetched {} of {} remote resources in {} ms",
+                    results.size(), urls.size(), (System.nanoTime() - start) / 1000000);
+            return results;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while prefetching remote resources", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param url Resource URL
+     * @return The content: the prefetched copy, or the result of a new (conditional) fetch
+     * @throws IOException if the server fails and there is no usable copy
+     */
+    public InputStream getInputStream(URL url) throws IOException {
+
+        FetchResult result = prefetched.get(url.toString());
+        if (result == null) {
+            result = fetch(url);
+            // Resources found while loading (e.g. imports) are also read once per start
+            if (reusePrefetched) {
+                prefetched.put(url.toString(), result);
+            }
+        }
+        return new FileInputStream(result.getFile());
+    }
+
+    /**
+     * Stop serving the prefetched copies: from now on every read revalidates with the server.
+     */
+    public void clearPrefetched() {
+        reusePrefetched = false;
+        prefetched.clear();
+    }
+
+    /**
+     * Fetch a resource with a conditional request, falling back to the cached copy.
+     * @param url Resource URL
+     * @return Fetch result
+     * @throws IOException if the server fails and there is no copy within the staleness limit
+     */
+    public FetchResult fetch(URL url) throws IOException {
+
+        Timer.Context timer = fetchTimer.time();
+        long start = System.nanoTime();
+        File entryFile = new File(directory, Hashing.sha1().hashString(url.toString(), StandardCharsets.UTF_8) + ".properties");
+        Properties entry = readEntry(entryFile);
+
+        try {
+            URLConnection connection = url.openConnection();
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setUseCaches(false);
+            if (entry != null) {
+                if (entry.getProperty("etag") != null) {
+                    connection.setRequestProperty("If-None-Match", entry.getProperty("etag"));
+                }
+                if (entry.getProperty("lastModified") != null) {
+                    connection.setRequestProperty("If-Modified-Since", entry.getProperty("lastModified"));
+                }
+            }
+
+            if (connection instanceof HttpURLConnection) {
+                int status = ((HttpURLConnection) connection).getResponseCode();
+                if (status == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+                    entry.setProperty("validated", String.valueOf(System.currentTimeMillis()));
+                    writeEntry(entryFile, entry);
+                    notModified.mark();
+                    return new FetchResult(url.toString(), FetchResult.Source.NOT_MODIFIED,
+                            objectFile(entry), System.nanoTime() - start);
+                }
+                if (status != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Server returned " + status + " for " + url);
+                }
+            }
+
+            byte[] content;
+            try (InputStream in = connection.getInputStream()) {
+                content = ByteStreams.toByteArray(in);
+            }
+
+            Properties updated = new Properties();
+            updated.setProperty("url", url.toString());
+            updated.setProperty("sha256", Hashing.sha256().hashBytes(content).toString());
+            updated.setProperty("validated", String.valueOf(System.currentTimeMillis()));
+            if (connection.getHeaderField("ETag") != null) {
+                updated.setProperty("etag", connection.getHeaderField("ETag"));
+            }
+            if (connection.getHeaderField("Last-Modified") != null) {
+                updated.setProperty("lastModified", connection.getHeaderField("Last-Modified"));
+            }
+
+            File object = objectFile(updated);
+            synchronized (objects) {
+                if (!object.isFile()) {
+                    write(object, content);
+                }
+                writeEntry(entryFile, updated);
+                if (entry != null && !entry.getProperty("sha256").equals(updated.getProperty("sha256"))) {
+                    deleteIfUnreferenced(entry.getProperty("sha256"));
+                }
+            }
+
+            downloaded.mark();
+            return new FetchResult(url.toString(), FetchResult.Source.DOWNLOADED, object, System.nanoTime() - start);
+
+        } catch (IOException e) {
+
+            if (entry != null) {
+                long age = System.currentTimeMillis() - Long.parseLong(entry.getProperty("validated"));
+                if (age <= maxStalenessMillis) {
+                    logger.warn("Could not fetch {} ({}), using the copy from {} s ago", url, e.getMessage(), age / 1000);
+                    stale.mark();
+                    return new FetchResult(url.toString(), FetchResult.Source.STALE,
+                            objectFile(entry), System.nanoTime() - start);
+                }
+                logger.warn("Could not fetch {}, the cached copy is too old ({} s)", url, age / 1000);
+            }
+            failed.mark();
+            throw e;
+
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Objects are shared by the URLs with identical content: only delete an object once no
+     * entry points to it anymore.  Called with the lock on the objects directory held.
+     */
+    private void deleteIfUnreferenced(String sha256) {
+
+        File[] entryFiles = directory.listFiles();
+        if (entryFiles == null) {
+            return;
+        }
+        for (File entryFile : entryFiles) {
+            if (entryFile.getName().endsWith(".properties")) {
+                Properties other = readEntry(entryFile);
+                if (other != null && sha256.equals(other.getProperty("sha256"))) {
+                    return;
+                }
+            }
+        }
+        if (!new File(objects, sha256).delete()) {
+            logger.debug("Could not delete the cached content {}", sha256);
+        }
+    }
+
+    private File objectFile(Properties entry) {
+        return new File(objects, entry.getProperty("sha256"));
+    }
+
+    /**
+     * @return The entry, or null if there is none or its content is missing
+     */
+    private Properties readEntry(File entryFile) {
+
+        if (!entryFile.isFile()) {
+            return null;
+        }
+
+        Properties entry = new Properties();
+        try (InputStream in = new FileInputStream(entryFile)) {
+            entry.load(in);
+        } catch (IOException e) {
+            logger.warn("Could not read {}, ignoring the cached copy", entryFile, e);
+            return null;
+        }
+
+        if (entry.getProperty("sha256") == null || entry.getProperty("validated") == null
+                || !objectFile(entry).isFile()) {
+            return null;
+        }
+        return entry;
+    }
+
+    private void writeEntry(File entryFile, Properties entry) throws IOException {
+
+        try (ByteArrayOutputStream buffer = new ByteArrayOutputStream()) {
+            entry.store(buffer, null);
+            write(entryFile, buffer.toByteArray());
+        }
+    }
+
+    /**
+     * Write to a temporary file and rename, so concurrent starts never read half a file.
+     */
+    private void write(File file, byte[] content) throws IOException {
+
+        File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+
+        File temporary = File.createTempFile(file.getName(), ".tmp", parent);
+        try (OutputStream out = new FileOutputStream(temporary)) {
+            out.write(content);
+        }
+        if (!temporary.renameTo(file)) {
+            file.delete();
+            if (!temporary.renameTo(file)) {
+                temporary.delete();
+                throw new IOException("Cannot rename " + temporary + " to " + file);
+            }
+        }
+    }
+}
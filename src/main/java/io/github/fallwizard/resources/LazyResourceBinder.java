@@ -0,0 +1,37 @@
+package io.github.fallwizard.resources;
+
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binds each lazily registered resource class to its {@link SpringResourceFactory}, so Jersey
+ * asks Spring for the instance instead of constructing the class itself.
+ */
+public class LazyResourceBinder extends AbstractBinder {
+
+    private final List<SpringResourceFactory<?>> factories = new ArrayList<>();
+
+    public void add(SpringResourceFactory<?> factory) {
+        factories.add(factory);
+    }
+
+    public List<SpringResourceFactory<?>> getFactories() {
+        return Collections.unmodifiableList(factories);
+    }
+
+    @Override
+    protected void configure() {
+
+        for (SpringResourceFactory<?> factory : factories) {
+            bind(factory);
+        }
+    }
+
+    private <T> void bind(SpringResourceFactory<T> factory) {
+
+        bindFactory(factory).to(factory.getResourceClass());
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.fallwizard.resources;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+
+import javax.ws.rs.Path;
+
+/**
+ * Marks the singleton bean definitions of @Path annotated classes as lazy-init,
+ * so the context refresh does not create resources (and their dependencies).
+ *
+ * Definitions that use a factory method, or whose class cannot be resolved,
+ * are left untouched.
+ */
+public class LazyResourcePostProcessor implements BeanFactoryPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyResourcePostProcessor.class);
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+
+            if (!(definition instanceof AbstractBeanDefinition)
+                    || definition.isAbstract()
+                    || !definition.isSingleton()
+                    || definition.isLazyInit()
+                    || definition.getFactoryMethodName() != null
+                    || definition.getBeanClassName() == null) {
+                continue;
+            }
+
+            Class<?> beanClass;
+            try {
+                beanClass = ClassUtils.forName(definition.getBeanClassName(), beanFactory.getBeanClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                logger.debug("Cannot resolve class of bean '{}', leaving it eager.", beanName);
+                continue;
+            }
+
+            if (AnnotationUtils.findAnnotation(beanClass, Path.class) != null) {
+                ((AbstractBeanDefinition) definition).setLazyInit(true);
+                logger.debug("Resource bean '{}' will be created lazily.", beanName);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.fallwizard.resources;
+
+import io.dropwizard.lifecycle.ServerLifecycleListener;
+import io.dropwizard.util.Duration;
+import org.eclipse.jetty.server.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the lazily registered resource beans in the background once Jetty is
+ * accepting traffic, so the first request to a resource does not pay for its creation.
+ */
+public class ResourceWarmUp implements ServerLifecycleListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceWarmUp.class);
+
+    private final List<SpringResourceFactory<?>> factories;
+
+    private final ScheduledExecutorService executor;
+
+    private final Duration delay;
+
+    public ResourceWarmUp(List<SpringResourceFactory<?>> factories, ScheduledExecutorService executor, Duration delay) {
+        this.factories = factories;
+        this.executor = executor;
+        this.delay = delay;
+    }
+
+    @Override
+    public void serverStarted(Server server) {
+
+        logger.info("Warming up {} lazy resources in {}", factories.size(), delay);
+
+        for (final SpringResourceFactory<?> factory : factories) {
+
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    warmUp(factory);
+                }
+            }, delay.toMilliseconds(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void warmUp(SpringResourceFactory<?> factory) {
+
+        long start = System.nanoTime();
+        try {
+            factory.provide();
+            logger.info("Warmed up resource '{}' in {} ms", factory.getBeanName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            // The first request will retry (and report) the creation.
+            logger.warn("Failed to warm up resource '{}'", factory.getBeanName(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.fallwizard.resources;
+
+import org.glassfish.hk2.api.Factory;
+import org.springframework.beans.factory.BeanFactory;
+
+/**
+ * HK2 factory that hands Jersey the Spring bean for a resource class.  The bean is
+ * looked up on every request, so it is created on the first one and Spring's scope
+ * (singleton or prototype) decides whether the instance is shared.
+ */
+public class SpringResourceFactory<T> implements Factory<T> {
+
+    private final BeanFactory beanFactory;
+
+    private final String beanName;
+
+    private final Class<T> resourceClass;
+
+    public SpringResourceFactory(BeanFactory beanFactory, String beanName, Class<T> resourceClass) {
+        this.beanFactory = beanFactory;
+        this.beanName = beanName;
+        this.resourceClass = resourceClass;
+    }
+
+    @Override
+    public T provide() {
+        return beanFactory.getBean(beanName, resourceClass);
+    }
+
+    @Override
+    public void dispose(T instance) {
+        // Spring owns the lifecycle of the bean.
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public Class<T> getResourceClass() {
+        return resourceClass;
+    }
+}
@@ -0,0 +1,371 @@
+package io.github.fallwizard.scheduling;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.MapMaker;
+import io.dropwizard.lifecycle.Managed;
+import io.github.fallwizard.configuration.SchedulerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TaskScheduler of the Spring scheduled jobs, instrumented and started and stopped by Dropwizard.
+ *
+ * Jobs scheduled while the contexts refresh are held until {@link #start()}, so no job runs
+ * before the Managed beans it may use are started.  A job is a method of a bean instance, named
+ * after the bean (bean.method) for @Scheduled methods and &lt;task:scheduled&gt; elements, after
+ * its class otherwise; see {@link ScheduledJob} for the metrics.  On stop, no run starts anymore
+ * and running ones may finish until the shutdown timeout.
+ */
+public class ManagedTaskScheduler implements TaskScheduler, Managed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedTaskScheduler.class);
+
+    private final SchedulerConfiguration configuration;
+
+    private final MetricRegistry metrics;
+
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    // Jobs by bean instance (identity) and method
+    private final Map<Object, Map<Method, ScheduledJob>> methodJobs = new IdentityHashMap<>();
+
+    // Jobs of other tasks, by task instance
+    private final Map<Runnable, ScheduledJob> taskJobs = new IdentityHashMap<>();
+
+    // Job names taken, to keep the metrics of distinct jobs apart
+    private final Map<String, Integer> names = new HashMap<>();
+
+    // Names of the beans, recorded by the SchedulerPostProcessor (weak keys compare by identity)
+    private final ConcurrentMap<Object, String> beanNames = new MapMaker().weakKeys().makeMap();
+
+    private final Object lock = new Object();
+
+    // Schedules waiting for start (null once started)
+    private List<DeferredSchedule> pending = new ArrayList<>();
+
+    public ManagedTaskScheduler(SchedulerConfiguration configuration, MetricRegistry metrics) {
+        this.configuration = configuration;
+        this.metrics = metrics;
+
+        scheduler.setPoolSize(configuration.getPoolSize());
+        scheduler.setThreadNamePrefix("fallwizard-scheduler-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        // Creates no thread until a job is actually scheduled, in start()
+        scheduler.initialize();
+    }
+
+    /**
+     * @param bean Bean which may have scheduled methods
+     * @param beanName Its name, used to name its jobs
+     */
+    void registerBeanName(Object bean, String beanName) {
+        beanNames.put(bean, beanName);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable task, final Trigger trigger) {
+
+        return submit(new DeferredSchedule(task, 0) {
+            @Override
+            ScheduledFuture<?> schedule(ScheduledJob job) {
+                MonitoredTrigger monitoredTrigger = new MonitoredTrigger(trigger, job);
+                MonitoredTask monitoredTask = new MonitoredTask(job, task, 0, 0, false);
+                monitoredTrigger.setTask(monitoredTask);
+                return scheduler.schedule(monitoredTask, monitoredTrigger);
+            }
+        });
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable task, final Date startTime) {
+
+        return submit(new DeferredSchedule(task, startTime.getTime()) {
+            @Override
+            ScheduledFuture<?> schedule(ScheduledJob job) {
+                return scheduler.schedule(new MonitoredTask(job, task, startTime.getTime(), 0, false), startTime);
+            }
+        });
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final Date startTime, final long period) {
+
+        return submit(new DeferredSchedule(task, startTime.getTime()) {
+            @Override
+            ScheduledFuture<?> schedule(ScheduledJob job) {
+                Date start = notBefore(startTime);
+                return scheduler.scheduleAtFixedRate(
+                        new MonitoredTask(job, task, start.getTime(), period, true), start, period);
+            }
+        });
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final long period) {
+
+        return submit(new DeferredSchedule(task, 0) {
+            @Override
+            ScheduledFuture<?> schedule(ScheduledJob job) {
+                return scheduler.scheduleAtFixedRate(
+                        new MonitoredTask(job, task, System.currentTimeMillis(), period, true), period);
+            }
+        });
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final Date startTime, final long delay) {
+
+        return submit(new DeferredSchedule(task, startTime.getTime()) {
+            @Override
+            ScheduledFuture<?> schedule(ScheduledJob job) {
+                Date start = notBefore(startTime);
+                return scheduler.scheduleWithFixedDelay(
+                        new MonitoredTask(job, task, start.getTime(), delay, false), start, delay);
+            }
+        });
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable task, final long delay) {
+
+        return submit(new DeferredSchedule(task, 0) {
+            @Override
+            ScheduledFuture<?> schedule(ScheduledJob job) {
+                return scheduler.scheduleWithFixedDelay(
+                        new MonitoredTask(job, task, System.currentTimeMillis(), delay, false), delay);
+            }
+        });
+    }
+
+    @Override
+    public void start() throws Exception {
+
+        List<DeferredSchedule> schedules;
+        synchronized (lock) {
+            schedules = pending;
+            pending = null;
+        }
+        if (schedules == null) {
+            return;
+        }
+
+        for (DeferredSchedule schedule : schedules) {
+            schedule.start();
+        }
+        logger.info("Started {} scheduled jobs", schedules.size());
+    }
+
+    @Override
+    public void stop() throws Exception {
+
+        // Never started: the held schedules never run
+        List<DeferredSchedule> schedules;
+        synchronized (lock) {
+            schedules = pending;
+            pending = null;
+        }
+        if (schedules != null) {
+            for (DeferredSchedule schedule : schedules) {
+                schedule.cancel(false);
+            }
+        }
+
+        ScheduledExecutorService executor = scheduler.getScheduledExecutor();
+
+        // Periodic runs are cancelled, running ones continue
+        executor.shutdown();
+        if (!executor.awaitTermination(configuration.getShutdownTimeout().toNanoseconds(), TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+            logger.warn("Scheduled jobs did not finish within {}, interrupted them", configuration.getShutdownTimeout());
+        }
+    }
+
+    /**
+     * Periodic schedules held past their start time start when the scheduler does, rather than
+     * reporting the wait as lag (and skipping fixed-rate runs as missed).
+     */
+    private static Date notBefore(Date startTime) {
+
+        long now = System.currentTimeMillis();
+        return startTime.getTime() < now ? new Date(now) : startTime;
+    }
+
+    private ScheduledFuture<?> submit(DeferredSchedule schedule) {
+
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(schedule);
+                return schedule;
+            }
+        }
+        schedule.start();
+        return schedule;
+    }
+
+    private ScheduledJob getJob(Runnable task) {
+
+        synchronized (lock) {
+            if (task instanceof ScheduledMethodRunnable) {
+                ScheduledMethodRunnable method = (ScheduledMethodRunnable) task;
+                Map<Method, ScheduledJob> jobs = methodJobs.get(method.getTarget());
+                if (jobs == null) {
+                    jobs = new HashMap<>();
+                    methodJobs.put(method.getTarget(), jobs);
+                }
+                ScheduledJob job = jobs.get(method.getMethod());
+                if (job == null) {
+                    String beanName = beanNames.get(method.getTarget());
+                    String owner = beanName != null ? beanName : ClassUtils.getUserClass(method.getTarget()).getName();
+                    job = createJob(owner + "." + method.getMethod().getName());
+                    jobs.put(method.getMethod(), job);
+                }
+                return job;
+            }
+
+            ScheduledJob job = taskJobs.get(task);
+            if (job == null) {
+                job = createJob(ClassUtils.getUserClass(task).getName());
+                taskJobs.put(task, job);
+            }
+            return job;
+        }
+    }
+
+    /**
+     * Called with the lock held.
+     */
+    private ScheduledJob createJob(String name) {
+
+        Integer taken = names.get(name);
+        names.put(name, taken == null ? 1 : taken + 1);
+        String unique = taken == null ? name : name + "-" + (taken + 1);
+
+        logger.info("Scheduling job {}", unique);
+        return new ScheduledJob(unique, configuration.isPreventOverlap(), metrics);
+    }
+
+    /**
+     * A schedule requested before start: the future of the actual schedule once started.
+     */
+    private abstract class DeferredSchedule implements ScheduledFuture<Object> {
+
+        private final Runnable task;
+
+        private final long firstRun;
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private volatile ScheduledFuture<?> delegate;
+
+        private volatile boolean cancelled;
+
+        /**
+         * @param task Task to schedule
+         * @param firstRun When the first run is due (epoch milliseconds, 0 if as soon as started)
+         */
+        DeferredSchedule(Runnable task, long firstRun) {
+            this.task = task;
+            this.firstRun = firstRun;
+        }
+
+        abstract ScheduledFuture<?> schedule(ScheduledJob job);
+
+        void start() {
+
+            synchronized (this) {
+                if (!cancelled) {
+                    delegate = schedule(getJob(task));
+                }
+            }
+            started.countDown();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+
+            synchronized (this) {
+                if (delegate == null) {
+                    boolean wasCancelled = cancelled;
+                    cancelled = true;
+                    started.countDown();
+                    return !wasCancelled;
+                }
+            }
+            return delegate.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            ScheduledFuture<?> future = delegate;
+            return future == null ? cancelled : future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            ScheduledFuture<?> future = delegate;
+            return future == null ? cancelled : future.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+
+            started.await();
+            if (delegate == null) {
+                throw new CancellationException();
+            }
+            return delegate.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            if (!started.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            if (delegate == null) {
+                throw new CancellationException();
+            }
+            return delegate.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+
+            ScheduledFuture<?> future = delegate;
+            if (future != null) {
+                return future.getDelay(unit);
+            }
+            return unit.convert(Math.max(0, firstRun - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+
+            long difference = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+            return difference < 0 ? -1 : difference > 0 ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.fallwizard.scheduling;
+
+/**
+ * One schedule of a job: knows when each run is due, to report the lag and to skip the
+ * fixed-rate runs that became due while a run overran.
+ */
+class MonitoredTask implements Runnable {
+
+    private final ScheduledJob job;
+
+    private final Runnable task;
+
+    private final long period;
+
+    private final boolean fixedRate;
+
+    private volatile long expected;
+
+    /**
+     * @param job Job the task belongs to
+     * @param task Task to run
+     * @param firstRun When the first run is due (epoch milliseconds)
+     * @param period Period in milliseconds (0 if not periodic)
+     * @param fixedRate Whether runs are due every period (rather than a period after the last one)
+     */
+    MonitoredTask(ScheduledJob job, Runnable task, long firstRun, long period, boolean fixedRate) {
+        this.job = job;
+        this.task = task;
+        this.expected = firstRun;
+        this.period = period;
+        this.fixedRate = fixedRate;
+    }
+
+    @Override
+    public void run() {
+
+        long due = expected;
+        if (fixedRate) {
+            expected = due + period;
+            // Due a full period ago: the previous run overran, this is a catch-up run
+            if (job.isPreventOverlap() && System.currentTimeMillis() - due >= period) {
+                job.missed();
+                return;
+            }
+        }
+
+        try {
+            job.run(task, due, fixedRate ? period : 0);
+        } finally {
+            if (!fixedRate && period > 0) {
+                expected = System.currentTimeMillis() + period;
+            }
+        }
+    }
+
+    /**
+     * @param due When the next run is due (for trigger based schedules)
+     */
+    void setExpected(long due) {
+        this.expected = due;
+    }
+}
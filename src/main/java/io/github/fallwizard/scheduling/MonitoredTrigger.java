@@ -0,0 +1,51 @@
+package io.github.fallwizard.scheduling;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.util.Date;
+
+/**
+ * Trigger (e.g. cron) telling its task when runs are due, and reporting the runs which
+ * ended after the next one should have started: the trigger silently skips those.
+ */
+class MonitoredTrigger implements Trigger {
+
+    private final Trigger trigger;
+
+    private final ScheduledJob job;
+
+    private MonitoredTask task;
+
+    MonitoredTrigger(Trigger trigger, ScheduledJob job) {
+        this.trigger = trigger;
+        this.job = job;
+    }
+
+    void setTask(MonitoredTask task) {
+        this.task = task;
+    }
+
+    @Override
+    public Date nextExecutionTime(TriggerContext context) {
+
+        Date scheduled = context.lastScheduledExecutionTime();
+        Date completion = context.lastCompletionTime();
+        if (scheduled != null && completion != null) {
+            // When the next run was due had the last one finished at once
+            Date due = trigger.nextExecutionTime(new SimpleTriggerContext(scheduled, scheduled, scheduled));
+            if (due != null && completion.after(due)) {
+                job.overrun("finished at " + completion + ", next run was due at " + due);
+            } else {
+                job.onSchedule();
+            }
+        }
+
+        Date next = trigger.nextExecutionTime(context);
+        if (next != null) {
+            task.setExpected(next.getTime());
+        }
+        return next;
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.fallwizard.scheduling;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Metrics and overlap guard of a job, shared by every schedule of it.
+ *
+ * Publishes, under fallwizard.scheduler.&lt;job&gt;: a duration timer, a lag gauge (how late the
+ * last run started, in milliseconds), and overruns (runs outlasting their period),
+ * missed (runs skipped) and failures meters.
+ */
+public class ScheduledJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJob.class);
+
+    private final String name;
+
+    private final boolean preventOverlap;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Timer duration;
+
+    private final Meter overruns;
+
+    private final Meter missed;
+
+    private final Meter failures;
+
+    private volatile long lag;
+
+    private volatile boolean overrunning;
+
+    public ScheduledJob(String name, boolean preventOverlap, MetricRegistry metrics) {
+        this.name = name;
+        this.preventOverlap = preventOverlap;
+
+        String prefix = MetricRegistry.name("fallwizard.scheduler", name);
+        this.duration = metrics.timer(MetricRegistry.name(prefix, "duration"));
+        this.overruns = metrics.meter(MetricRegistry.name(prefix, "overruns"));
+        this.missed = metrics.meter(MetricRegistry.name(prefix, "missed"));
+        this.failures = metrics.meter(MetricRegistry.name(prefix, "failures"));
+        metrics.register(MetricRegistry.name(prefix, "lag"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return lag;
+            }
+        });
+    }
+
+    /**
+     * Run the task unless the previous run is still going (with overlap prevention).
+     * @param task Task to run
+     * @param expected When the run was due (epoch milliseconds, 0 if unknown)
+     * @param period Period of the schedule in milliseconds (0 if not periodic)
+     * @return false if the run was skipped
+     */
+    boolean run(Runnable task, long expected, long period) {
+
+        long start = System.currentTimeMillis();
+        lag = expected > 0 ? Math.max(0, start - expected) : 0;
+
+        boolean exclusive = running.compareAndSet(false, true);
+        if (!exclusive && preventOverlap) {
+            missed();
+            return false;
+        }
+
+        Timer.Context timer = duration.time();
+        try {
+            task.run();
+        } catch (RuntimeException | Error e) {
+            failures.mark();
+            throw e;
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(timer.stop());
+            if (exclusive) {
+                running.set(false);
+            }
+            // Trigger based schedules are checked by their MonitoredTrigger
+            if (period > 0 && elapsed > period) {
+                overrun(elapsed + " ms, period " + period + " ms");
+            } else if (period > 0) {
+                onSchedule();
+            }
+        }
+        return true;
+    }
+
+    void overrun(String detail) {
+
+        overruns.mark();
+        // Logged once, until the job is back on schedule
+        if (!overrunning) {
+            overrunning = true;
+            logger.warn("Scheduled job {} overran its schedule ({})", name, detail);
+        }
+    }
+
+    void onSchedule() {
+
+        if (overrunning) {
+            overrunning = false;
+            logger.info("Scheduled job {} is back on schedule", name);
+        }
+    }
+
+    void missed() {
+        missed.mark();
+        logger.debug("Skipped a run of scheduled job {}", name);
+    }
+
+    boolean isPreventOverlap() {
+        return preventOverlap;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
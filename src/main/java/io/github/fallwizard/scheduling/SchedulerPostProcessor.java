@@ -0,0 +1,50 @@
+package io.github.fallwizard.scheduling;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Hands the managed scheduler to the task registrars which have no scheduler: the one of
+ * @Scheduled methods (as a SchedulingConfigurer bean) and those of &lt;task:scheduled-tasks&gt;
+ * (as a BeanPostProcessor).  A scheduler named in the context files is left alone.  Also
+ * records the bean names, which the scheduler names the jobs after.
+ */
+public class SchedulerPostProcessor implements BeanPostProcessor, SchedulingConfigurer {
+
+    private final ManagedTaskScheduler scheduler;
+
+    public SchedulerPostProcessor(ManagedTaskScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        setScheduler(taskRegistrar);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+
+        if (bean instanceof ScheduledTaskRegistrar) {
+            setScheduler((ScheduledTaskRegistrar) bean);
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+        // Names the jobs of the bean (those of a proxy created later are named after its class)
+        scheduler.registerBeanName(bean, beanName);
+        return bean;
+    }
+
+    private void setScheduler(ScheduledTaskRegistrar taskRegistrar) {
+
+        if (taskRegistrar.getScheduler() == null) {
+            taskRegistrar.setTaskScheduler(scheduler);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.fallwizard.security;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Servlet filter in front of the Spring Security filter chain.  Requests whose servlet path
+ * (decoded and normalized by the container) is one of the bypass prefixes, or below one, go
+ * straight to the rest of the servlet chain; all others are handed to the security filters
+ * and timed.  Requests with dot segments, path parameters or encoded separators in their URI
+ * are never bypassed.
+ *
+ * Like DelegatingFilterProxy, the lifecycle of the Spring-managed filter is left to Spring.
+ */
+public class BypassingSecurityFilter implements Filter {
+
+    private final Filter delegate;
+
+    private final String[] bypassPrefixes;
+
+    private final Timer filtered;
+
+    private final Meter bypassed;
+
+    public BypassingSecurityFilter(Filter delegate, List<String> bypassPrefixes, MetricRegistry registry) {
+        this.delegate = delegate;
+        this.bypassPrefixes = normalize(bypassPrefixes);
+        this.filtered = registry.timer(MetricRegistry.name(SecurityFilterTimer.METRIC_PREFIX, "chain"));
+        this.bypassed = registry.meter(MetricRegistry.name(SecurityFilterTimer.METRIC_PREFIX, "bypassed"));
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {}
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (request instanceof HttpServletRequest && shouldBypass((HttpServletRequest) request)) {
+            bypassed.mark();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Timer.Context context = filtered.time();
+        try {
+            delegate.doFilter(request, response, chain);
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Override
+    public void destroy() {}
+
+    private boolean shouldBypass(HttpServletRequest request) {
+
+        if (bypassPrefixes.length == 0) {
+            return false;
+        }
+
+        // Whatever the container would normalize differently than a prefix check expects
+        // (dot segments, path parameters, encoded separators) goes through security.
+        String uri = request.getRequestURI();
+        if (uri == null || isAmbiguous(uri)) {
+            return false;
+        }
+
+        // Decoded and normalized by the container, the path Jetty actually serves
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path = (path == null ? "" : path) + request.getPathInfo();
+        }
+        if (path == null) {
+            return false;
+        }
+
+        for (String prefix : bypassPrefixes) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAmbiguous(String uri) {
+
+        String lower = uri.toLowerCase(Locale.ROOT);
+        return lower.contains("..") || lower.contains(";") || lower.contains("\\")
+                || lower.contains("%2f") || lower.contains("%5c") || lower.contains("%2e");
+    }
+
+    /**
+     * Bypass prefixes match whole path segments, so "/assets/" and "/assets" both stand for
+     * "/assets" and everything below it, never "/assetsfoo".
+     */
+    private static String[] normalize(List<String> prefixes) {
+
+        List<String> normalized = new ArrayList<>();
+        for (String prefix : prefixes) {
+            String trimmed = prefix;
+            while (trimmed.endsWith("/")) {
+                trimmed = trimmed.substring(0, trimmed.length() - 1);
+            }
+            normalized.add(trimmed);
+        }
+        return normalized.toArray(new String[normalized.size()]);
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.fallwizard.security;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Caches the principals of successfully authenticated credentials, so repeat callers skip the
+ * user store.  The cache is bounded and expires entries as configured by a CacheBuilderSpec.
+ *
+ * Entries are keyed by a SHA-256 digest of the credentials, so passwords are not retained.
+ * Hits, misses, evictions, lookup time and size are published to the MetricRegistry.
+ */
+public class CachingUserDetailsAuthenticator implements Authenticator<BasicCredentials, UserDetails> {
+
+    private final Authenticator<BasicCredentials, UserDetails> delegate;
+
+    private final Cache<CacheKey, UserDetails> cache;
+
+    private final Meter hits;
+
+    private final Meter misses;
+
+    private final Meter evictions;
+
+    private final Timer lookups;
+
+    public CachingUserDetailsAuthenticator(MetricRegistry registry,
+                                           Authenticator<BasicCredentials, UserDetails> delegate,
+                                           CacheBuilderSpec cacheSpec) {
+        this.delegate = delegate;
+        this.hits = registry.meter(MetricRegistry.name(getClass(), "hits"));
+        this.misses = registry.meter(MetricRegistry.name(getClass(), "misses"));
+        this.evictions = registry.meter(MetricRegistry.name(getClass(), "evictions"));
+        this.lookups = registry.timer(MetricRegistry.name(getClass(), "lookups"));
+        this.cache = CacheBuilder.from(cacheSpec)
+                .removalListener(new RemovalListener<CacheKey, UserDetails>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<CacheKey, UserDetails> notification) {
+                        if (notification.wasEvicted()) {
+                            evictions.mark();
+                        }
+                    }
+                })
+                .build();
+
+        String sizeName = MetricRegistry.name(getClass(), "size");
+        registry.remove(sizeName);
+        registry.register(sizeName, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return cache.size();
+            }
+        });
+    }
+
+    @Override
+    public Optional<UserDetails> authenticate(BasicCredentials credentials) throws AuthenticationException {
+
+        CacheKey key = new CacheKey(credentials);
+
+        UserDetails cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.mark();
+            return Optional.of(cached);
+        }
+
+        misses.mark();
+
+        Optional<UserDetails> principal;
+        Timer.Context context = lookups.time();
+        try {
+            principal = delegate.authenticate(credentials);
+        } finally {
+            context.stop();
+        }
+
+        // Rejections are not cached, so new or unlocked users are not refused until expiry.
+        if (principal.isPresent()) {
+            cache.put(key, principal.get());
+        }
+        return principal;
+    }
+
+    /**
+     * Discard the cached principals of one user.
+     * @param username Name of the user
+     */
+    public void invalidate(String username) {
+
+        Iterator<CacheKey> keys = cache.asMap().keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().username.equals(username)) {
+                keys.remove();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private static final class CacheKey {
+
+        private final String username;
+
+        private final HashCode digest;
+
+        CacheKey(BasicCredentials credentials) {
+            this.username = credentials.getUsername();
+            this.digest = Hashing.sha256().newHasher()
+                    .putString(credentials.getUsername(), StandardCharsets.UTF_8)
+                    .putByte((byte) 0)
+                    .putString(credentials.getPassword(), StandardCharsets.UTF_8)
+                    .hash();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CacheKey && digest.equals(((CacheKey) other).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return digest.hashCode();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.fallwizard.security;
+
+import com.google.common.collect.ImmutableMultimap;
+import io.dropwizard.servlets.tasks.Task;
+
+import java.io.PrintWriter;
+
+/**
+ * Admin task that flushes the authentication cache, for all users or the given ones.
+ *
+ * Usage: POST /tasks/flush-authentication-cache[?user=name]
+ */
+public class FlushAuthenticationCacheTask extends Task {
+
+    private final CachingUserDetailsAuthenticator authenticator;
+
+    public FlushAuthenticationCacheTask(CachingUserDetailsAuthenticator authenticator) {
+        super("flush-authentication-cache");
+        this.authenticator = authenticator;
+    }
+
+    @Override
+    public void execute(ImmutableMultimap<String, String> parameters, PrintWriter output) throws Exception {
+
+        long before = authenticator.size();
+
+        if (parameters.containsKey("user")) {
+            for (String username : parameters.get("user")) {
+                authenticator.invalidate(username);
+            }
+        } else {
+            authenticator.invalidateAll();
+        }
+
+        output.printf("Flushed %d cached credentials%n", before - authenticator.size());
+        output.flush();
+    }
+}
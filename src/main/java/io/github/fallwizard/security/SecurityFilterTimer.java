@@ -0,0 +1,115 @@
+package io.github.fallwizard.security;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps every filter of a FilterChainProxy in a timer, so the cost of each security filter is
+ * published as "fallwizard.security.filters.&lt;chain&gt;.&lt;filter&gt;".  The timers record the
+ * time spent in the filter itself, not in the filters and servlet it passes the request on to.
+ *
+ * The filters are replaced in place, so the FilterChainProxy keeps its firewall and matchers.
+ */
+public class SecurityFilterTimer {
+
+    static final String METRIC_PREFIX = "fallwizard.security";
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityFilterTimer.class);
+
+    private final MetricRegistry registry;
+
+    public SecurityFilterTimer(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param filterChainProxy Security filter chain to instrument
+     */
+    public void instrument(FilterChainProxy filterChainProxy) {
+
+        int chainIndex = 0;
+        for (SecurityFilterChain chain : filterChainProxy.getFilterChains()) {
+
+            try {
+                ListIterator<Filter> filters = chain.getFilters().listIterator();
+                while (filters.hasNext()) {
+                    Filter filter = filters.next();
+                    if (filter instanceof TimedFilter) {
+                        continue;
+                    }
+                    String name = MetricRegistry.name(METRIC_PREFIX, "filters",
+                            String.valueOf(chainIndex), filter.getClass().getSimpleName());
+                    filters.set(new TimedFilter(filter, registry.timer(name)));
+                }
+            } catch (UnsupportedOperationException e) {
+                logger.info("Filters of security chain {} cannot be timed: {}", chainIndex, chain);
+            }
+            chainIndex++;
+        }
+    }
+
+    private static final class TimedFilter implements Filter {
+
+        private final Filter delegate;
+
+        private final Timer timer;
+
+        TimedFilter(Filter delegate, Timer timer) {
+            this.delegate = delegate;
+            this.timer = timer;
+        }
+
+        @Override
+        public void init(FilterConfig filterConfig) throws ServletException {
+            delegate.init(filterConfig);
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, final FilterChain chain)
+                throws IOException, ServletException {
+
+            final long[] downstream = new long[1];
+            long start = System.nanoTime();
+            try {
+                delegate.doFilter(request, response, new FilterChain() {
+                    @Override
+                    public void doFilter(ServletRequest request, ServletResponse response)
+                            throws IOException, ServletException {
+                        long next = System.nanoTime();
+                        try {
+                            chain.doFilter(request, response);
+                        } finally {
+                            downstream[0] += System.nanoTime() - next;
+                        }
+                    }
+                });
+            } finally {
+                timer.update(System.nanoTime() - start - downstream[0], TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void destroy() {
+            delegate.destroy();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.fallwizard.security;
+
+import com.google.common.base.Optional;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Dropwizard Authenticator that delegates to the Spring Security AuthenticationManager.
+ *
+ * Rejected credentials yield an absent principal (401); failures of the user store itself
+ * are reported as a Dropwizard AuthenticationException (500).
+ */
+public class SpringSecurityAuthenticator implements Authenticator<BasicCredentials, UserDetails> {
+
+    private final AuthenticationManager authenticationManager;
+
+    public SpringSecurityAuthenticator(AuthenticationManager authenticationManager) {
+        this.authenticationManager = authenticationManager;
+    }
+
+    @Override
+    public Optional<UserDetails> authenticate(BasicCredentials credentials) throws AuthenticationException {
+
+        Authentication result;
+        try {
+            result = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(credentials.getUsername(), credentials.getPassword()));
+        } catch (AuthenticationServiceException e) {
+            throw new AuthenticationException(e);
+        } catch (org.springframework.security.core.AuthenticationException e) {
+            return Optional.absent();
+        }
+
+        if (result == null || !result.isAuthenticated()) {
+            return Optional.absent();
+        }
+
+        if (result.getPrincipal() instanceof UserDetails) {
+            return Optional.of((UserDetails) result.getPrincipal());
+        }
+        return Optional.<UserDetails>of(new User(result.getName(), "", result.getAuthorities()));
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.fallwizard.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Role checks against the authorities of a Spring Security principal, e.g. in a resource:
+ * {@code if (!authorizer.authorize(userDetails, "ROLE_ADMIN")) throw new ForbiddenException();}
+ */
+public class SpringSecurityAuthorizer {
+
+    /**
+     * @param principal Authenticated principal
+     * @param role Authority to look for (e.g. "ROLE_ADMIN")
+     * @return true if the principal has been granted the authority
+     */
+    public boolean authorize(UserDetails principal, String role) {
+
+        if (principal == null || principal.getAuthorities() == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : principal.getAuthorities()) {
+            if (role.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
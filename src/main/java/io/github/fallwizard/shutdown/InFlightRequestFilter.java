@@ -0,0 +1,112 @@
+package io.github.fallwizard.shutdown;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the requests being processed (asynchronous ones until their response completes)
+ * and, once told to stop accepting, answers new ones
+ * with 503 Service Unavailable (closing the connection) so they are retried elsewhere.
+ */
+public class InFlightRequestFilter implements Filter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile boolean accepting = true;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {}
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!accepting && response instanceof HttpServletResponse) {
+            rejected.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setHeader("Connection", "close");
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Shutting down");
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+
+            // Suspended (@Suspended, @ExecuteOn): in flight until the response completes.
+            // The container only completes it once this dispatch has returned.
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {}
+
+    public void stopAccepting() {
+        accepting = false;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Ends an asynchronous request once, whichever of timeout, error and completion comes first.
+     */
+    private class CompletionListener implements AsyncListener {
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finished();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finished();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finished();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Suspended again: still in flight, keep listening
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void finished() {
+            if (done.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
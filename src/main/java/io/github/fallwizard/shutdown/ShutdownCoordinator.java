@@ -0,0 +1,246 @@
+package io.github.fallwizard.shutdown;
+
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.lifecycle.ServerLifecycleListener;
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.configuration.ShutdownConfiguration;
+import io.github.fallwizard.health.ReadinessHealthCheck;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterRegistration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shuts the service down in phases, each logged with its duration and the work it dropped:
+ *
+ * 1. readiness - the "readiness" health check turns unhealthy and the service keeps serving
+ *    for the readiness delay, so load balancers move traffic away;
+ * 2. requests - new requests are refused and in-flight ones may finish until the drain deadline;
+ * 3. executors - executor beans are shut down and their queues may finish until the same deadline;
+ * 4. managed - Jetty stops the Managed and LifeCycle beans;
+ * 5. context - the Spring contexts are closed.
+ *
+ * Phases 1-3 run when the Jetty server starts stopping, before it closes its connectors.
+ * The coordinator is registered as a Managed object before the beans, so Jetty stops it after
+ * them, and {@link #getManagedPhaseMarker()} after the beans, so Jetty stops it before them.
+ */
+public class ShutdownCoordinator extends AbstractLifeCycle.AbstractLifeCycleListener implements Managed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShutdownCoordinator.class);
+
+    private final ShutdownConfiguration configuration;
+
+    private final List<? extends ConfigurableApplicationContext> contexts;
+
+    private final ReadinessHealthCheck readiness;
+
+    private final InFlightRequestFilter requests = new InFlightRequestFilter();
+
+    private final List<ShutdownPhase> phases = Collections.synchronizedList(new ArrayList<ShutdownPhase>());
+
+    private volatile long managedPhaseStart;
+
+    /**
+     * @param configuration Shutdown Configuration
+     * @param contexts Spring contexts, in the order they are to be closed
+     * @param readiness Readiness health check to flip
+     */
+    public ShutdownCoordinator(ShutdownConfiguration configuration,
+                               List<? extends ConfigurableApplicationContext> contexts,
+                               ReadinessHealthCheck readiness) {
+        this.configuration = configuration;
+        this.contexts = contexts;
+        this.readiness = readiness;
+    }
+
+    /**
+     * Register the request filter, the server listener and the coordinator itself.
+     * Call before the Managed beans are registered.
+     * @param environment Dropwizard Environment
+     */
+    public void register(Environment environment) {
+
+        FilterRegistration.Dynamic filter = environment.servlets().addFilter("fallwizard-in-flight-requests", requests);
+        // Jersey suspends requests (@Suspended, @ExecuteOn), every filter in front must allow it
+        filter.setAsyncSupported(true);
+        filter.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/*");
+
+        environment.lifecycle().addServerLifecycleListener(new ServerLifecycleListener() {
+            @Override
+            public void serverStarted(Server server) {
+                server.addLifeCycleListener(ShutdownCoordinator.this);
+            }
+        });
+
+        environment.lifecycle().manage(this);
+    }
+
+    /**
+     * @return Managed object to register after the beans, marking the start of the managed phase
+     */
+    public Managed getManagedPhaseMarker() {
+
+        return new Managed() {
+            @Override
+            public void start() throws Exception {}
+
+            @Override
+            public void stop() throws Exception {
+                managedPhaseStart = System.nanoTime();
+            }
+        };
+    }
+
+    /**
+     * @return The phases completed so far
+     */
+    public List<ShutdownPhase> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<>(phases);
+        }
+    }
+
+    @Override
+    public void lifeCycleStopping(LifeCycle event) {
+
+        if (!(event instanceof Server)) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + configuration.getDrainTimeout().toNanoseconds();
+        flipReadiness();
+        drainRequests(deadline);
+        if (configuration.shouldDrainExecutors()) {
+            drainExecutors(deadline);
+        }
+    }
+
+    @Override
+    public void start() throws Exception {}
+
+    @Override
+    public void stop() throws Exception {
+
+        if (managedPhaseStart != 0) {
+            record(new ShutdownPhase("managed", System.nanoTime() - managedPhaseStart, 0, null));
+        }
+
+        long start = System.nanoTime();
+        for (ConfigurableApplicationContext context : contexts) {
+            context.close();
+        }
+        record(new ShutdownPhase("context", System.nanoTime() - start, 0, contexts.size() + " contexts"));
+    }
+
+    private void flipReadiness() {
+
+        long start = System.nanoTime();
+        readiness.setNotReady("Shutting down");
+        sleep(configuration.getReadinessDelay().toMilliseconds());
+        record(new ShutdownPhase("readiness", System.nanoTime() - start, 0, null));
+    }
+
+    private void drainRequests(long deadline) {
+
+        long start = System.nanoTime();
+        if (configuration.shouldRejectWhileDraining()) {
+            requests.stopAccepting();
+        }
+        while (requests.getInFlight() > 0 && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            sleep(50);
+        }
+        record(new ShutdownPhase("requests", System.nanoTime() - start, requests.getInFlight(),
+                requests.getRejected() + " rejected"));
+    }
+
+    private void drainExecutors(long deadline) {
+
+        long start = System.nanoTime();
+
+        Map<String, ExecutorService> executors = findExecutors();
+        for (ExecutorService executor : executors.values()) {
+            executor.shutdown();
+        }
+
+        long dropped = 0;
+        List<String> unfinished = new ArrayList<>();
+        for (Map.Entry<String, ExecutorService> executor : executors.entrySet()) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                if (!executor.getValue().awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                    dropped += executor.getValue().shutdownNow().size();
+                    unfinished.add(executor.getKey());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped += executor.getValue().shutdownNow().size();
+                unfinished.add(executor.getKey());
+            }
+        }
+
+        record(new ShutdownPhase("executors", System.nanoTime() - start, dropped,
+                executors.size() + " executors" + (unfinished.isEmpty() ? "" : ", unfinished " + unfinished)));
+    }
+
+    /**
+     * The executor beans of every context, without creating lazy ones.
+     */
+    private Map<String, ExecutorService> findExecutors() {
+
+        Map<String, ExecutorService> executors = new LinkedHashMap<>();
+        for (ConfigurableApplicationContext context : contexts) {
+            if (!context.isActive()) {
+                continue;
+            }
+            executors.putAll(context.getBeansOfType(ExecutorService.class, false, false));
+
+            for (Map.Entry<String, ThreadPoolTaskExecutor> bean
+                    : context.getBeansOfType(ThreadPoolTaskExecutor.class, false, false).entrySet()) {
+                try {
+                    executors.put(bean.getKey(), bean.getValue().getThreadPoolExecutor());
+                } catch (IllegalStateException e) {
+                    logger.debug("Executor {} is not initialized", bean.getKey());
+                }
+            }
+            for (Map.Entry<String, ThreadPoolTaskScheduler> bean
+                    : context.getBeansOfType(ThreadPoolTaskScheduler.class, false, false).entrySet()) {
+                try {
+                    executors.put(bean.getKey(), bean.getValue().getScheduledExecutor());
+                } catch (IllegalStateException e) {
+                    logger.debug("Scheduler {} is not initialized", bean.getKey());
+                }
+            }
+        }
+        return executors;
+    }
+
+    private void record(ShutdownPhase phase) {
+
+        phases.add(phase);
+        logger.info("Shutdown phase {}", phase);
+    }
+
+    private static void sleep(long millis) {
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
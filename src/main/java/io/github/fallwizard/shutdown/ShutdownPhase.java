@@ -0,0 +1,47 @@
+package io.github.fallwizard.shutdown;
+
+/**
+ * How long a shutdown phase took and how much work it had to give up on.
+ */
+public class ShutdownPhase {
+
+    private final String name;
+
+    private final long elapsedNanos;
+
+    private final long dropped;
+
+    private final String details;
+
+    public ShutdownPhase(String name, long elapsedNanos, long dropped, String details) {
+        this.name = name;
+        this.elapsedNanos = elapsedNanos;
+        this.dropped = dropped;
+        this.details = details;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Units of work (requests, tasks) abandoned in this phase
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d ms, %d dropped%s", name, elapsedNanos / 1000000, dropped,
+                details == null ? "" : " (" + details + ")");
+    }
+}
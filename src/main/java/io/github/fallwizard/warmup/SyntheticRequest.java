@@ -0,0 +1,85 @@
+package io.github.fallwizard.warmup;
+
+import io.github.fallwizard.configuration.WarmUpRequestConfiguration;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ContainerRequest;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.SecurityContext;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * A configured warm-up request, turned into a fresh Jersey ContainerRequest for every replay.
+ */
+class SyntheticRequest {
+
+    private static final URI BASE_URI = URI.create("http://localhost/");
+
+    /** The requests do not go through the servlet filters, so nobody authenticates them. */
+    private static final SecurityContext ANONYMOUS = new SecurityContext() {
+        @Override
+        public Principal getUserPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return false;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public String getAuthenticationScheme() {
+            return null;
+        }
+    };
+
+    private final String method;
+
+    private final URI requestUri;
+
+    private final Map<String, String> headers;
+
+    private final byte[] entity;
+
+    SyntheticRequest(WarmUpRequestConfiguration config) {
+
+        String path = config.getPath().startsWith("/") ? config.getPath().substring(1) : config.getPath();
+
+        this.method = config.getMethod().toUpperCase();
+        this.requestUri = BASE_URI.resolve(path);
+        this.headers = config.getHeaders();
+        this.entity = config.getEntity() == null ? null : config.getEntity().getBytes(StandardCharsets.UTF_8);
+    }
+
+    ContainerRequest create() {
+
+        ContainerRequest request =
+                new ContainerRequest(BASE_URI, requestUri, method, ANONYMOUS, new MapPropertiesDelegate());
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            request.getHeaders().add(header.getKey(), header.getValue());
+        }
+        if (entity != null) {
+            if (!request.getHeaders().containsKey(HttpHeaders.CONTENT_TYPE)) {
+                request.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+            }
+            request.setEntityStream(new ByteArrayInputStream(entity));
+        }
+        return request;
+    }
+
+    @Override
+    public String toString() {
+        return method + " /" + BASE_URI.relativize(requestUri);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.fallwizard.warmup;
+
+/**
+ * Implemented by beans with work to do before the service receives traffic (filling a cache,
+ * opening pool connections, exercising a hot code path).  Called on the warm-up thread once
+ * Jetty has started, before the synthetic requests are replayed; the "readiness" health check
+ * stays unhealthy until every hook returned.
+ */
+public interface WarmUpHook {
+
+    /**
+     * @throws Exception Logged; the warm-up carries on with the other hooks
+     */
+    void warmUp() throws Exception;
+}
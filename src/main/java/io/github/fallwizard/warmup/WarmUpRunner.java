@@ -0,0 +1,260 @@
+package io.github.fallwizard.warmup;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.ServerLifecycleListener;
+import io.github.fallwizard.configuration.WarmUpConfiguration;
+import io.github.fallwizard.configuration.WarmUpRequestConfiguration;
+import io.github.fallwizard.health.ReadinessHealthCheck;
+import org.eclipse.jetty.server.Server;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.servlet.ServletContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+
+import javax.servlet.Servlet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Warms the service up once Jetty has started, on a thread of its own: calls the WarmUpHook
+ * beans of the contexts, then replays the configured requests in-process (through the Jersey
+ * ApplicationHandler, bypassing the servlet filters) in rounds, until the mean latency of a
+ * round levels off or the time budget runs out.  The readiness health check is not ready from
+ * the registration of the warm-up until it is over, whether it succeeded or not.
+ */
+public class WarmUpRunner implements ServerLifecycleListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    public static final String NOT_READY_REASON = "Warming up";
+
+    private final WarmUpConfiguration config;
+
+    private final List<? extends ApplicationContext> contexts;
+
+    private final Servlet jerseyContainer;
+
+    private final ReadinessHealthCheck readiness;
+
+    private final List<SyntheticRequest> requests = new ArrayList<>();
+
+    // Requests whose failure was logged already (logged once, not every round)
+    private final Set<SyntheticRequest> failed =
+            Collections.newSetFromMap(new ConcurrentHashMap<SyntheticRequest, Boolean>());
+
+    /**
+     * @param config Warm-up Configuration
+     * @param contexts Contexts to look for WarmUpHook beans in
+     * @param jerseyContainer Dropwizard's Jersey servlet
+     * @param readiness Health check kept not ready until the warm-up is over
+     */
+    public WarmUpRunner(WarmUpConfiguration config, List<? extends ApplicationContext> contexts,
+                        Servlet jerseyContainer, ReadinessHealthCheck readiness) {
+        this.config = config;
+        this.contexts = contexts;
+        this.jerseyContainer = jerseyContainer;
+        this.readiness = readiness;
+
+        for (WarmUpRequestConfiguration request : config.getRequests()) {
+            requests.add(new SyntheticRequest(request));
+        }
+        readiness.setNotReady(NOT_READY_REASON);
+    }
+
+    @Override
+    public void serverStarted(final Server server) {
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                warmUp(server);
+            }
+        }, "fallwizard-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void warmUp(Server server) {
+
+        long start = System.nanoTime();
+        try {
+            callHooks();
+            if (!requests.isEmpty()) {
+                replay(server, start + config.getTimeBudget().toNanoseconds());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up failed", e);
+        } finally {
+            if (readiness.clearNotReady(NOT_READY_REASON)) {
+                logger.info("Warm-up done in {} ms, the service is ready",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } else {
+                logger.info("Warm-up done in {} ms, but the service is not ready anymore",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+    }
+
+    private void callHooks() {
+
+        // A hook of a parent context is found once
+        Map<WarmUpHook, String> hooks = new IdentityHashMap<>();
+        for (ApplicationContext context : contexts) {
+            for (Map.Entry<String, WarmUpHook> hook : context.getBeansOfType(WarmUpHook.class, false, true).entrySet()) {
+                if (!hooks.containsKey(hook.getValue())) {
+                    hooks.put(hook.getValue(), hook.getKey());
+                }
+            }
+        }
+
+        for (Map.Entry<WarmUpHook, String> hook : hooks.entrySet()) {
+            long start = System.nanoTime();
+            try {
+                hook.getKey().warmUp();
+                logger.info("Warmed up bean '{}' in {} ms", hook.getValue(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (Exception e) {
+                logger.warn("Failed to warm up bean '{}'", hook.getValue(), e);
+            }
+        }
+    }
+
+    private void replay(Server server, long deadline) {
+
+        if (!(jerseyContainer instanceof ServletContainer)) {
+            logger.warn("Cannot replay warm-up requests through a {}", jerseyContainer);
+            return;
+        }
+        ApplicationHandler handler = ((ServletContainer) jerseyContainer).getApplicationHandler();
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.getConcurrency(),
+                new ThreadFactoryBuilder().setNameFormat("fallwizard-warm-up-%d").setDaemon(true).build());
+        try {
+            long firstRound = 0;
+            long lastRound = 0;
+            int rounds = 0;
+            int stable = 0;
+            String outcome;
+
+            while (true) {
+                if (!server.isRunning()) {
+                    outcome = "the server stopped";
+                    break;
+                }
+                if (System.nanoTime() >= deadline) {
+                    outcome = "the time budget ran out";
+                    break;
+                }
+                if (rounds >= config.getMaxRounds()) {
+                    outcome = "the maximum number of rounds was reached";
+                    break;
+                }
+
+                long mean;
+                try {
+                    mean = round(handler, executor, deadline);
+                } catch (TimeoutException e) {
+                    outcome = "the time budget ran out";
+                    break;
+                }
+                rounds++;
+
+                if (rounds == 1) {
+                    firstRound = mean;
+                } else if (Math.abs(mean - lastRound) <= config.getTolerance() * lastRound) {
+                    stable++;
+                } else {
+                    stable = 0;
+                }
+                lastRound = mean;
+
+                if (rounds >= config.getMinRounds() && stable >= config.getStableRounds()) {
+                    outcome = "the latency leveled off";
+                    break;
+                }
+            }
+
+            logger.info("Replayed {} rounds of {} warm-up requests, stopped as {}: mean latency {} us in the first round, {} us in the last",
+                    rounds, requests.size(), outcome,
+                    TimeUnit.NANOSECONDS.toMicros(firstRound), TimeUnit.NANOSECONDS.toMicros(lastRound));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Warm-up interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Replay every request once on each of the threads.
+     * @return Mean latency of the requests, in nanoseconds
+     */
+    private long round(final ApplicationHandler handler, ExecutorService executor, final long deadline)
+            throws InterruptedException, TimeoutException {
+
+        List<Future<Long>> replays = new ArrayList<>();
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            replays.add(executor.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    long elapsed = 0;
+                    for (SyntheticRequest request : requests) {
+                        elapsed += replay(handler, request, deadline);
+                    }
+                    return elapsed;
+                }
+            }));
+        }
+
+        long elapsed = 0;
+        try {
+            for (Future<Long> replay : replays) {
+                elapsed += replay.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw (TimeoutException) e.getCause();
+            }
+            throw new IllegalStateException("Warm-up request failed", e.getCause());
+        } finally {
+            for (Future<Long> replay : replays) {
+                replay.cancel(true);
+            }
+        }
+        return elapsed / ((long) config.getConcurrency() * requests.size());
+    }
+
+    private long replay(ApplicationHandler handler, SyntheticRequest request, long deadline)
+            throws InterruptedException, TimeoutException {
+
+        long start = System.nanoTime();
+        try {
+            ContainerResponse response = handler.apply(request.create(), ByteStreams.nullOutputStream())
+                    .get(Math.max(deadline - start, 1), TimeUnit.NANOSECONDS);
+            if (response.getStatus() >= 400 && failed.add(request)) {
+                logger.warn("Warm-up request {} answered {}", request, response.getStatus());
+            }
+        } catch (ExecutionException e) {
+            if (failed.add(request)) {
+                logger.warn("Warm-up request {} failed", request, e.getCause());
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
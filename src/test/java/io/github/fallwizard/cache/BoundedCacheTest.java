@@ -0,0 +1,195 @@
+package io.github.fallwizard.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.google.common.cache.Weigher;
+import io.dropwizard.jackson.Jackson;
+import io.github.fallwizard.configuration.CacheConfiguration;
+import io.github.fallwizard.configuration.CachesConfiguration;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BoundedCacheTest {
+
+    private static final Weigher<Object, Object> LENGTH = new Weigher<Object, Object>() {
+        @Override
+        public int weigh(Object key, Object value) {
+            return value.toString().length();
+        }
+    };
+
+    private static final Executor NO_REFRESH = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            throw new AssertionError("Nothing to refresh");
+        }
+    };
+
+    private AnnotationConfigApplicationContext context;
+
+    private BoundedCacheManager cacheManager;
+
+    @After
+    public void close() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        if (cacheManager != null) {
+            cacheManager.stop();
+        }
+    }
+
+    @Test
+    public void rejectsOneOffKeysNearTheBound() throws Exception {
+
+        BoundedCache cache = cache("{\"maximumSize\": 10}");
+        for (int i = 0; i < 9; i++) {
+            cache.put("key" + i, "value");
+        }
+
+        cache.put("oneOff", "value");
+        assertNull(cache.get("oneOff"));
+
+        // Requested twice (the failed lookup above and this one)
+        cache.get("oneOff");
+        cache.put("oneOff", "value");
+        assertEquals("value", cache.get("oneOff").get());
+
+        // Updates are always admitted
+        cache.put("key0", "updated");
+        assertEquals("updated", cache.get("key0").get());
+    }
+
+    @Test
+    public void admitsEveryKeyWhenDisabled() throws Exception {
+
+        BoundedCache cache = cache("{\"maximumSize\": 10, \"rejectOneOffKeys\": false}");
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, "value");
+        }
+
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void accountsTheWeightOfReplacedAndEvictedEntries() throws Exception {
+
+        BoundedCache cache = cache("{\"maximumSize\": 100}");
+
+        cache.put("a", "1234567890");
+        assertEquals(10, cache.getWeight());
+
+        cache.put("a", "12345");
+        assertEquals(5, cache.getWeight());
+
+        cache.putIfAbsent("a", "1234567890");
+        cache.putIfAbsent("b", "123");
+        assertEquals(8, cache.getWeight());
+
+        cache.evict("a");
+        assertEquals(3, cache.getWeight());
+
+        cache.clear();
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void accountsTheWeightOfEntriesEvictedByTheBound() throws Exception {
+
+        BoundedCache cache = cache("{\"maximumWeight\": \"10 bytes\", \"rejectOneOffKeys\": false}");
+
+        cache.put("a", "1234");
+        cache.put("b", "1234");
+        cache.put("c", "1234");
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getWeight());
+    }
+
+    @Test(timeout = 10000)
+    public void refreshesInTheBackgroundWhileServingTheCachedValue() throws Exception {
+
+        cacheManager = new BoundedCacheManager(
+                Jackson.newObjectMapper().readValue("{\"caches\": {\"values\": {\"refreshAfterWrite\": \"100ms\"}}}",
+                        CachesConfiguration.class),
+                new DefaultListableBeanFactory(), new MetricRegistry(), new HealthCheckRegistry());
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().registerSingleton("cacheManager", cacheManager);
+        context.getBeanFactory().registerSingleton("refreshAhead", new RefreshAheadPostProcessor());
+        context.register(CachingConfiguration.class);
+        context.refresh();
+        Values values = context.getBean(Values.class);
+
+        assertEquals("a1", values.get("a"));
+        assertEquals("a1", values.get("a"));
+        Thread.sleep(150);
+
+        // Past the refresh time: the cached value, while the method runs in the background
+        SettableListenableFuture<Object> reload = new SettableListenableFuture<>();
+        values.holdCallsUntil(reload);
+        assertEquals("a1", values.get("a"));
+        assertEquals("a1", values.get("a"));
+        reload.set(null);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"a2".equals(values.get("a")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("a2", values.get("a"));
+        assertEquals(2, values.getCalls());
+    }
+
+    private BoundedCache cache(String json) throws Exception {
+
+        return new BoundedCache("test", Jackson.newObjectMapper().readValue(json, CacheConfiguration.class),
+                LENGTH, NO_REFRESH, new MetricRegistry());
+    }
+
+    @Configuration
+    @EnableCaching
+    public static class CachingConfiguration {
+
+        @Bean
+        public Values values() {
+            return new Values();
+        }
+    }
+
+    public static class Values {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private volatile SettableListenableFuture<Object> release;
+
+        @Cacheable("values")
+        public String get(String key) throws Exception {
+            if (release != null) {
+                release.get();
+            }
+            return key + calls.incrementAndGet();
+        }
+
+        // Holds the reload back until the test has seen the cached value
+        public void holdCallsUntil(SettableListenableFuture<Object> release) {
+            this.release = release;
+        }
+
+        public int getCalls() {
+            return calls.get();
+        }
+    }
+}
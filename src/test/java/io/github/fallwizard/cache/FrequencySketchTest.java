@@ -0,0 +1,49 @@
+package io.github.fallwizard.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrequencySketchTest {
+
+    private final FrequencySketch sketch = new FrequencySketch(16);
+
+    @Test
+    public void countsTheRequestsOfAKey() {
+
+        for (int i = 0; i < 3; i++) {
+            sketch.increment("a");
+        }
+
+        assertEquals(3, sketch.frequency("a"));
+        assertEquals(0, sketch.frequency("b"));
+    }
+
+    @Test
+    public void saturatesAtFifteen() {
+
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("a");
+        }
+
+        assertEquals(15, sketch.frequency("a"));
+    }
+
+    @Test
+    public void halvesTheCountsOnceItHasSeenTenRequestsPerColumn() {
+
+        // 64 columns at least, so halved after 640 requests
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("a");
+        }
+        for (int i = 0; i < 631; i++) {
+            sketch.increment("b");
+        }
+        assertEquals(8, sketch.frequency("a"));
+
+        sketch.increment("b");
+
+        assertEquals(4, sketch.frequency("a"));
+        assertEquals(7, sketch.frequency("b"));
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.fallwizard.context;
+
+import com.google.common.io.Files;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.GenericXmlApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelContextLoaderTest {
+
+    private static final String HEADER = "<beans xmlns=\"http://www.springframework.org/schema/beans\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xsi:schemaLocation=\"http://www.springframework.org/schema/beans"
+            + " http://www.springframework.org/schema/beans/spring-beans.xsd\">";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ParallelContextLoader loader = new ParallelContextLoader(2);
+
+    @After
+    public void shutdown() {
+        loader.shutdown();
+    }
+
+    @Test
+    public void keepsAliasesOfBeansDefinedInAnotherFile() throws Exception {
+
+        List<String> locations = Arrays.asList(
+                file("a.xml", "<bean id=\"ds\" class=\"java.lang.String\"/>"),
+                file("b.xml", "<alias name=\"ds\" alias=\"dataSource\"/>"));
+
+        GenericApplicationContext sequential = sequential(locations);
+        GenericApplicationContext parallel = parallel(locations);
+
+        assertArrayEquals(new String[] { "dataSource" }, sequential.getAliases("ds"));
+        assertArrayEquals(sequential.getAliases("ds"), parallel.getAliases("ds"));
+    }
+
+    @Test
+    public void keepsTheClassNameAliasOnTheFirstBeanWithoutAnId() throws Exception {
+
+        List<String> locations = Arrays.asList(
+                file("a.xml", "<bean class=\"java.lang.StringBuilder\"><constructor-arg value=\"a\"/></bean>"),
+                file("b.xml", "<bean class=\"java.lang.StringBuilder\"><constructor-arg value=\"b\"/></bean>"));
+
+        GenericApplicationContext sequential = sequential(locations);
+        GenericApplicationContext parallel = parallel(locations);
+
+        assertEquals("java.lang.StringBuilder#0", sequential.getAliases("java.lang.StringBuilder")[0]);
+        assertArrayEquals(sequential.getAliases("java.lang.StringBuilder#0"), parallel.getAliases("java.lang.StringBuilder#0"));
+        assertArrayEquals(sequential.getAliases("java.lang.StringBuilder#1"), parallel.getAliases("java.lang.StringBuilder#1"));
+        assertEquals("a", parallel.getBean("java.lang.StringBuilder").toString());
+    }
+
+    private GenericApplicationContext sequential(List<String> locations) {
+
+        GenericXmlApplicationContext context = new GenericXmlApplicationContext();
+        context.load(locations.toArray(new String[locations.size()]));
+        context.refresh();
+        return context;
+    }
+
+    private GenericApplicationContext parallel(List<String> locations) {
+
+        GenericApplicationContext context = new GenericApplicationContext();
+        loader.loadBeanDefinitions(context, locations);
+        context.refresh();
+        return context;
+    }
+
+    private String file(String name, String beans) throws IOException {
+
+        File file = folder.newFile(name);
+        Files.write(HEADER + beans + "</beans>", file, StandardCharsets.UTF_8);
+        return file.toURI().toString();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.fallwizard.executor;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.jackson.Jackson;
+import io.github.fallwizard.configuration.ExecutorsConfiguration;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutorBeanPostProcessorTest {
+
+    private final MetricRegistry registry = new MetricRegistry();
+
+    private final List<ExecutorBeanPostProcessor> processors = new ArrayList<>();
+
+    @After
+    public void shutdown() {
+        for (ExecutorBeanPostProcessor processor : processors) {
+            for (ExecutorService pool : processor.getExecutors().keySet()) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void keepsSameNamedExecutorsOfDifferentContexts() throws Exception {
+
+        ExecutorBeanPostProcessor processor = processor();
+        DefaultListableBeanFactory parent = beanFactory(processor);
+        DefaultListableBeanFactory child = beanFactory(processor);
+        child.setParentBeanFactory(parent);
+
+        ExecutorService parentPool = (ExecutorService) parent.getBean("pool");
+        ExecutorService childPool = (ExecutorService) child.getBean("pool");
+
+        Map<ExecutorService, String> executors = processor.getExecutors();
+        assertEquals(2, executors.size());
+        assertEquals("pool", executors.get(parentPool));
+        assertEquals("pool#1", executors.get(childPool));
+        assertTrue(registry.getGauges().containsKey("fallwizard.executors.pool.pool.size"));
+        assertTrue(registry.getGauges().containsKey("fallwizard.executors.pool#1.pool.size"));
+    }
+
+    @Test
+    public void keepsEveryInstanceOfAPrototypeExecutor() throws Exception {
+
+        ExecutorBeanPostProcessor processor = processor();
+        DefaultListableBeanFactory beanFactory = beanFactory(processor);
+        beanFactory.getBeanDefinition("pool").setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+
+        beanFactory.getBean("pool");
+        beanFactory.getBean("pool");
+        beanFactory.getBean("pool");
+
+        assertEquals(3, processor.getExecutors().size());
+        assertTrue(registry.getGauges().containsKey("fallwizard.executors.pool#2.pool.size"));
+    }
+
+    @Test
+    public void givesTheNameBackWhenTheBeanIsDestroyed() throws Exception {
+
+        ExecutorBeanPostProcessor processor = processor();
+        DefaultListableBeanFactory first = beanFactory(processor);
+        DefaultListableBeanFactory second = beanFactory(processor);
+
+        first.getBean("pool");
+        first.destroySingletons();
+
+        assertTrue(processor.getExecutors().isEmpty());
+        assertFalse(registry.getGauges().containsKey("fallwizard.executors.pool.pool.size"));
+
+        ExecutorService pool = (ExecutorService) second.getBean("pool");
+        assertEquals("pool", processor.getExecutors().get(pool));
+        assertTrue(registry.getGauges().containsKey("fallwizard.executors.pool.pool.size"));
+    }
+
+    private ExecutorBeanPostProcessor processor() throws Exception {
+
+        ExecutorBeanPostProcessor processor = new ExecutorBeanPostProcessor(registry,
+                Jackson.newObjectMapper().readValue("{\"enabled\": true}", ExecutorsConfiguration.class));
+        processors.add(processor);
+        return processor;
+    }
+
+    private DefaultListableBeanFactory beanFactory(ExecutorBeanPostProcessor processor) {
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.addBeanPostProcessor(processor);
+        RootBeanDefinition definition = new RootBeanDefinition(Executors.class);
+        definition.setFactoryMethodName("newFixedThreadPool");
+        definition.getConstructorArgumentValues().addGenericArgumentValue(2);
+        definition.setDestroyMethodName("shutdown");
+        beanFactory.registerBeanDefinition("pool", definition);
+        return beanFactory;
+    }
+}
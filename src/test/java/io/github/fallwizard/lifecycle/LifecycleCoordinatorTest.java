@@ -0,0 +1,112 @@
+package io.github.fallwizard.lifecycle;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.lifecycle.Managed;
+import io.dropwizard.setup.Environment;
+import io.github.fallwizard.configuration.ManagedLifecycleConfiguration;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LifecycleCoordinatorTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void timesEachBeanFromWhenItStartsRunning() throws Exception {
+
+        // One thread: the third bean waits 400 ms for a thread, more than the timeout
+        LifecycleCoordinator coordinator = coordinator("{\"threads\": 1, \"startTimeout\": \"300ms\"}");
+        add(coordinator, "a", 200, false);
+        add(coordinator, "b", 200, false);
+        add(coordinator, "c", 200, false);
+
+        coordinator.start();
+
+        assertEquals(1, coordinator.levels().size());
+        for (LifecycleCoordinator.Node node : coordinator.levels().get(0)) {
+            assertTrue(node.getBeanName(), node.isStarted());
+        }
+    }
+
+    @Test
+    public void timesOutABeanThatTakesTooLong() throws Exception {
+
+        LifecycleCoordinator coordinator = coordinator("{\"threads\": 2, \"startTimeout\": \"100ms\"}");
+        add(coordinator, "slow", 2000, false);
+
+        try {
+            coordinator.start();
+            fail("The slow bean did not time out");
+        } catch (TimeoutException expected) {
+            // slow did not start in time
+        }
+    }
+
+    @Test
+    public void stopsTheStartedBeansWhenOneFails() throws Exception {
+
+        LifecycleCoordinator coordinator = coordinator("{\"threads\": 1}");
+        add(coordinator, "first", 0, false);
+        add(coordinator, "broken", 0, true);
+        add(coordinator, "queued", 0, false);
+        add(coordinator, "dependent", 0, false);
+        beanFactory.registerDependentBean("first", "dependent");
+
+        try {
+            coordinator.start();
+            fail("The broken bean did not fail the startup");
+        } catch (IllegalStateException expected) {
+            // broken
+        }
+
+        assertTrue(events.contains("start first"));
+        for (String event : events) {
+            if (event.startsWith("start ")) {
+                assertTrue(event, events.contains("stop " + event.substring("start ".length())));
+            }
+        }
+        assertFalse(events.contains("start dependent"));
+    }
+
+    private LifecycleCoordinator coordinator(String json) throws Exception {
+
+        LifecycleCoordinator coordinator = new LifecycleCoordinator(
+                Jackson.newObjectMapper().readValue(json, ManagedLifecycleConfiguration.class));
+        coordinator.manage(new Environment("test", Jackson.newObjectMapper(), null, new MetricRegistry(),
+                getClass().getClassLoader()));
+        return coordinator;
+    }
+
+    private void add(LifecycleCoordinator coordinator, final String name, final long startMillis, final boolean fail) {
+
+        Managed managed = new Managed() {
+            @Override
+            public void start() throws Exception {
+                Thread.sleep(startMillis);
+                if (fail) {
+                    throw new IllegalStateException(name + " failed");
+                }
+                events.add("start " + name);
+            }
+
+            @Override
+            public void stop() {
+                events.add("stop " + name);
+            }
+        };
+        beanFactory.registerSingleton(name, managed);
+        coordinator.add(name, beanFactory, managed);
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.fallwizard.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.annotation.Gauge;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsAnnotationBeanPostProcessorTest {
+
+    private final MetricRegistry registry = new MetricRegistry();
+
+    private final MetricsAnnotationBeanPostProcessor processor = new MetricsAnnotationBeanPostProcessor(registry);
+
+    @Test
+    public void readsTheGaugeOfAPlainBean() {
+
+        processor.postProcessAfterInitialization(new Queue(), "queue");
+
+        assertEquals(42, gauge());
+    }
+
+    @Test
+    public void readsTheGaugeOfAJdkProxyFromItsTarget() {
+
+        ProxyFactory proxyFactory = new ProxyFactory(new Queue());
+        proxyFactory.addInterface(Callable.class);
+        Object proxy = proxyFactory.getProxy();
+        assertTrue(AopUtils.isJdkDynamicProxy(proxy));
+
+        processor.postProcessAfterInitialization(proxy, "queue");
+
+        assertEquals(42, gauge());
+    }
+
+    private Object gauge() {
+        return registry.getGauges().get(MetricRegistry.name(Queue.class, "depth")).getValue();
+    }
+
+    public static class Queue implements Callable<Object> {
+
+        @Gauge
+        public int depth() {
+            return 42;
+        }
+
+        @Override
+        public Object call() {
+            return null;
+        }
+    }
+}
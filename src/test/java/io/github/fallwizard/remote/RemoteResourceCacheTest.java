@@ -0,0 +1,155 @@
+package io.github.fallwizard.remote;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.io.Files;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.jackson.Jackson;
+import io.github.fallwizard.configuration.RemoteResourcesConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class RemoteResourceCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, String> content = new ConcurrentHashMap<>();
+
+    private volatile boolean failing = false;
+
+    private HttpServer server;
+
+    @Before
+    public void startServer() throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String body = content.get(exchange.getRequestURI().getPath());
+                if (failing || body == null) {
+                    exchange.sendResponseHeaders(failing ? 500 : 404, -1);
+                    exchange.close();
+                    return;
+                }
+                String etag = "\"" + body.hashCode() + "\"";
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void downloadsThenRevalidates() throws Exception {
+
+        RemoteResourceCache cache = cache("7d");
+        content.put("/a.xml", "<a/>");
+
+        FetchResult first = cache.fetch(url("/a.xml"));
+        assertEquals(FetchResult.Source.DOWNLOADED, first.getSource());
+        assertEquals("<a/>", read(first));
+
+        FetchResult second = cache.fetch(url("/a.xml"));
+        assertEquals(FetchResult.Source.NOT_MODIFIED, second.getSource());
+        assertEquals("<a/>", read(second));
+
+        content.put("/a.xml", "<b/>");
+        FetchResult changed = cache.fetch(url("/a.xml"));
+        assertEquals(FetchResult.Source.DOWNLOADED, changed.getSource());
+        assertEquals("<b/>", read(changed));
+    }
+
+    @Test
+    public void fallsBackToACopyWithinTheStalenessLimit() throws Exception {
+
+        content.put("/a.xml", "<a/>");
+        cache("7d").fetch(url("/a.xml"));
+
+        failing = true;
+        FetchResult stale = cache("7d").fetch(url("/a.xml"));
+        assertEquals(FetchResult.Source.STALE, stale.getSource());
+        assertEquals("<a/>", read(stale));
+    }
+
+    @Test
+    public void failsPastTheStalenessLimit() throws Exception {
+
+        content.put("/a.xml", "<a/>");
+        cache("7d").fetch(url("/a.xml"));
+
+        failing = true;
+        Thread.sleep(20);
+        try {
+            cache("10ms").fetch(url("/a.xml"));
+            fail("A copy older than the staleness limit was used");
+        } catch (IOException expected) {
+            // the server's failure
+        }
+    }
+
+    @Test
+    public void keepsContentSharedWithAnotherUrl() throws Exception {
+
+        RemoteResourceCache cache = cache("7d");
+        content.put("/a.xml", "<same/>");
+        content.put("/b.xml", "<same/>");
+        cache.fetch(url("/a.xml"));
+        cache.fetch(url("/b.xml"));
+
+        content.put("/a.xml", "<changed/>");
+        cache.fetch(url("/a.xml"));
+
+        failing = true;
+        FetchResult stale = cache.fetch(url("/b.xml"));
+        assertEquals(FetchResult.Source.STALE, stale.getSource());
+        assertEquals("<same/>", read(stale));
+    }
+
+    private RemoteResourceCache cache(String maxStaleness) throws IOException {
+
+        String json = "{\"enabled\": true, \"directory\": \"" + folder.getRoot().getAbsolutePath().replace("\\", "\\\\")
+                + "\", \"maxStaleness\": \"" + maxStaleness + "\"}";
+        RemoteResourcesConfiguration configuration =
+                Jackson.newObjectMapper().readValue(json, RemoteResourcesConfiguration.class);
+        return new RemoteResourceCache(configuration, new MetricRegistry());
+    }
+
+    private URL url(String path) throws IOException {
+        return new URL("http://localhost:" + server.getAddress().getPort() + path);
+    }
+
+    private static String read(FetchResult result) throws IOException {
+        return Files.toString(result.getFile(), StandardCharsets.UTF_8);
+    }
+}
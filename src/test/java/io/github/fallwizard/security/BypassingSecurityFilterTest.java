@@ -0,0 +1,117 @@
+package io.github.fallwizard.security;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BypassingSecurityFilterTest {
+
+    private RecordingFilter security;
+
+    private BypassingSecurityFilter filter;
+
+    @Before
+    public void setUp() {
+        security = new RecordingFilter();
+        filter = new BypassingSecurityFilter(security, Arrays.asList("/public/", "/ping"), new MetricRegistry());
+    }
+
+    @Test
+    public void bypassesPathsBelowAPrefix() throws Exception {
+        assertTrue(bypasses("/public/style.css", "/public", "/style.css"));
+        assertTrue(bypasses("/public", "/public", null));
+        assertTrue(bypasses("/ping", "/ping", null));
+    }
+
+    @Test
+    public void matchesWholeSegmentsOnly() throws Exception {
+        assertFalse(bypasses("/publicity", "/publicity", null));
+        assertFalse(bypasses("/pingpong", "/pingpong", null));
+    }
+
+    @Test
+    public void neverBypassesDotSegments() throws Exception {
+        assertFalse(bypasses("/public/../admin", "/admin", null));
+        assertFalse(bypasses("/public/%2e%2e/admin", "/admin", null));
+    }
+
+    @Test
+    public void neverBypassesEncodedSeparators() throws Exception {
+        assertFalse(bypasses("/public%2F..%2Fadmin", "/admin", null));
+        assertFalse(bypasses("/public%5c..%5cadmin", "/admin", null));
+    }
+
+    @Test
+    public void neverBypassesPathParameters() throws Exception {
+        assertFalse(bypasses("/public;x/../admin", "/admin", null));
+        assertFalse(bypasses("/public;jsessionid=1/style.css", "/public", "/style.css"));
+    }
+
+    @Test
+    public void matchesTheServletPathNotTheRawUri() throws Exception {
+        // Raw URI under the prefix, but the container serves another path
+        assertFalse(bypasses("/public/x", "/admin", null));
+        // Context path in the URI, prefix relative to it
+        assertTrue(bypasses("/app/ping", "/ping", null));
+    }
+
+    /**
+     * @return true if the request went around the security filter
+     */
+    private boolean bypasses(String requestUri, String servletPath, String pathInfo) throws Exception {
+
+        security.called = false;
+        filter.doFilter(request(requestUri, servletPath, pathInfo), null, new FilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {}
+        });
+        return !security.called;
+    }
+
+    private static HttpServletRequest request(final String requestUri, final String servletPath, final String pathInfo) {
+
+        return (HttpServletRequest) Proxy.newProxyInstance(BypassingSecurityFilterTest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        switch (method.getName()) {
+                            case "getRequestURI": return requestUri;
+                            case "getServletPath": return servletPath;
+                            case "getPathInfo": return pathInfo;
+                            case "getContextPath": return "";
+                            default: throw new UnsupportedOperationException(method.getName());
+                        }
+                    }
+                });
+    }
+
+    private static class RecordingFilter implements Filter {
+
+        boolean called;
+
+        @Override
+        public void init(FilterConfig filterConfig) {}
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) {
+            called = true;
+        }
+
+        @Override
+        public void destroy() {}
+    }
+}